@@ -0,0 +1,91 @@
+package com.aylinaygul.librarymanagementapp.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of book summaries keyed by id. Caffeine's W-TinyLFU admission keeps
+ * the popular titles resident. Unknown ids are cached as empty for a shorter time so repeated
+ * lookups of missing books do not reach the database either. Each summary is stored with the row
+ * version it was read at, so conditional requests can be answered from the cache alone.
+ */
+@Component
+public class BookCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCache.class);
+
+    private final Cache<UUID, Optional<CachedBook>> cache;
+
+    public BookCache(MeterRegistry meterRegistry,
+            @Value("${library.cache.books.maximum-size:10000}") long maximumSize,
+            @Value("${library.cache.books.expire-after-write:10m}") Duration ttl,
+            @Value("${library.cache.books.negative-expire-after-write:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize)
+                .expireAfter(new PresenceAwareExpiry(ttl, negativeTtl)).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books");
+    }
+
+    /**
+     * A book summary and the version of its row. The version must be read no later than the
+     * summary, so that it never claims a newer state than the summary shows.
+     */
+    public record CachedBook(BookResponse book, long version) {
+    }
+
+    /**
+     * Returns the cached book, calling {@code loader} on a miss. The loader returns null for an
+     * unknown id, and that absence is cached too.
+     */
+    public CachedBook get(UUID id, Function<UUID, CachedBook> loader) {
+        return cache.get(id, key -> Optional.ofNullable(loader.apply(key))).orElse(null);
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        logger.debug("Invalidating cached book {}", event.bookId());
+        invalidate(event.bookId());
+    }
+
+    private record PresenceAwareExpiry(Duration ttl, Duration negativeTtl)
+            implements Expiry<UUID, Optional<CachedBook>> {
+
+        @Override
+        public long expireAfterCreate(UUID key, Optional<CachedBook> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Optional<CachedBook> value, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Optional<CachedBook> value, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.aylinaygul.librarymanagementapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Brings copy counts of books stored before they were tracked in line with their availability.
+ * Runners finish before the application is ready, so the catalog indexes load the fixed counts.
+ */
+@Component
+@RequiredArgsConstructor
+public class CopyCountReconciler implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyCountReconciler.class);
+
+    private final BookRepository bookRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int reconciled = bookRepository.reconcileLentCopies();
+        if (reconciled > 0) {
+            logger.info("Marked {} lent out books as having no available copy", reconciled);
+        }
+    }
+}
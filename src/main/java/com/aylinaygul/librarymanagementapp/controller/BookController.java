@@ -1,27 +1,47 @@
 package com.aylinaygul.librarymanagementapp.controller;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookImportFormat;
 import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookImportResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetedPage;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
+import com.aylinaygul.librarymanagementapp.service.BookImportService;
 import com.aylinaygul.librarymanagementapp.service.BookService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -33,38 +53,157 @@ public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
+
+    private static boolean includesRecords(List<String> include) {
+        return include != null && include.contains("records");
+    }
+
+    /**
+     * Strong entity tag for a version; representations with borrow records get their own tag.
+     */
+    private static String entityTag(String version, boolean includeRecords) {
+        return "\"" + version + (includeRecords ? "-records" : "") + "\"";
+    }
 
     @GetMapping()
     @Operation(summary = "Get all books",
-            description = "Retrieves a list of all books in the system",
+            description = "Retrieves a list of all books in the system. Pass include=records to also load each book's borrow history. Machine clients can ask for application/cbor or application/x-jackson-smile instead of JSON. The response carries an ETag that changes with any catalog change; send it back in If-None-Match to get 304 while nothing changed.",
             responses = {@ApiResponse(responseCode = "200",
                     description = "List of books retrieved successfully",
                     content = @Content(mediaType = "application/json", array = @ArraySchema(
-                            schema = @Schema(implementation = BookResponse.class))))})
-    public ResponseEntity<List<BookResponse>> getAllBooks() {
+                            schema = @Schema(implementation = BookResponse.class)))),
+                    @ApiResponse(responseCode = "304",
+                            description = "Catalog unchanged since the If-None-Match tag")})
+    public ResponseEntity<List<BookResponse>> getAllBooks(
+            @RequestParam(required = false) List<String> include, WebRequest request) {
         logger.info("Fetching all books");
-        List<BookResponse> books = bookService.getAllBooks();
+        // read before the books, so the tag can only be older than the content
+        String etag = entityTag(bookService.getCatalogVersion(), includesRecords(include));
+        if (request.checkNotModified(etag)) {
+            logger.debug("Catalog unchanged since {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        List<BookResponse> books = bookService.getAllBooks(includesRecords(include));
         logger.debug("Total books found: {}", books.size());
-        return ResponseEntity.status(HttpStatus.OK).body(books);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                .body(books);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all books",
+            description = "Streams every book in the system as newline-delimited JSON. Rows are written as they are read, so memory use does not grow with the catalog.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Books streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BookResponse.class)))})
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        logger.info("Streaming all books");
+        StreamingResponseBody body = out -> writeNdjson(out, bookService::streamAllBooks);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeNdjson(OutputStream out, Consumer<Consumer<BookResponse>> source) {
+        long count = NdjsonWriter.write(out, objectMapper, source);
+        logger.debug("Total books streamed: {}", count);
+    }
+
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get books by cursor",
+            description = "Walks the catalog ordered by title using an opaque cursor. Pass the returned nextCursor as 'after' to fetch the following slice. No total count is computed.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Slice of books retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")})
+    public ResponseEntity<CursorPageResponse<BookResponse>> getBooksAfter(
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        logger.info("Fetching books after cursor {} with limit {}", after, limit);
+        CursorPageResponse<BookResponse> books = bookService.getBooksAfter(after, limit);
+        logger.debug("Books in slice: {}", books.content().size());
+        return ResponseEntity.ok(books);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get book by ID", description = "Retrieves a book by its unique ID",
+    @Operation(summary = "Get book by ID",
+            description = "Retrieves a book by its unique ID. Pass include=records to also load its borrow history. The response carries an ETag derived from the book's version; send it back in If-None-Match to get 304 while the book is unchanged.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Book found",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = BookResponse.class))),
+                    @ApiResponse(responseCode = "304",
+                            description = "Book unchanged since the If-None-Match tag"),
                     @ApiResponse(responseCode = "404", description = "Book not found")})
-    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID id) {
+    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID id,
+            @RequestParam(required = false) List<String> include, WebRequest request) {
         logger.info("Fetching book with ID: {}", id);
-        BookResponse book = bookService.getBookById(id);
+        Long version = bookService.getBookVersion(id);
+        if (version == null) {
+            logger.warn("Book with ID {} not found", id);
+            return ResponseEntity.notFound().build();
+        }
 
+        String etag = entityTag(String.valueOf(version), includesRecords(include));
+        if (request.checkNotModified(etag)) {
+            logger.debug("Book {} unchanged since version {}", id, version);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        BookResponse book = bookService.getBookById(id, includesRecords(include));
         if (book == null) {
             logger.warn("Book with ID {} not found", id);
             return ResponseEntity.notFound().build();
         }
 
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(book);
+    }
+
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Get book availability",
+            description = "Returns how many copies of the book are held and how many can be borrowed right now. Served from memory without touching the database.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Availability found",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = BookAvailabilityResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Book not found")})
+    public ResponseEntity<BookAvailabilityResponse> getAvailability(@PathVariable UUID id) {
+        logger.debug("Fetching availability of book {}", id);
+        BookAvailabilityResponse availability = bookService.getAvailability(id);
+
+        if (availability == null) {
+            logger.warn("Book with ID {} not found", id);
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(availability);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    @Operation(summary = "Get book by ISBN",
+            description = "Retrieves the book with exactly this 10 or 13 digit ISBN.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Book found",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BookResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed ISBN"),
+                    @ApiResponse(responseCode = "404", description = "Book not found")})
+    public ResponseEntity<BookResponse> getBookByIsbn(@PathVariable String isbn) {
+        logger.info("Fetching book with ISBN: {}", isbn);
+        BookResponse book = bookService.getBookByIsbn(isbn);
+
+        if (book == null) {
+            logger.warn("Book with ISBN {} not found", isbn);
+            return ResponseEntity.notFound().build();
+        }
+
         return ResponseEntity.ok(book);
     }
 
@@ -82,25 +221,163 @@ public class BookController {
         return ResponseEntity.ok(overdueBooks);
     }
 
+    @GetMapping(value = "/reports/overdue", params = "limit")
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Get overdue book report by cursor",
+            description = "Walks the books with an overdue loan ordered by title using an opaque cursor. Pass the returned nextCursor as 'after' to fetch the following slice. Only librarians can access this report.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Slice of overdue books retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")})
+    public ResponseEntity<CursorPageResponse<BookResponse>> getOverdueBooksReportAfter(
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        logger.info("Generating overdue books report after cursor {} with limit {}", after,
+                limit);
+        CursorPageResponse<BookResponse> overdueBooks =
+                bookService.getOverdueBooksAfter(after, limit);
+        logger.debug("Overdue books in slice: {}", overdueBooks.content().size());
+        return ResponseEntity.ok(overdueBooks);
+    }
+
+    @GetMapping(value = "/reports/overdue", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Stream overdue book report",
+            description = "Streams the books with an overdue loan as newline-delimited JSON, ordered by title. Only librarians can access this report.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Overdue books streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BookResponse.class)))})
+    public ResponseEntity<StreamingResponseBody> streamOverdueBooksReport() {
+        logger.info("Streaming overdue books report");
+        StreamingResponseBody body = out -> writeNdjson(out, bookService::streamOverdueBooks);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/reports/popular")
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Get most borrowed books",
+            description = "Lists the books borrowed most often over the last week or month, as of the latest refresh a few seconds ago. Borrow counts are estimates that may exceed the true count by up to 'error'. Only librarians can access this report.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Most borrowed books retrieved",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(
+                            schema = @Schema(implementation = PopularBookResponse.class)))),
+                    @ApiResponse(responseCode = "400", description = "Invalid window or limit")})
+    public ResponseEntity<List<PopularBookResponse>> getPopularBooksReport(
+            @RequestParam(defaultValue = "WEEK") PopularityWindow window,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.info("Fetching {} most borrowed books of the {}", limit, window);
+        return ResponseEntity.ok(bookService.getPopularBooks(window, limit));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get catalog facets",
+            description = "Returns availability counts and the most common genres and authors across the whole catalog, up to 'limit' values each.",
+            responses = {@ApiResponse(responseCode = "200", description = "Facet counts retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FacetsResponse.class)))})
+    public ResponseEntity<FacetsResponse> getFacets(
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.info("Fetching catalog facets with limit {}", limit);
+        return ResponseEntity.ok(bookService.getFacets(limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest titles and authors",
+            description = "Completes the given prefix against book titles and authors, ignoring case, accents and punctuation. Suggestions are ranked by how often their books have been borrowed.",
+            responses = {@ApiResponse(responseCode = "200", description = "Suggestions retrieved",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(
+                            schema = @Schema(implementation = SuggestionResponse.class))))})
+    public ResponseEntity<List<SuggestionResponse>> suggest(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.suggest(q, limit));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search books",
-            description = "Searches for books by title, author, ISBN, or genre with pagination",
+            description = "Searches for books by title, author, ISBN, or genre with pagination. The response carries catalog-wide facet counts, up to 'facetLimit' values each.",
             responses = {@ApiResponse(responseCode = "200",
                     description = "Books matching criteria retrieved",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = BookResponse.class)))})
-    public ResponseEntity<Page<BookResponse>> searchBooks(
+    public ResponseEntity<FacetedPage<BookResponse>> searchBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String isbn,
             @RequestParam(required = false) String genre,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "10") int facetLimit) {
         logger.debug(
                 "Searching books with filters - title: {}, author: {}, isbn: {}, genre: {}, page: {}, size: {}",
                 title, author, isbn, genre, page, size);
         Page<BookResponse> results =
                 bookService.searchBooks(title, author, isbn, genre, page, size);
+        return ResponseEntity.ok(new FacetedPage<>(results, bookService.getFacets(facetLimit)));
+    }
+
+    @GetMapping(value = "/search", params = "fuzzy=true")
+    @Operation(summary = "Search books tolerating typos",
+            description = "Matches each word of 'q' against title and author words up to two edits away, so misspellings such as 'Tolstoi' still find 'Tolstoy'. Results are ranked by how many words matched and how closely.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Books matching criteria retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookResponse.class)))})
+    public ResponseEntity<FacetedPage<BookResponse>> fuzzySearchBooks(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        logger.debug("Fuzzy searching books - q: {}, page: {}, size: {}", q, page, size);
+        Page<BookResponse> results = bookService.fuzzySearchBooks(q, page, size);
+        return ResponseEntity.ok(new FacetedPage<>(results, bookService.getFacets(facetLimit)));
+    }
+
+    @GetMapping(value = "/search", params = {"q", "!limit", "fuzzy!=true"})
+    @Operation(summary = "Search books by relevance",
+            description = "Matches the words of 'q' against titles, authors and genres and ranks the books with BM25, weighting title matches above author matches and author matches above genre matches.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Books matching criteria retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookResponse.class)))})
+    public ResponseEntity<FacetedPage<BookResponse>> rankedSearchBooks(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        logger.debug("Relevance searching books - q: {}, page: {}, size: {}", q, page, size);
+        Page<BookResponse> results = bookService.rankedSearchBooks(q, page, size);
+        return ResponseEntity.ok(new FacetedPage<>(results, bookService.getFacets(facetLimit)));
+    }
+
+    /**
+     * Ranked search pages by offset and the cursor walk takes no 'q', so the combination is
+     * refused rather than served as an unfiltered walk.
+     */
+    @Hidden
+    @GetMapping(value = "/search", params = {"q", "limit", "fuzzy!=true"})
+    public ResponseEntity<CursorPageResponse<BookResponse>> rejectRankedSearchAfter() {
+        throw new IllegalArgumentException(
+                "'q' cannot be combined with 'limit'; page ranked results with 'page' and 'size'");
+    }
+
+    @GetMapping(value = "/search", params = {"limit", "!q", "fuzzy!=true"})
+    @Operation(summary = "Search books by cursor",
+            description = "Searches for books by title, author, ISBN, or genre ordered by title. Pass the returned nextCursor as 'after' to fetch the following slice. No total count is computed.",
+            responses = {@ApiResponse(responseCode = "200",
+                    description = "Books matching criteria retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")})
+    public ResponseEntity<CursorPageResponse<BookResponse>> searchBooksAfter(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String isbn,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        logger.debug(
+                "Searching books with filters - title: {}, author: {}, isbn: {}, genre: {}, after: {}, limit: {}",
+                title, author, isbn, genre, after, limit);
+        CursorPageResponse<BookResponse> results =
+                bookService.searchBooksAfter(title, author, isbn, genre, after, limit);
         return ResponseEntity.ok(results);
     }
 
@@ -120,6 +397,28 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk",
+            consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Import books in bulk",
+            description = "Imports books from a CSV file with a header row or from newline-delimited JSON, using the same fields and constraints as creating a single book. Valid rows are inserted in chunks; rejected rows are listed by position in the response. Only librarians can perform this operation.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import finished",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BookImportResponse.class))),
+                    @ApiResponse(responseCode = "415", description = "Unsupported content type")})
+    public ResponseEntity<BookImportResponse> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        BookImportFormat format =
+                MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                        ? BookImportFormat.NDJSON
+                        : BookImportFormat.CSV;
+        logger.info("Importing books from {}", format);
+        BookImportResponse result = bookImportService.importBooks(body, format);
+        logger.info("Imported {} books, rejected {} rows", result.imported(), result.failed());
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
     @Operation(summary = "Update book by ID",
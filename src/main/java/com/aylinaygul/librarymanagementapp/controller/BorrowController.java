@@ -1,23 +1,38 @@
 package com.aylinaygul.librarymanagementapp.controller;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.aylinaygul.librarymanagementapp.service.BorrowService;
+import com.aylinaygul.librarymanagementapp.service.HoldService;
+import com.aylinaygul.librarymanagementapp.model.dto.request.BatchBorrowRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.HistoryFilter;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
 import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,6 +45,8 @@ public class BorrowController {
     private static final Logger logger = LoggerFactory.getLogger(BorrowController.class);
 
     private final BorrowService borrowService;
+    private final HoldService holdService;
+    private final ObjectMapper objectMapper;
 
     private UUID getAuthenticatedUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -69,6 +86,69 @@ public class BorrowController {
         return ResponseEntity.ok("Book returned successfully.");
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Borrow several books at once",
+            description = "Borrows every available book of the list in a single transaction and reports the outcome for each requested ID")
+    public ResponseEntity<BatchBorrowResponse> borrowBooks(
+            @Valid @RequestBody BatchBorrowRequest request) {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("User {} is attempting to borrow {} books", userId,
+                request.getBookIds().size());
+        BatchBorrowResponse response = borrowService.borrowBooks(userId, request.getBookIds());
+        logger.info("User {} borrowed {} of {} books", userId, response.succeeded(),
+                request.getBookIds().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/return/batch")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Return several books at once",
+            description = "Returns every listed book the authenticated patron has on loan in a single transaction and reports the outcome for each requested ID")
+    public ResponseEntity<BatchBorrowResponse> returnBooks(
+            @Valid @RequestBody BatchBorrowRequest request) {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("User {} is attempting to return {} books", userId,
+                request.getBookIds().size());
+        BatchBorrowResponse response = borrowService.returnBooks(userId, request.getBookIds());
+        logger.info("User {} returned {} of {} books", userId, response.succeeded(),
+                request.getBookIds().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/holds/{bookId}")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Place a hold on a book",
+            description = "Queues the authenticated patron for a book with no copy on the shelf. Returned copies are reserved for holds in the order they were placed.")
+    public ResponseEntity<HoldResponse> placeHold(@PathVariable UUID bookId) {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("User {} is placing a hold on book {}", userId, bookId);
+        HoldResponse hold = holdService.placeHold(userId, bookId);
+        logger.info("User {} is at position {} for book {}", userId, hold.position(), bookId);
+        return ResponseEntity.ok(hold);
+    }
+
+    @DeleteMapping("/holds/{bookId}")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Cancel a hold",
+            description = "Cancels the authenticated patron's hold on a book. A copy already reserved for it passes to the next patron in line.")
+    public ResponseEntity<String> cancelHold(@PathVariable UUID bookId) {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("User {} is cancelling the hold on book {}", userId, bookId);
+        holdService.cancelHold(userId, bookId);
+        return ResponseEntity.ok("Hold cancelled successfully.");
+    }
+
+    @GetMapping("/holds")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Get authenticated user's holds",
+            description = "Lists the authenticated patron's waiting holds with their queue position, and ready holds with their pickup deadline")
+    public ResponseEntity<List<HoldResponse>> getOwnHolds() {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("Fetching holds for user {}", userId);
+        return ResponseEntity.ok(holdService.getHolds(userId));
+    }
+
     @GetMapping("/history")
     @PreAuthorize("hasRole('ROLE_PATRON')")
     @Operation(summary = "Get authenticated user's borrow history",
@@ -92,6 +172,59 @@ public class BorrowController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping(value = "/history", params = "limit")
+    @PreAuthorize("hasRole('ROLE_PATRON')")
+    @Operation(summary = "Get authenticated user's borrow history by cursor",
+            description = "Walks the authenticated patron's loans newest first using an opaque cursor, optionally limited to a borrow date range (inclusive) and a status. Pass the returned nextCursor as 'after' with the same filters to fetch the following slice.")
+    public ResponseEntity<CursorPageResponse<BorrowResponse>> getOwnHistoryAfter(
+            @RequestParam(required = false) String after, @RequestParam int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BorrowStatus status) {
+        UUID userId = getAuthenticatedUserId();
+        logger.info("Fetching borrowing history for user {} after cursor {} with limit {}",
+                userId, after, limit);
+        CursorPageResponse<BorrowResponse> history = borrowService.getUserBorrowingHistory(userId,
+                new HistoryFilter(from, to, status), after, limit);
+        logger.debug("Borrow records in slice for user {}: {}", userId, history.content().size());
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping(value = "/history/{userId}", params = "limit")
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Get a specific user's borrow history by cursor",
+            description = "Allows a librarian to walk a user's loans newest first using an opaque cursor, optionally limited to a borrow date range (inclusive) and a status")
+    public ResponseEntity<CursorPageResponse<BorrowResponse>> getUserHistoryAfter(
+            @PathVariable UUID userId, @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BorrowStatus status) {
+        logger.info("Librarian requested borrowing history for user {} after cursor {}", userId,
+                after);
+        CursorPageResponse<BorrowResponse> history = borrowService.getUserBorrowingHistory(userId,
+                new HistoryFilter(from, to, status), after, limit);
+        logger.debug("Borrow records in slice for user {}: {}", userId, history.content().size());
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/history/all")
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Get the library's borrow history by cursor",
+            description = "Allows a librarian to walk every loan in the library newest first using an opaque cursor, optionally limited to a borrow date range (inclusive) and a status")
+    public ResponseEntity<CursorPageResponse<BorrowResponse>> getAllHistory(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BorrowStatus status) {
+        logger.info("Librarian requested library borrowing history after cursor {}", after);
+        CursorPageResponse<BorrowResponse> history = borrowService
+                .getAllBorrowHistory(new HistoryFilter(from, to, status), after, limit);
+        logger.debug("Borrow records in slice: {}", history.content().size());
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
     @Operation(summary = "Get all overdue borrowed books",
@@ -102,4 +235,31 @@ public class BorrowController {
         logger.debug("Overdue books count: {}", overdue.size());
         return ResponseEntity.ok(overdue);
     }
+
+    @GetMapping(value = "/overdue", params = "limit")
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Get overdue borrowed books by cursor",
+            description = "Walks the overdue loans ordered by due date using an opaque cursor. Pass the returned nextCursor as 'after' to fetch the following slice.")
+    public ResponseEntity<CursorPageResponse<BorrowResponse>> getOverdueBooksAfter(
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        logger.info("Fetching overdue borrowed books after cursor {} with limit {}", after, limit);
+        CursorPageResponse<BorrowResponse> overdue = borrowService.getOverdueBooksAfter(after, limit);
+        logger.debug("Overdue books in slice: {}", overdue.content().size());
+        return ResponseEntity.ok(overdue);
+    }
+
+    @GetMapping(value = "/overdue", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+    @Operation(summary = "Stream overdue borrowed books",
+            description = "Streams every overdue loan as newline-delimited JSON, ordered by due date. Rows are written as they are read, so memory use does not grow with the backlog.")
+    public ResponseEntity<StreamingResponseBody> streamOverdueBooks() {
+        logger.info("Streaming overdue borrowed books");
+        StreamingResponseBody body = this::writeOverdueNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeOverdueNdjson(OutputStream out) {
+        long count = NdjsonWriter.write(out, objectMapper, borrowService::streamOverdueBooks);
+        logger.debug("Total overdue records streamed: {}", count);
+    }
 }
@@ -0,0 +1,141 @@
+package com.aylinaygul.librarymanagementapp.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.ExportFormat;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/exports")
+@PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+@Tag(name = "Exports", description = "API endpoints for full catalog and circulation extracts")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .enable(JsonGenerator.Feature.IGNORE_UNKNOWN)
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING).build();
+
+    private static final CsvSchema BOOK_SCHEMA = CsvSchema.builder().addColumn("id")
+            .addColumn("title").addColumn("author").addColumn("genre").addColumn("isbn")
+            .addColumn("publicationDate").addColumn("available").addColumn("availableCopies")
+            .addColumn("totalCopies").setUseHeader(true).build();
+
+    private static final CsvSchema BORROW_SCHEMA = CsvSchema.builder().addColumn("id")
+            .addColumn("userId").addColumn("bookId").addColumn("bookTitle")
+            .addColumn("borrowDate").addColumn("dueDate").addColumn("returnDate")
+            .addColumn("status").setUseHeader(true).build();
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/books")
+    @Operation(summary = "Export all books",
+            description = "Streams every book as CSV or NDJSON from a single read-only snapshot, optionally gzip-compressed. Only librarians can perform this operation.",
+            responses = {@ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "400", description = "Unsupported format")})
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        logger.info("Exporting books as {} (gzip: {})", exportFormat, gzip);
+        Consumer<Consumer<BookResponse>> source = exportService::exportBooks;
+        return export("books", exportFormat, gzip,
+                out -> write(out, exportFormat, gzip, BOOK_SCHEMA, source));
+    }
+
+    @GetMapping("/borrow-records")
+    @Operation(summary = "Export all borrow records",
+            description = "Streams every borrow record as CSV or NDJSON from a single read-only snapshot, optionally gzip-compressed. Only librarians can perform this operation.",
+            responses = {@ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "400", description = "Unsupported format")})
+    public ResponseEntity<StreamingResponseBody> exportBorrowRecords(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        logger.info("Exporting borrow records as {} (gzip: {})", exportFormat, gzip);
+        Consumer<Consumer<BorrowResponse>> source = exportService::exportBorrowRecords;
+        return export("borrow-records", exportFormat, gzip,
+                out -> write(out, exportFormat, gzip, BORROW_SCHEMA, source));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format,
+            boolean gzip, StreamingResponseBody body) {
+        String filename = name + (format == ExportFormat.CSV ? ".csv" : ".ndjson")
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? APPLICATION_GZIP
+                : format == ExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok().contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private <T> void write(OutputStream out, ExportFormat format, boolean gzip, CsvSchema schema,
+            Consumer<Consumer<T>> source) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        ObjectWriter writer = format == ExportFormat.CSV ? CSV_MAPPER.writer(schema)
+                : objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n");
+        long[] count = {0};
+        try (SequenceWriter rows = writer.writeValues(target)) {
+            source.accept(row -> {
+                try {
+                    rows.write(row);
+                    count[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        if (format == ExportFormat.NDJSON && count[0] > 0) {
+            target.write('\n');
+        }
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        target.flush();
+        logger.debug("Total rows exported: {}", count[0]);
+    }
+}
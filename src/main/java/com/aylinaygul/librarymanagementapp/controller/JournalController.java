@@ -0,0 +1,67 @@
+package com.aylinaygul.librarymanagementapp.controller;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.aylinaygul.librarymanagementapp.journal.CirculationJournal;
+import com.aylinaygul.librarymanagementapp.journal.JournalRecord;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/journal")
+@PreAuthorize("hasRole('ROLE_LIBRARIAN')")
+@Tag(name = "Journal", description = "API endpoints for reading the circulation journal")
+public class JournalController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalController.class);
+
+    private final CirculationJournal journal;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    @Operation(summary = "Read the circulation journal",
+            description = "Returns the journaled catalog and loan changes following sequence number 'after', oldest first. Pass the returned nextCursor as 'after' to keep reading; once caught up, poll with the last sequence number seen to tail the journal.")
+    public ResponseEntity<CursorPageResponse<JournalRecord>> read(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        logger.info("Reading journal after sequence {} with limit {}", after, limit);
+        List<JournalRecord> records = journal.read(after, limit);
+        long last = records.isEmpty() ? after : records.get(records.size() - 1).sequence();
+        boolean hasNext = last < journal.lastSequence();
+        return ResponseEntity
+                .ok(new CursorPageResponse<>(records, hasNext, String.valueOf(last)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Replay the circulation journal",
+            description = "Streams every journaled change following sequence number 'after' as newline-delimited JSON, for consumers rebuilding state from the journal")
+    public ResponseEntity<StreamingResponseBody> replay(
+            @RequestParam(defaultValue = "0") long after) {
+        logger.info("Replaying journal after sequence {}", after);
+        StreamingResponseBody body = out -> writeNdjson(out, after);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeNdjson(OutputStream out, long after) {
+        long count = NdjsonWriter.<JournalRecord>write(out, objectMapper,
+                consumer -> journal.replay(after, consumer));
+        logger.debug("Total journal records streamed: {}", count);
+    }
+}
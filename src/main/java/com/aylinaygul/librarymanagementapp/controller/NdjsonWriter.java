@@ -0,0 +1,40 @@
+package com.aylinaygul.librarymanagementapp.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the rows a source pushes as newline-delimited JSON. The first row is flushed right away
+ * and then every {@value #FLUSH_INTERVAL} rows, so clients see progress without a flush per row.
+ */
+final class NdjsonWriter {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private NdjsonWriter() {
+    }
+
+    /**
+     * Returns the number of rows written.
+     */
+    static <T> long write(OutputStream out, ObjectMapper objectMapper,
+            Consumer<Consumer<T>> source) {
+        long[] count = {0};
+        source.accept(row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+                if (++count[0] % FLUSH_INTERVAL == 1) {
+                    out.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,79 @@
+package com.aylinaygul.librarymanagementapp.fees;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.FeeLedgerEntry;
+import com.aylinaygul.librarymanagementapp.model.entity.LoanFee;
+import com.aylinaygul.librarymanagementapp.repository.FeeLedgerRepository;
+import com.aylinaygul.librarymanagementapp.repository.LoanFeeRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Settles the late fee of loans as they are returned, charging whatever the nightly assessment
+ * has not yet put on the ledger.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeeLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeLedger.class);
+
+    private final FeePolicy feePolicy;
+    private final LoanFeeRepository loanFeeRepository;
+    private final FeeLedgerRepository feeLedgerRepository;
+
+    /**
+     * Charges the final fee of the returned loans. The caller must have flushed the returns, so
+     * their row locks keep the nightly assessment from charging the same loans concurrently.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void chargeReturned(Collection<BorrowRecord> loans) {
+        List<BorrowRecord> late = loans.stream()
+                .filter(loan -> feePolicy.feeFor(loan.getDueDate(), loan.getReturnDate()) > 0)
+                .toList();
+        if (late.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, LoanFee> fees = loanFeeRepository
+                .findAllById(late.stream().map(BorrowRecord::getId).toList()).stream()
+                .collect(Collectors.toMap(LoanFee::getId, Function.identity()));
+        List<LoanFee> changed = new ArrayList<>();
+        List<FeeLedgerEntry> entries = new ArrayList<>();
+        for (BorrowRecord loan : late) {
+            LocalDate returned = loan.getReturnDate();
+            long fee = feePolicy.feeFor(loan.getDueDate(), returned);
+            LoanFee assessed = fees.computeIfAbsent(loan.getId(),
+                    id -> LoanFee.builder().id(id).userId(loan.getUser().getId())
+                            .bookId(loan.getBook().getId()).build());
+            if (fee <= assessed.getAmountCents()) {
+                continue;
+            }
+            entries.add(FeeLedgerEntry.builder().loanId(loan.getId())
+                    .userId(assessed.getUserId()).bookId(assessed.getBookId())
+                    .assessedOn(returned).amountCents(fee - assessed.getAmountCents()).build());
+            assessed.setAmountCents(fee);
+            assessed.setAssessedOn(returned);
+            changed.add(assessed);
+        }
+
+        loanFeeRepository.saveAll(changed);
+        feeLedgerRepository.saveAll(entries);
+        logger.info("Charged late fees on {} returned loans", entries.size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.aylinaygul.librarymanagementapp.fees;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Late fee rules: a loan returned within the grace period after its due date costs nothing,
+ * otherwise every day since the due date is charged at the daily rate, up to a cap per loan.
+ * Amounts are whole cents, so assessments add up exactly.
+ */
+@Component
+public class FeePolicy {
+
+    private final long dailyRateCents;
+    private final long gracePeriodDays;
+    private final long maxPerLoanCents;
+
+    public FeePolicy(@Value("${library.fees.daily-rate:0.25}") BigDecimal dailyRate,
+            @Value("${library.fees.grace-period:2d}") Duration gracePeriod,
+            @Value("${library.fees.max-per-loan:20.00}") BigDecimal maxPerLoan) {
+        if (gracePeriod.isNegative()) {
+            throw new IllegalArgumentException("Grace period must not be negative");
+        }
+        this.dailyRateCents = toCents(dailyRate, "Daily rate");
+        this.gracePeriodDays = gracePeriod.toDays();
+        this.maxPerLoanCents = toCents(maxPerLoan, "Maximum fee per loan");
+    }
+
+    /**
+     * Returns the fee in cents for a loan due on {@code dueDate} that is returned, or still out,
+     * on {@code asOf}.
+     */
+    public long feeFor(LocalDate dueDate, LocalDate asOf) {
+        long daysLate = ChronoUnit.DAYS.between(dueDate, asOf);
+        if (daysLate <= gracePeriodDays) {
+            return 0;
+        }
+        return Math.min(daysLate * dailyRateCents, maxPerLoanCents);
+    }
+
+    /**
+     * Loans due before the returned day owe a fee on {@code asOf}.
+     */
+    public LocalDate chargeableBefore(LocalDate asOf) {
+        return asOf.minusDays(gracePeriodDays);
+    }
+
+    private static long toCents(BigDecimal amount, String name) {
+        if (amount.signum() < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException(name + " must be a whole number of cents: "
+                    + amount);
+        }
+    }
+}
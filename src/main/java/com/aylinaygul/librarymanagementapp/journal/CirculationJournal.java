@@ -0,0 +1,416 @@
+package com.aylinaygul.librarymanagementapp.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only journal of circulation and catalog changes, kept outside the database so auditing
+ * adds no write load to it.
+ *
+ * <p>
+ * Records go into fixed-size, memory-mapped segment files named after the first sequence number
+ * they hold. Each record is framed as {@code [length][crc32c][sequence][json]}, the checksum
+ * covering sequence and payload. Appends only copy bytes into the mapping; a flusher thread
+ * forces the mapping to disk once per flush interval, completing every append of that window with
+ * a single sync (group commit). Readers only see records that have been forced.
+ *
+ * <p>
+ * On startup the last segment is scanned up to the first missing or corrupt frame, everything
+ * after it is zeroed, and appending resumes there, so a record torn by a crash is dropped rather
+ * than read back.
+ */
+@Component
+public class CirculationJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(CirculationJournal.class);
+
+    public static final int MAX_READ_LIMIT = 1000;
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private record Segment(long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private record PendingAppend(long sequence, CompletableFuture<Long> future) {
+    }
+
+    private record Frame(long sequence, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration flushInterval;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary groupSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<PendingAppend> pending = new ConcurrentLinkedQueue<>();
+
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private ScheduledExecutorService flusher;
+    private Segment current;
+    private long nextSequence;
+    private boolean closed;
+    private volatile long durableSequence;
+
+    public CirculationJournal(@Value("${library.journal.dir:data/journal}") Path directory,
+            @Value("${library.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${library.journal.flush-interval:5ms}") Duration flushInterval,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        if (segmentSize.toBytes() <= HEADER_BYTES || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid journal segment size: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.flushInterval = flushInterval;
+        this.objectMapper = objectMapper;
+        this.groupSize = DistributionSummary.builder("library.journal.group.size")
+                .description("Records made durable by one sync of the journal")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        fileLock = lockChannel.tryLock();
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory is in use: " + directory);
+        }
+
+        List<Long> segments = segments();
+        if (segments.isEmpty()) {
+            current = openSegment(1);
+            nextSequence = 1;
+        } else {
+            current = openSegment(segments.get(segments.size() - 1));
+            nextSequence = recover(current);
+        }
+        durableSequence = nextSequence - 1;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushInterval.toNanos());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval,
+                TimeUnit.NANOSECONDS);
+        logger.info("Journal opened in {} at sequence {} across {} segments", directory,
+                nextSequence, Math.max(1, segments.size()));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+        lock.lock();
+        try {
+            closed = true;
+            current.channel().close();
+            pending.forEach(append -> append.future()
+                    .completeExceptionally(new IllegalStateException("Journal closed")));
+            fileLock.release();
+            lockChannel.close();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Journal closed at sequence {}", durableSequence);
+    }
+
+    /**
+     * Appends the entry and returns its sequence number once the record is on disk. The append
+     * itself never waits for the disk.
+     */
+    public CompletableFuture<Long> append(JournalEntry entry) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (JsonProcessingException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if (HEADER_BYTES + payload.length > segmentSize) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Journal entry of " + payload.length + " bytes exceeds the segment size"));
+        }
+
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal closed");
+            }
+            if (current.buffer().remaining() < HEADER_BYTES + payload.length) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            write(current.buffer(), sequence, payload);
+            pending.add(new PendingAppend(sequence, future));
+        } catch (IOException | RuntimeException ex) {
+            future.completeExceptionally(ex);
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Forces everything appended so far to disk and completes the waiting appends.
+     */
+    public synchronized void flush() {
+        Segment segment;
+        long appended;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            segment = current;
+            appended = nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+        if (appended == durableSequence) {
+            return;
+        }
+
+        // earlier segments were forced when they were rolled over
+        segment.buffer().force();
+        long group = appended - durableSequence;
+        durableSequence = appended;
+        groupSize.record(group);
+
+        PendingAppend append;
+        while ((append = pending.peek()) != null && append.sequence() <= appended) {
+            pending.poll();
+            append.future().complete(append.sequence());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            logger.error("Failed to sync the journal, retrying: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Sequence number of the last record on disk, or 0 for an empty journal.
+     */
+    public long lastSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Returns up to {@code limit} durable records following sequence number {@code after}.
+     */
+    public List<JournalRecord> read(long after, int limit) {
+        if (limit < 1 || limit > MAX_READ_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Limit must be between 1 and " + MAX_READ_LIMIT + ": " + limit);
+        }
+        List<JournalRecord> records = new ArrayList<>(Math.min(limit, 64));
+        scan(after, record -> {
+            records.add(record);
+            return records.size() < limit;
+        });
+        return records;
+    }
+
+    /**
+     * Feeds every durable record following sequence number {@code after} to the consumer, in
+     * order, reading segment by segment without holding them in memory.
+     */
+    public long replay(long after, Consumer<JournalRecord> consumer) {
+        long[] count = {0};
+        scan(after, record -> {
+            consumer.accept(record);
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    private void scan(long after, Predicate<JournalRecord> sink) {
+        if (after < 0) {
+            throw new IllegalArgumentException("Sequence must not be negative: " + after);
+        }
+        long upTo = durableSequence;
+        if (after >= upTo) {
+            return;
+        }
+        try {
+            List<Long> segments = segments();
+            int first = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                if (segments.get(i) <= after + 1) {
+                    first = i;
+                }
+            }
+            for (int i = first; i < segments.size(); i++) {
+                long expected = segments.get(i);
+                try (FileChannel channel = FileChannel.open(segmentPath(expected),
+                        StandardOpenOption.READ)) {
+                    ByteBuffer buffer =
+                            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    Frame frame;
+                    while ((frame = readFrame(buffer, expected)) != null) {
+                        if (frame.sequence() > upTo) {
+                            return;
+                        }
+                        if (frame.sequence() > after && !sink.test(new JournalRecord(
+                                frame.sequence(),
+                                objectMapper.readValue(frame.payload(), JournalEntry.class)))) {
+                            return;
+                        }
+                        expected++;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void roll() throws IOException {
+        current.buffer().force();
+        current.channel().close();
+        current = openSegment(nextSequence);
+        logger.info("Journal rolled over to segment {}", nextSequence);
+    }
+
+    /**
+     * Finds the end of the last segment, zeroes whatever follows it and returns the next
+     * sequence number. Only the last segment is checked; sealed segments are trusted as written.
+     */
+    private long recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        long expected = segment.firstSequence();
+        while (readFrame(buffer, expected) != null) {
+            expected++;
+        }
+        int end = buffer.position();
+        boolean torn = false;
+        for (int i = end; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                torn = true;
+            }
+        }
+        if (torn) {
+            buffer.force();
+            logger.warn("Dropped a torn journal tail after sequence {}", expected - 1);
+        }
+        buffer.position(end);
+        return expected;
+    }
+
+    private Segment openSegment(long firstSequence) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(firstSequence, channel, buffer);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0,
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted().toList();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Writes the body before the length, so a frame whose length is visible is complete.
+     */
+    private static void write(ByteBuffer buffer, long sequence, byte[] payload) {
+        int position = buffer.position();
+        buffer.putInt(position + 4, checksum(sequence, payload));
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position, payload.length);
+        buffer.position(position + HEADER_BYTES + payload.length);
+    }
+
+    /**
+     * Reads the frame at the buffer's position and moves past it, or returns null without moving
+     * if the segment ends there: zeroed space, a frame cut short, a checksum mismatch or a
+     * sequence number out of order.
+     */
+    private static Frame readFrame(ByteBuffer buffer, long expected) {
+        int position = buffer.position();
+        if (buffer.limit() - position < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.limit() - position - HEADER_BYTES) {
+            return null;
+        }
+        long sequence = buffer.getLong(position + 8);
+        if (sequence != expected) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        if (buffer.getInt(position + 4) != checksum(sequence, payload)) {
+            return null;
+        }
+        buffer.position(position + HEADER_BYTES + length);
+        return new Frame(sequence, payload);
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,55 @@
+package com.aylinaygul.librarymanagementapp.journal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One committed change to the catalog or to a loan. Catalog entries carry the book as its
+ * transaction left it (none once deleted) and the change in available and total copies.
+ * <p>
+ * Entries are appended after commit, and two transactions on the same book may reach the journal
+ * in the opposite order to their commits, as {@code AvailabilityIndex} notes for the same
+ * callbacks. The copy counts in a later entry's snapshot can therefore be older than those of an
+ * earlier one; a replay has to sum the deltas, which does not depend on the order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JournalEntry(Type type, Instant at, UUID bookId, UUID userId, UUID loanId,
+        LocalDate date, BookSnapshot book, Integer availableCopiesDelta,
+        Integer totalCopiesDelta) {
+
+    public enum Type {
+        BOOK_CREATED, BOOK_UPDATED, BOOK_DELETED, LOAN_BORROWED, LOAN_RETURNED, LOAN_OVERDUE
+    }
+
+    public static JournalEntry of(BookChangedEvent event, Instant at) {
+        Type type = event.before() == null ? Type.BOOK_CREATED
+                : event.after() == null ? Type.BOOK_DELETED : Type.BOOK_UPDATED;
+        return new JournalEntry(type, at, event.bookId(), null, null, null, event.after(),
+                availableCopies(event.after()) - availableCopies(event.before()),
+                totalCopies(event.after()) - totalCopies(event.before()));
+    }
+
+    public static JournalEntry of(LoanEvent event, Instant at) {
+        Type type = switch (event.type()) {
+            case BORROWED -> Type.LOAN_BORROWED;
+            case RETURNED -> Type.LOAN_RETURNED;
+            case OVERDUE -> Type.LOAN_OVERDUE;
+        };
+        return new JournalEntry(type, at, event.bookId(), event.userId(), event.loanId(),
+                event.date(), null, null, null);
+    }
+
+    private static int availableCopies(BookSnapshot book) {
+        return book == null ? 0 : book.availableCopies();
+    }
+
+    private static int totalCopies(BookSnapshot book) {
+        return book == null ? 0 : book.totalCopies();
+    }
+}
@@ -0,0 +1,8 @@
+package com.aylinaygul.librarymanagementapp.journal;
+
+/**
+ * A journal entry with the sequence number it was appended under. Sequence numbers start at 1 and
+ * have no gaps.
+ */
+public record JournalRecord(long sequence, JournalEntry entry) {
+}
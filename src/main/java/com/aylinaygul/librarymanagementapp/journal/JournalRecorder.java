@@ -0,0 +1,58 @@
+package com.aylinaygul.librarymanagementapp.journal;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
+
+/**
+ * Writes committed catalog and loan changes to the {@link CirculationJournal}. Changes are
+ * journaled after their transaction commits, so rolled back work never shows up, and the request
+ * does not wait for the journal's disk sync. Delivery is at most once: an append that fails, or a
+ * crash between commit and append, loses the entry and is only logged.
+ */
+@Component
+public class JournalRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalRecorder.class);
+
+    private final CirculationJournal journal;
+    private final Clock clock;
+
+    @Autowired
+    public JournalRecorder(CirculationJournal journal) {
+        this(journal, Clock.systemUTC());
+    }
+
+    JournalRecorder(CirculationJournal journal, Clock clock) {
+        this.journal = journal;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        record(JournalEntry.of(event, Instant.now(clock)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        record(JournalEntry.of(event, Instant.now(clock)));
+    }
+
+    private void record(JournalEntry entry) {
+        journal.append(entry).whenComplete((sequence, ex) -> {
+            if (ex != null) {
+                logger.error("Failed to journal {} for book {}: {}", entry.type(), entry.bookId(),
+                        ex.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.aylinaygul.librarymanagementapp.model.dto;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Orders UUIDs as unsigned 128-bit numbers, the way the database sorts UUID columns. Anything
+ * ordered in memory to line up with a keyset query has to use it instead of
+ * {@link UUID#compareTo}, which compares the two halves as signed longs.
+ */
+public final class UuidOrder {
+
+    public static final Comparator<UUID> UNSIGNED = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private UuidOrder() {
+    }
+}
@@ -0,0 +1,21 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBorrowRequest {
+
+    @NotEmpty(message = "At least one book ID is required.")
+    @Size(max = 200, message = "At most 200 books can be processed in one batch.")
+    private List<@NotNull(message = "Book ID is required.") UUID> bookIds;
+}
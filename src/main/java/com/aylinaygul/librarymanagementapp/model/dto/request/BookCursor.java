@@ -0,0 +1,51 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.dto.UuidOrder;
+
+/**
+ * Position in a (title, id) ordered walk over the catalog, exchanged with clients as an opaque
+ * URL-safe token.
+ * <p>
+ * Walks order by the title as stored, then by id in {@link UuidOrder database order}. The
+ * database compares titles under its collation and the search index by code point; a cursor is
+ * only ever handed back to the walk that issued it.
+ */
+public record BookCursor(String title, UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * Cursor positioned at the book with the given title and id.
+     */
+    public static BookCursor at(String title, UUID id) {
+        return new BookCursor(titleKey(title), id);
+    }
+
+    /**
+     * The value titles are ordered by: the title itself. Stored books always have one; a missing
+     * title only occurs in memory and sorts as empty there.
+     */
+    public static String titleKey(String title) {
+        return title == null ? "" : title;
+    }
+
+    public String encode() {
+        String raw = id + (title == null ? "" : title);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new BookCursor(raw.substring(UUID_LENGTH),
+                    UUID.fromString(raw.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
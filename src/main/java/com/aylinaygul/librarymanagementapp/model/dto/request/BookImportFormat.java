@@ -0,0 +1,5 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+public enum BookImportFormat {
+    CSV, NDJSON
+}
@@ -31,5 +31,12 @@ public class BookRequest {
     @PastOrPresent(message = "Publication date cannot be in the future.")
     private LocalDate publicationDate;
 
-    private boolean available;
+    /**
+     * Whether the book goes on the shelf when created. On update, {@code false} withdraws the
+     * copies on the shelf and leaving it out changes nothing.
+     */
+    private Boolean available;
+
+    @Min(value = 1, message = "A book needs at least one copy.")
+    private Integer copies;
 }
@@ -0,0 +1,15 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV, NDJSON;
+
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+import java.time.LocalDate;
+
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+
+/**
+ * Optional bounds on a borrow history walk. Both dates are inclusive and apply to the borrow date;
+ * a null component does not filter.
+ */
+public record HistoryFilter(LocalDate from, LocalDate to, BorrowStatus status) {
+
+    public static final HistoryFilter NONE = new HistoryFilter(null, null, null);
+
+    public HistoryFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException(
+                    "'from' must not be after 'to': " + from + " > " + to);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a walk over loans ordered by one of their dates and then by id, exchanged with
+ * clients as an opaque URL-safe token.
+ */
+public record LoanCursor(LocalDate date, UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+
+    public String encode() {
+        String raw = id + date.toString();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LoanCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new LoanCursor(LocalDate.parse(raw.substring(UUID_LENGTH)),
+                    UUID.fromString(raw.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException
+                | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aylinaygul.librarymanagementapp.model.dto.request;
+
+/**
+ * Rolling windows of the most-borrowed report, ending today.
+ */
+public enum PopularityWindow {
+    WEEK(7), MONTH(30);
+
+    private final int days;
+
+    PopularityWindow(int days) {
+        this.days = days;
+    }
+
+    public int days() {
+        return days;
+    }
+}
@@ -0,0 +1,32 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a batch checkout or return. {@code items} follows the order of the requested ids,
+ * so a client can match results positionally; a repeated id is reported as a duplicate and
+ * processed only once.
+ */
+public record BatchBorrowResponse(
+                int succeeded,
+                int failed,
+                List<Item> items) {
+
+    public record Item(UUID bookId, Outcome outcome) {
+    }
+
+    public enum Outcome {
+        BORROWED,
+        RETURNED,
+        NOT_FOUND,
+        NOT_AVAILABLE,
+        ALREADY_BORROWED,
+        NOT_BORROWED,
+        DUPLICATE;
+
+        public boolean succeeded() {
+            return this == BORROWED || this == RETURNED;
+        }
+    }
+}
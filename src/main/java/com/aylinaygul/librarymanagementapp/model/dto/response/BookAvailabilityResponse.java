@@ -0,0 +1,10 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.UUID;
+
+public record BookAvailabilityResponse(
+                UUID bookId,
+                boolean available,
+                long availableCopies,
+                long totalCopies) {
+}
@@ -0,0 +1,8 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.UUID;
+
+public record BookBorrowCount(
+                UUID bookId,
+                long borrows) {
+}
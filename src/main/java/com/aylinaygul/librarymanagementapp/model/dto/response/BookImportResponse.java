@@ -0,0 +1,16 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists rejected rows by their 1-based position in the
+ * input, excluding any CSV header, and is capped, so {@code failed} may exceed its size.
+ */
+public record BookImportResponse(
+                long imported,
+                long failed,
+                List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -4,8 +4,11 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
-import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
+/**
+ * {@code records} is only populated when the caller asks for the borrow history.
+ */
 public record BookResponse(
                 UUID id,
                 String title,
@@ -14,5 +17,24 @@ public record BookResponse(
                 String isbn,
                 LocalDate publicationDate,
                 Boolean available,
-                List<BorrowRecord> records) {
+                Integer availableCopies,
+                Integer totalCopies,
+                @JsonInclude(JsonInclude.Include.NON_NULL) List<BorrowResponse> records) {
+
+        public BookResponse(UUID id, String title, String author, String genre, String isbn,
+                        LocalDate publicationDate, Boolean available, Integer availableCopies,
+                        Integer totalCopies) {
+                this(id, title, author, genre, isbn, publicationDate, available, availableCopies,
+                                totalCopies, null);
+        }
+
+        public BookResponse(UUID id, String title, String author, String genre, String isbn,
+                        LocalDate publicationDate, Boolean available) {
+                this(id, title, author, genre, isbn, publicationDate, available, null, null);
+        }
+
+        public BookResponse withRecords(List<BorrowResponse> records) {
+                return new BookResponse(id, title, author, genre, isbn, publicationDate, available,
+                                availableCopies, totalCopies, records);
+        }
 }
@@ -1,8 +1,10 @@
 package com.aylinaygul.librarymanagementapp.model.dto.response;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.UUID;
 
+import com.aylinaygul.librarymanagementapp.model.dto.UuidOrder;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,6 +16,15 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class BorrowResponse {
+
+    /**
+     * Newest borrow first, ties broken by descending id in database order, so merged results line
+     * up with keyset cursors.
+     */
+    public static final Comparator<BorrowResponse> NEWEST_FIRST = Comparator
+            .comparing(BorrowResponse::getBorrowDate)
+            .thenComparing(BorrowResponse::getId, UuidOrder.UNSIGNED).reversed();
+
     private UUID id;
     private UUID userId;
     private UUID bookId;
@@ -0,0 +1,9 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+                List<T> content,
+                boolean hasNext,
+                String nextCursor) {
+}
@@ -0,0 +1,23 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * A page of search results serialized with an additional {@code facets} block.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FacetsResponse facets;
+
+    public FacetedPage(Page<T> page, FacetsResponse facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public FacetsResponse getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,14 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.Map;
+
+/**
+ * Counts over the whole catalog. {@code genres} and {@code authors} hold only the most common
+ * values, ordered by descending count.
+ */
+public record FacetsResponse(
+                Map<String, Long> genres,
+                Map<String, Long> authors,
+                long available,
+                long unavailable) {
+}
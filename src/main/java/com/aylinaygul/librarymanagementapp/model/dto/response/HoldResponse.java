@@ -0,0 +1,20 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.entity.HoldStatus;
+
+/**
+ * A hold as seen by its patron. {@code position} is the 1-based place in the queue while the hold
+ * is waiting and null otherwise; {@code expiresAt} is the pickup deadline once a copy is ready.
+ */
+public record HoldResponse(
+                UUID id,
+                UUID bookId,
+                String bookTitle,
+                HoldStatus status,
+                Long position,
+                Instant createdAt,
+                Instant expiresAt) {
+}
@@ -0,0 +1,15 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+import java.util.UUID;
+
+/**
+ * A book of the most-borrowed report. {@code borrows} is an estimate that may exceed the true
+ * number of borrows in the window by up to {@code error}, but never falls short of it.
+ */
+public record PopularBookResponse(
+                UUID bookId,
+                String title,
+                String author,
+                long borrows,
+                long error) {
+}
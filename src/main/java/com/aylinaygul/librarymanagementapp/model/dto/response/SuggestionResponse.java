@@ -0,0 +1,15 @@
+package com.aylinaygul.librarymanagementapp.model.dto.response;
+
+/**
+ * A completion for the search box. {@code borrows} is the popularity the suggestion was ranked by,
+ * summed over every book sharing the text.
+ */
+public record SuggestionResponse(
+                String text,
+                Type type,
+                long borrows) {
+
+        public enum Type {
+                TITLE, AUTHOR
+        }
+}
@@ -0,0 +1,52 @@
+package com.aylinaygul.librarymanagementapp.model.entity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A returned loan moved out of the circulation table by the archiver. It keeps the id it had as
+ * a {@link BorrowRecord}, so cursors and links to it stay valid across the move.
+ */
+@Entity
+@Table(name = "borrow_records_archive", indexes = {
+        @Index(name = "idx_archive_user_date_id", columnList = "user_id, borrowDate, id"),
+        @Index(name = "idx_archive_date_id", columnList = "borrowDate, id"),
+        @Index(name = "idx_archive_book", columnList = "book_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBorrowRecord {
+    @Id
+    private UUID id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "book_id")
+    private Book book;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    private BorrowStatus status;
+
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+}
@@ -4,13 +4,18 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,7 +23,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "Books")
+@Table(name = "Books", indexes = @Index(name = "idx_books_title_id", columnList = "title, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +34,7 @@ public class Book {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @Column(nullable = false)
     private String title;
     private String author;
     private String genre;
@@ -37,9 +43,38 @@ public class Book {
     @Column(name = "publication_date")
     private LocalDate publicationDate;
 
+    /**
+     * Whether at least one copy can be lent; kept equal to {@code availableCopies > 0}.
+     */
     private boolean available;
 
+    @Builder.Default
+    @ColumnDefault("1")
+    @Column(name = "total_copies", nullable = false)
+    private int totalCopies = 1;
+
+    @Builder.Default
+    @ColumnDefault("1")
+    @Column(name = "available_copies", nullable = false)
+    private int availableCopies = 1;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "book")
     private List<BorrowRecord> records;
 
+    /**
+     * A book first stored as unavailable has no copy to lend, whatever its copy count says.
+     */
+    @PrePersist
+    void reconcileAvailability() {
+        if (!available) {
+            availableCopies = 0;
+        }
+        available = availableCopies > 0;
+    }
+
 }
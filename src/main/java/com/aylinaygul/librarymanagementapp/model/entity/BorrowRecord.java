@@ -9,8 +9,10 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,6 +20,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_borrow_status_due_id", columnList = "status, dueDate, id"),
+        @Index(name = "idx_borrow_status_due_book", columnList = "status, dueDate, book_id"),
+        @Index(name = "idx_borrow_user_date_id", columnList = "user_id, borrowDate, id"),
+        @Index(name = "idx_borrow_date_id", columnList = "borrowDate, id"),
+        @Index(name = "idx_borrow_status_return_id", columnList = "status, returnDate, id")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,7 +1,14 @@
 package com.aylinaygul.librarymanagementapp.model.entity;
 
+import java.util.List;
+
 public enum BorrowStatus {
     BORROWED,
     RETURNED,
-    OVERDUE
+    OVERDUE;
+
+    /**
+     * Statuses of a loan whose copy has not come back yet.
+     */
+    public static final List<BorrowStatus> ON_LOAN = List.of(BORROWED, OVERDUE);
 }
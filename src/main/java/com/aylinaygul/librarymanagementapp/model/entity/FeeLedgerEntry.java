@@ -0,0 +1,41 @@
+package com.aylinaygul.librarymanagementapp.model.entity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One late fee charge: the amount a loan's fee grew by when it was assessed on the given day.
+ * Entries are only ever added.
+ */
+@Entity
+@Table(name = "fee_ledger", indexes = {
+        @Index(name = "idx_fee_ledger_loan", columnList = "loanId"),
+        @Index(name = "idx_fee_ledger_user_date", columnList = "userId, assessedOn")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private UUID loanId;
+    private UUID userId;
+    private UUID bookId;
+    private LocalDate assessedOn;
+    private long amountCents;
+}
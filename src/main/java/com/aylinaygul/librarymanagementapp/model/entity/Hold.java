@@ -0,0 +1,55 @@
+package com.aylinaygul.librarymanagementapp.model.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A patron's place in the queue for a title. Holds are served oldest first: when a copy comes
+ * back it is reserved for the first {@link HoldStatus#WAITING} hold, which becomes
+ * {@link HoldStatus#READY} until the patron borrows it or {@code expiresAt} passes.
+ */
+@Entity
+@Table(name = "holds", indexes = {
+        @Index(name = "idx_holds_book_status_created", columnList = "book_id, status, createdAt, id"),
+        @Index(name = "idx_holds_user_status", columnList = "user_id, status")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Hold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "book_id")
+    private Book book;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    private Instant createdAt;
+    private Instant readyAt;
+    private Instant expiresAt;
+}
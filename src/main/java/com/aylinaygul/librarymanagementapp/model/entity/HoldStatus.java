@@ -0,0 +1,9 @@
+package com.aylinaygul.librarymanagementapp.model.entity;
+
+public enum HoldStatus {
+    WAITING,
+    READY,
+    FULFILLED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,34 @@
+package com.aylinaygul.librarymanagementapp.model.entity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The late fee assessed so far on one loan, the sum of its {@link FeeLedgerEntry ledger entries}.
+ * It shares the loan's id and is kept when the loan is archived.
+ */
+@Entity
+@Table(name = "loan_fees")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanFee {
+    @Id
+    private UUID id;
+
+    private UUID userId;
+    private UUID bookId;
+    private long amountCents;
+    private LocalDate assessedOn;
+}
@@ -0,0 +1,9 @@
+package com.aylinaygul.librarymanagementapp.model.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a patron borrows a book, so popularity-weighted views can count it.
+ */
+public record BookBorrowedEvent(UUID bookId) {
+}
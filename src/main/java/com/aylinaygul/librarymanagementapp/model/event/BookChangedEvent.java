@@ -0,0 +1,24 @@
+package com.aylinaygul.librarymanagementapp.model.event;
+
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+
+/**
+ * Published whenever a book row is created, modified or deleted. {@code before} is null for a
+ * newly created book and {@code after} is null for a deleted one.
+ */
+public record BookChangedEvent(UUID bookId, BookSnapshot before, BookSnapshot after) {
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(book.getId(), null, BookSnapshot.of(book));
+    }
+
+    public static BookChangedEvent updated(BookSnapshot before, Book book) {
+        return new BookChangedEvent(book.getId(), before, BookSnapshot.of(book));
+    }
+
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(book.getId(), BookSnapshot.of(book), null);
+    }
+}
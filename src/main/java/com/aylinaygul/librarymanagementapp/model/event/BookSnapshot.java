@@ -0,0 +1,32 @@
+package com.aylinaygul.librarymanagementapp.model.event;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+
+public record BookSnapshot(
+        String title,
+        String author,
+        String genre,
+        String isbn,
+        boolean available,
+        int availableCopies,
+        int totalCopies) {
+
+    /**
+     * Snapshot of a single-copy book.
+     */
+    public BookSnapshot(String title, String author, String genre, String isbn,
+            boolean available) {
+        this(title, author, genre, isbn, available, available ? 1 : 0, 1);
+    }
+
+    public static BookSnapshot of(Book book) {
+        return new BookSnapshot(book.getTitle(), book.getAuthor(), book.getGenre(),
+                book.getIsbn(), book.isAvailable(), book.getAvailableCopies(),
+                book.getTotalCopies());
+    }
+
+    public BookSnapshot withAvailableCopies(int availableCopies) {
+        return new BookSnapshot(title, author, genre, isbn, availableCopies > 0, availableCopies,
+                totalCopies);
+    }
+}
@@ -0,0 +1,11 @@
+package com.aylinaygul.librarymanagementapp.model.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published when a returned copy is reserved for a hold, so its pickup deadline can be tracked
+ * once the reservation is committed.
+ */
+public record HoldReadyEvent(UUID holdId, UUID bookId, UUID userId, Instant expiresAt) {
+}
@@ -0,0 +1,33 @@
+package com.aylinaygul.librarymanagementapp.model.event;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+
+/**
+ * Published when a loan is opened, closed or found overdue, so the circulation journal can record
+ * it once the change commits.
+ */
+public record LoanEvent(Type type, UUID loanId, UUID userId, UUID bookId, LocalDate date) {
+
+    public enum Type {
+        BORROWED, RETURNED, OVERDUE
+    }
+
+    public static LoanEvent borrowed(BorrowRecord record) {
+        return new LoanEvent(Type.BORROWED, record.getId(), record.getUser().getId(),
+                record.getBook().getId(), record.getBorrowDate());
+    }
+
+    public static LoanEvent returned(BorrowRecord record) {
+        return new LoanEvent(Type.RETURNED, record.getId(), record.getUser().getId(),
+                record.getBook().getId(), record.getReturnDate());
+    }
+
+    public static LoanEvent overdue(BorrowResponse record) {
+        return new LoanEvent(Type.OVERDUE, record.getId(), record.getUserId(), record.getBookId(),
+                record.getDueDate());
+    }
+}
@@ -13,8 +13,19 @@ public interface BookRequestMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "records", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "totalCopies", source = "copies", defaultValue = "1")
+    @Mapping(target = "availableCopies",
+            expression = "java(Boolean.TRUE.equals(dto.getAvailable()) ? (dto.getCopies() == null ? 1 : dto.getCopies()) : 0)")
     Book toEntity(BookRequest dto);
 
+    /**
+     * Copies and availability change through borrowing, {@code copies} and
+     * {@code available = false}, which the service applies against the number of copies on loan.
+     */
     @InheritConfiguration(name = "toEntity")
+    @Mapping(target = "available", ignore = true)
+    @Mapping(target = "totalCopies", ignore = true)
+    @Mapping(target = "availableCopies", ignore = true)
     void updateBookFromRequest(BookRequest request, @MappingTarget Book book);
 }
@@ -3,6 +3,7 @@ package com.aylinaygul.librarymanagementapp.model.mapper;
 import java.util.List;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
@@ -10,6 +11,8 @@ import com.aylinaygul.librarymanagementapp.model.entity.Book;
 @Mapper(componentModel = "spring")
 public interface BookResponseMapper {
 
+    @Mapping(target = "records", ignore = true)
+    @Mapping(target = "withRecords", ignore = true)
     BookResponse toDTO(Book book);
 
     List<BookResponse> toDTOList(List<Book> books);
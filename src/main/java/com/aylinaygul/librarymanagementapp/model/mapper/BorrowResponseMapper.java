@@ -6,6 +6,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.ArchivedBorrowRecord;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
 
 @Mapper(componentModel = "spring")
@@ -16,5 +17,10 @@ public interface BorrowResponseMapper {
     @Mapping(source = "book.title", target = "bookTitle")
     BorrowResponse toDTO(BorrowRecord borrowRecord);
 
+    @Mapping(source = "user.id", target = "userId")
+    @Mapping(source = "book.id", target = "bookId")
+    @Mapping(source = "book.title", target = "bookTitle")
+    BorrowResponse toDTO(ArchivedBorrowRecord archivedBorrowRecord);
+
     List<BorrowResponse> toDTOList(List<BorrowRecord> borrowRecords);
 }
@@ -0,0 +1,242 @@
+package com.aylinaygul.librarymanagementapp.popularity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookBorrowedEvent;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Most-borrowed books over rolling windows, counted from committed borrows without querying the
+ * loans.
+ *
+ * <p>
+ * Each day of the longest window gets a {@link SpaceSaving} summary of fixed capacity, held in a
+ * ring indexed by the day, so a new day simply reuses the slot of the one that fell out. The
+ * rankings of every window are merged from the daily summaries on a fixed interval and published
+ * as immutable lists, so a read is a lookup of a prepared list. The summaries are written to a
+ * snapshot file on each refresh that follows new borrows and at shutdown, and read back at
+ * startup.
+ */
+@Component
+public class PopularityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityTracker.class);
+
+    public static final int MAX_LIMIT = 100;
+
+    private record Day(LocalDate date, SpaceSaving summary) {
+    }
+
+    record Snapshot(List<DaySnapshot> days) {
+    }
+
+    record DaySnapshot(LocalDate date, List<SpaceSaving.Estimate> counters) {
+    }
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Path snapshotFile;
+    private final int capacity;
+
+    private final Day[] days = new Day[PopularityWindow.MONTH.days()];
+    private boolean dirty;
+    private volatile Map<PopularityWindow, List<PopularBookResponse>> rankings = Map.of();
+
+    @Autowired
+    public PopularityTracker(BookRepository bookRepository, ObjectMapper objectMapper,
+            @Value("${library.popular.snapshot-file:data/popular-books.json}") Path snapshotFile,
+            @Value("${library.popular.capacity:1000}") int capacity) {
+        this(bookRepository, objectMapper, Clock.systemDefaultZone(), snapshotFile, capacity);
+    }
+
+    PopularityTracker(BookRepository bookRepository, ObjectMapper objectMapper, Clock clock,
+            Path snapshotFile, int capacity) {
+        if (capacity < MAX_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Capacity must be at least " + MAX_LIMIT + ": " + capacity);
+        }
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.snapshotFile = snapshotFile;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Restores the summaries still inside the longest window. An unreadable snapshot is logged
+     * and ignored, since the counts only drive a report.
+     */
+    @PostConstruct
+    public void load() {
+        if (Files.exists(snapshotFile)) {
+            try {
+                Snapshot snapshot = objectMapper.readValue(snapshotFile.toFile(), Snapshot.class);
+                LocalDate today = LocalDate.now(clock);
+                synchronized (this) {
+                    for (DaySnapshot saved : snapshot.days()) {
+                        if (saved.date().isAfter(today.minusDays(days.length))
+                                && !saved.date().isAfter(today)) {
+                            SpaceSaving summary = day(saved.date()).summary();
+                            saved.counters().forEach(summary::restore);
+                        }
+                    }
+                }
+                logger.info("Restored popularity counts of {} days from {}",
+                        snapshot.days().size(), snapshotFile);
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Ignoring unreadable popularity snapshot {}: {}", snapshotFile,
+                        ex.getMessage());
+            }
+        }
+        refresh();
+    }
+
+    @PreDestroy
+    public void close() {
+        save();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        record(event.bookId());
+    }
+
+    public synchronized void record(UUID bookId) {
+        day(LocalDate.now(clock)).summary().offer(bookId);
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${library.popular.refresh-interval:10s}")
+    public void scheduledRefresh() {
+        refresh();
+        save();
+    }
+
+    /**
+     * Returns up to {@code limit} books most borrowed in the window as of the latest refresh.
+     */
+    public List<PopularBookResponse> top(PopularityWindow window, int limit) {
+        List<PopularBookResponse> ranking = rankings.getOrDefault(window, List.of());
+        return ranking.subList(0, Math.min(limit, ranking.size()));
+    }
+
+    /**
+     * Merges the daily summaries of every window and publishes the rankings, dropping books that
+     * have since been deleted.
+     */
+    public void refresh() {
+        Map<PopularityWindow, List<SpaceSaving.Estimate>> estimates =
+                new EnumMap<>(PopularityWindow.class);
+        LocalDate today = LocalDate.now(clock);
+        synchronized (this) {
+            for (PopularityWindow window : PopularityWindow.values()) {
+                List<SpaceSaving> summaries = new ArrayList<>();
+                for (int i = 0; i < window.days(); i++) {
+                    Day day = days[slot(today.minusDays(i))];
+                    if (day != null && day.date().equals(today.minusDays(i))) {
+                        summaries.add(day.summary());
+                    }
+                }
+                estimates.put(window, SpaceSaving.merge(summaries, MAX_LIMIT));
+            }
+        }
+
+        Set<UUID> bookIds = new HashSet<>();
+        estimates.values().forEach(top -> top.forEach(estimate -> bookIds.add(estimate.key())));
+        Map<UUID, BookResponse> books = bookIds.isEmpty() ? Map.of()
+                : bookRepository.findSummariesByIdIn(bookIds).stream()
+                        .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+
+        Map<PopularityWindow, List<PopularBookResponse>> refreshed =
+                new EnumMap<>(PopularityWindow.class);
+        estimates.forEach((window, top) -> refreshed.put(window, top.stream()
+                .filter(estimate -> books.containsKey(estimate.key()))
+                .map(estimate -> {
+                    BookResponse book = books.get(estimate.key());
+                    return new PopularBookResponse(book.id(), book.title(), book.author(),
+                            estimate.count(), estimate.error());
+                }).toList()));
+        rankings = refreshed;
+    }
+
+    /**
+     * Writes the summaries if borrows were counted since the last write, replacing the previous
+     * snapshot atomically.
+     */
+    public void save() {
+        Snapshot snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            List<DaySnapshot> saved = new ArrayList<>();
+            for (Day day : days) {
+                if (day != null) {
+                    saved.add(new DaySnapshot(day.date(), day.summary().estimates()));
+                }
+            }
+            snapshot = new Snapshot(saved);
+            dirty = false;
+        }
+
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, "popular", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved popularity counts of {} days to {}", snapshot.days().size(),
+                    snapshotFile);
+        } catch (IOException ex) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.error("Failed to save popularity snapshot {}: {}", snapshotFile,
+                    ex.getMessage());
+        }
+    }
+
+    private Day day(LocalDate date) {
+        int slot = slot(date);
+        if (days[slot] == null || !days[slot].date().equals(date)) {
+            days[slot] = new Day(date, new SpaceSaving(capacity));
+        }
+        return days[slot];
+    }
+
+    private int slot(LocalDate date) {
+        return Math.floorMod(date.toEpochDay(), days.length);
+    }
+}
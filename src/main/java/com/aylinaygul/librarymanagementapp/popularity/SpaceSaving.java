@@ -0,0 +1,134 @@
+package com.aylinaygul.librarymanagementapp.popularity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Space-Saving summary of the most frequent keys of a stream, in memory bounded by its capacity.
+ *
+ * <p>
+ * Every monitored key has a counter. An unmonitored key takes over the smallest counter and
+ * inherits its count as error, so a count overestimates the true frequency by at most its error,
+ * and any key more frequent than {@code total / capacity} is guaranteed to be monitored. Counters
+ * are kept ordered by count, so an update is logarithmic in the capacity.
+ */
+public class SpaceSaving {
+
+    /**
+     * An estimated frequency: the key occurred at most {@code count} and at least
+     * {@code count - error} times.
+     */
+    public record Estimate(UUID key, long count, long error) {
+    }
+
+    private static final class Counter {
+        private final UUID key;
+        private long count;
+        private long error;
+
+        private Counter(UUID key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.comparingLong((Counter counter) -> counter.count)
+                    .thenComparing(counter -> counter.key);
+
+    static final Comparator<Estimate> RANKING = Comparator.comparingLong(Estimate::count)
+            .reversed().thenComparingLong(Estimate::error).thenComparing(Estimate::key);
+
+    private final int capacity;
+    private final Map<UUID, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(UUID key) {
+        offer(key, 1, 0);
+    }
+
+    private void offer(UUID key, long count, long error) {
+        Counter counter = counters.get(key);
+        if (counter == null && counters.size() < capacity) {
+            counter = new Counter(key, 0, error);
+            counters.put(key, counter);
+        } else if (counter == null) {
+            counter = byCount.pollFirst();
+            counters.remove(counter.key);
+            counter = new Counter(key, counter.count, counter.count + error);
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+            counter.error += error;
+        }
+        counter.count += count;
+        byCount.add(counter);
+    }
+
+    /**
+     * Restores a counter saved from {@link #estimates()}.
+     */
+    public void restore(Estimate estimate) {
+        offer(estimate.key(), estimate.count(), estimate.error());
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Every monitored key, most frequent first.
+     */
+    public List<Estimate> estimates() {
+        List<Estimate> estimates = new ArrayList<>(byCount.size());
+        for (Counter counter : byCount.descendingSet()) {
+            estimates.add(new Estimate(counter.key, counter.count, counter.error));
+        }
+        return estimates;
+    }
+
+    /**
+     * Combines summaries of consecutive parts of a stream into estimates for the whole of it.
+     * A key missing from a full summary may have occurred there up to that summary's smallest
+     * count, which is added to its error.
+     */
+    public static List<Estimate> merge(Collection<SpaceSaving> summaries, int limit) {
+        Map<UUID, long[]> merged = new HashMap<>();
+        long missingBound = 0;
+        for (SpaceSaving summary : summaries) {
+            long floor = summary.counters.size() < summary.capacity ? 0
+                    : summary.byCount.first().count;
+            missingBound += floor;
+            for (Counter counter : summary.byCount) {
+                long[] totals = merged.computeIfAbsent(counter.key, key -> new long[3]);
+                totals[0] += counter.count;
+                totals[1] += counter.error;
+                totals[2] += floor;
+            }
+        }
+
+        long bound = missingBound;
+        return merged.entrySet().stream()
+                .map(entry -> {
+                    long[] totals = entry.getValue();
+                    // absent from the full summaries it was not counted in
+                    long absent = bound - totals[2];
+                    return new Estimate(entry.getKey(), totals[0] + absent, totals[1] + absent);
+                })
+                .sorted(RANKING).limit(limit).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.aylinaygul.librarymanagementapp.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookBorrowCount;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.ArchivedBorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Reads over archived loans mirror the history reads of {@link BorrowRepository}, with the same
+ * filters, ordering and cursors, so callers can merge the two.
+ */
+public interface ArchivedBorrowRepository extends JpaRepository<ArchivedBorrowRecord, UUID> {
+
+    String RESPONSE = """
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse(
+                br.id, br.user.id, b.id, b.title, br.borrowDate, br.dueDate, br.returnDate, br.status)
+            FROM ArchivedBorrowRecord br JOIN br.book b
+            """;
+
+    /**
+     * Copies the given loans into the archive if they are still returned. The caller deletes them
+     * from the circulation table in the same transaction.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO ArchivedBorrowRecord (id, book, user, status, borrowDate, dueDate, returnDate)
+            SELECT br.id, br.book, br.user, br.status, br.borrowDate, br.dueDate, br.returnDate
+            FROM BorrowRecord br
+            WHERE br.id IN :ids
+                AND br.status = com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus.RETURNED
+            """)
+    int copyReturned(Collection<UUID> ids);
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId ORDER BY br.borrowDate DESC")
+    List<BorrowResponse> findResponsesByUserId(UUID userId);
+
+    @Query(RESPONSE + "WHERE b.id IN :bookIds ORDER BY br.borrowDate DESC")
+    List<BorrowResponse> findResponsesByBookIdIn(Collection<UUID> bookIds);
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId AND " + BorrowRepository.HISTORY_FILTER
+            + BorrowRepository.NEWEST_FIRST)
+    Slice<BorrowResponse> findFirstHistorySliceByUserId(UUID userId, BorrowStatus status,
+            LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId AND " + BorrowRepository.HISTORY_FILTER
+            + BorrowRepository.HISTORY_BEFORE + BorrowRepository.NEWEST_FIRST)
+    Slice<BorrowResponse> findHistorySliceByUserIdBefore(UUID userId, BorrowStatus status,
+            LocalDate from, LocalDate to, LocalDate date, UUID id, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + BorrowRepository.HISTORY_FILTER + BorrowRepository.NEWEST_FIRST)
+    Slice<BorrowResponse> findFirstHistorySlice(BorrowStatus status, LocalDate from,
+            LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + BorrowRepository.HISTORY_FILTER + BorrowRepository.HISTORY_BEFORE
+            + BorrowRepository.NEWEST_FIRST)
+    Slice<BorrowResponse> findHistorySliceBefore(BorrowStatus status, LocalDate from,
+            LocalDate to, LocalDate date, UUID id, Pageable pageable);
+
+    @Query("""
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.BookBorrowCount(
+                br.book.id, COUNT(br))
+            FROM ArchivedBorrowRecord br GROUP BY br.book.id
+            """)
+    List<BookBorrowCount> countBorrowsByBook();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT br FROM ArchivedBorrowRecord br JOIN FETCH br.book JOIN FETCH br.user")
+    Stream<ArchivedBorrowRecord> streamAll();
+}
@@ -1,19 +1,134 @@
 package com.aylinaygul.librarymanagementapp.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface BookRepository extends JpaRepository<Book, UUID> {
 
+    /**
+     * Cursor walks order by the raw (title, id) columns, so {@code idx_books_title_id} serves
+     * every page, however deep, with an index range scan.
+     */
+    String TITLE_ORDER = "ORDER BY b.title, b.id";
+
+    String AFTER_CURSOR = "(b.title > :title OR (b.title = :title AND b.id > :id)) ";
+
+    String SUMMARY = """
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse(
+                b.id, b.title, b.author, b.genre, b.isbn, b.publicationDate, b.available,
+                b.availableCopies, b.totalCopies)
+            FROM Book b
+            """;
+
+    /**
+     * Books with an overdue loan. The loans are probed per book with EXISTS instead of joined, so a
+     * book with several late loans comes back once without DISTINCT, which PostgreSQL would only
+     * allow with the sort key in the select list.
+     */
+    String OVERDUE_SUMMARY = SUMMARY
+            + "WHERE EXISTS (SELECT 1 FROM BorrowRecord br WHERE br.book = b AND "
+            + BorrowRepository.OVERDUE_LOAN + ") ";
+
+    @Query(OVERDUE_SUMMARY)
+    List<BookResponse> findOverdueBooks();
+
+    @Query(OVERDUE_SUMMARY + TITLE_ORDER)
+    Slice<BookResponse> findFirstOverdueSlice(Pageable pageable);
+
+    @Query(OVERDUE_SUMMARY + "AND " + AFTER_CURSOR + TITLE_ORDER)
+    Slice<BookResponse> findOverdueSliceAfter(String title, UUID id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(OVERDUE_SUMMARY + TITLE_ORDER)
+    Stream<BookResponse> streamOverdueBooks();
+
+    @Query(SUMMARY)
+    List<BookResponse> findAllSummaries();
+
+    @Query(SUMMARY + "WHERE b.id = :id")
+    Optional<BookResponse> findSummaryById(UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Book b SET b.availableCopies = b.availableCopies - 1,
+                b.available = CASE WHEN b.availableCopies > 1 THEN true ELSE false END,
+                b.version = b.version + 1
+            WHERE b.id = :id AND b.availableCopies > 0
+            """)
+    int takeCopy(UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.available = true,
+                b.version = b.version + 1
+            WHERE b.id = :id AND b.availableCopies < b.totalCopies
+            """)
+    int returnCopy(UUID id);
+
+    /**
+     * Locks the books for the rest of the transaction. Rows are locked in id order, so two batches
+     * over overlapping books queue behind each other instead of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findAllByIdInForUpdate(Collection<UUID> ids);
+
+    /**
+     * Bumps the versions of books whose representation changed without a change to the row
+     * itself, such as the status of one of their loans.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.version = b.version + 1 WHERE b.id IN :ids")
+    int touch(Collection<UUID> ids);
+
+    /**
+     * Takes the copy off the shelf for books stored as lent out before copies were counted, which
+     * the schema update gave one available copy. Running it again changes nothing.
+     */
+    @Modifying
     @Query("""
-            SELECT b FROM Book b WHERE b.id IN (
-                SELECT br.book.id FROM BorrowRecord br WHERE br.dueDate < CURRENT_DATE AND br.returnDate IS NULL
-            )
+            UPDATE Book b SET b.availableCopies = 0, b.version = b.version + 1
+            WHERE b.available = false AND b.availableCopies > 0
             """)
-    List<Book> findOverdueBooks();
+    int reconcileLentCopies();
+
+    @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    @Query(SUMMARY + "WHERE b.id IN :ids")
+    List<BookResponse> findSummariesByIdIn(Collection<UUID> ids);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    @Query(SUMMARY + TITLE_ORDER)
+    Slice<BookResponse> findFirstSliceOrderByTitle(Pageable pageable);
+
+    @Query(SUMMARY + "WHERE " + AFTER_CURSOR + TITLE_ORDER)
+    Slice<BookResponse> findSliceOrderByTitleAfter(String title, UUID id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Book b")
+    Stream<Book> streamAll();
 }
@@ -1,15 +1,29 @@
 package com.aylinaygul.librarymanagementapp.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookBorrowCount;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
 
+import jakarta.persistence.QueryHint;
+
 public interface BorrowRepository extends JpaRepository<BorrowRecord, UUID> {
     List<BorrowRecord> findByUserId(UUID id);
 
@@ -20,13 +34,168 @@ public interface BorrowRepository extends JpaRepository<BorrowRecord, UUID> {
     Optional<BorrowRecord> findByUserIdAndBookIdAndStatus(UUID userId, UUID bookId,
             BorrowStatus status);
 
+    boolean existsByUserIdAndBookIdAndStatusIn(UUID userId, UUID bookId,
+            Collection<BorrowStatus> statuses);
+
+    Optional<BorrowRecord> findFirstByUserIdAndBookIdAndStatusIn(UUID userId, UUID bookId,
+            Collection<BorrowStatus> statuses);
+
+    List<BorrowRecord> findByUserIdAndStatusInAndBookIdIn(UUID userId,
+            Collection<BorrowStatus> statuses, Collection<UUID> bookIds);
+
+    @Query("""
+            SELECT br.book.id FROM BorrowRecord br
+            WHERE br.user.id = :userId AND br.status IN :statuses AND br.book.id IN :bookIds
+            """)
+    Set<UUID> findBookIdsByUserIdAndStatusInAndBookIdIn(UUID userId,
+            Collection<BorrowStatus> statuses, Collection<UUID> bookIds);
+
     List<BorrowRecord> findAllByUserIdOrderByBorrowDateDesc(UUID userId);
 
     List<BorrowRecord> findAllByOrderByBorrowDateDesc();
 
     List<BorrowRecord> findByStatusAndDueDateBefore(BorrowStatus status, LocalDate date);
 
-    @Query("SELECT br FROM BorrowRecord br WHERE br.dueDate < CURRENT_DATE AND br.returnDate IS NULL")
+    /**
+     * Loans marked overdue by the sweeper, plus those that fell due since its last run. Both
+     * branches are range scans of the (status, due date) index.
+     */
+    String OVERDUE_LOAN = """
+            (br.status = com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus.OVERDUE
+                OR (br.status = com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus.BORROWED
+                    AND br.dueDate < CURRENT_DATE))
+            """;
+
+    @Query("SELECT br FROM BorrowRecord br WHERE " + OVERDUE_LOAN)
     List<BorrowRecord> findOverdueBorrowRecords();
 
+    String RESPONSE = """
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse(
+                br.id, br.user.id, b.id, b.title, br.borrowDate, br.dueDate, br.returnDate, br.status)
+            FROM BorrowRecord br JOIN br.book b
+            """;
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId ORDER BY br.borrowDate DESC")
+    List<BorrowResponse> findResponsesByUserId(UUID userId);
+
+    /**
+     * Optional history bounds; a null parameter matches every loan. The walk itself runs newest
+     * first along the (borrow date, id) indexes, so filters only thin out the rows it visits.
+     */
+    String HISTORY_FILTER = """
+            (:status IS NULL OR br.status = :status)
+            AND (:from IS NULL OR br.borrowDate >= :from)
+            AND (:to IS NULL OR br.borrowDate <= :to)
+            """;
+
+    String HISTORY_BEFORE = """
+            AND (br.borrowDate < :date OR (br.borrowDate = :date AND br.id < :id))
+            """;
+
+    String NEWEST_FIRST = "ORDER BY br.borrowDate DESC, br.id DESC";
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId AND " + HISTORY_FILTER + NEWEST_FIRST)
+    Slice<BorrowResponse> findFirstHistorySliceByUserId(UUID userId, BorrowStatus status,
+            LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE br.user.id = :userId AND " + HISTORY_FILTER + HISTORY_BEFORE
+            + NEWEST_FIRST)
+    Slice<BorrowResponse> findHistorySliceByUserIdBefore(UUID userId, BorrowStatus status,
+            LocalDate from, LocalDate to, LocalDate date, UUID id, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + HISTORY_FILTER + NEWEST_FIRST)
+    Slice<BorrowResponse> findFirstHistorySlice(BorrowStatus status, LocalDate from,
+            LocalDate to, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + HISTORY_FILTER + HISTORY_BEFORE + NEWEST_FIRST)
+    Slice<BorrowResponse> findHistorySliceBefore(BorrowStatus status, LocalDate from,
+            LocalDate to, LocalDate date, UUID id, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + OVERDUE_LOAN)
+    List<BorrowResponse> findOverdueResponses();
+
+    @Query(RESPONSE + "WHERE " + OVERDUE_LOAN + "ORDER BY br.dueDate, br.id")
+    Slice<BorrowResponse> findFirstOverdueSlice(Pageable pageable);
+
+    @Query(RESPONSE + "WHERE " + OVERDUE_LOAN + """
+            AND (br.dueDate > :dueDate OR (br.dueDate = :dueDate AND br.id > :id))
+            ORDER BY br.dueDate, br.id
+            """)
+    Slice<BorrowResponse> findOverdueSliceAfter(LocalDate dueDate, UUID id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(RESPONSE + "WHERE " + OVERDUE_LOAN + "ORDER BY br.dueDate, br.id")
+    Stream<BorrowResponse> streamOverdueResponses();
+
+    /**
+     * Id and due date of a loan, the keyset the overdue sweeper pages by.
+     */
+    interface DueLoan {
+        UUID getId();
+
+        LocalDate getDueDate();
+    }
+
+    @Query("""
+            SELECT br.id AS id, br.dueDate AS dueDate FROM BorrowRecord br
+            WHERE br.status = :status AND br.dueDate < :before
+            ORDER BY br.dueDate, br.id
+            """)
+    List<DueLoan> findDueLoans(BorrowStatus status, LocalDate before, Limit limit);
+
+    @Query("""
+            SELECT br.id AS id, br.dueDate AS dueDate FROM BorrowRecord br
+            WHERE br.status = :status AND br.dueDate < :before
+                AND (br.dueDate > :dueDate OR (br.dueDate = :dueDate AND br.id > :id))
+            ORDER BY br.dueDate, br.id
+            """)
+    List<DueLoan> findDueLoansAfter(BorrowStatus status, LocalDate before, LocalDate dueDate,
+            UUID id, Limit limit);
+
+    @Modifying
+    @Query("UPDATE BorrowRecord br SET br.status = :to WHERE br.id IN :ids AND br.status = :from")
+    int updateStatus(Collection<UUID> ids, BorrowStatus from, BorrowStatus to);
+
+    @Query(RESPONSE + "WHERE br.id IN :ids AND br.status = :status")
+    List<BorrowResponse> findResponsesByIdInAndStatus(Collection<UUID> ids, BorrowStatus status);
+
+    @Query("SELECT DISTINCT br.book.id FROM BorrowRecord br WHERE br.id IN :ids")
+    Set<UUID> findBookIdsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Oldest returned loans first, along the (status, return date) index. Archived rows leave the
+     * table, so each call picks up where the previous chunk ended without a cursor.
+     */
+    @Query("""
+            SELECT br.id FROM BorrowRecord br
+            WHERE br.status = com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus.RETURNED
+                AND br.returnDate < :before
+            ORDER BY br.returnDate, br.id
+            """)
+    List<UUID> findReturnedIdsBefore(LocalDate before, Limit limit);
+
+    @Modifying
+    @Query("""
+            DELETE FROM BorrowRecord br
+            WHERE br.id IN :ids
+                AND br.status = com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus.RETURNED
+            """)
+    int deleteReturnedByIdIn(Collection<UUID> ids);
+
+    @Query(RESPONSE + "WHERE b.id IN :bookIds ORDER BY br.borrowDate DESC")
+    List<BorrowResponse> findResponsesByBookIdIn(Collection<UUID> bookIds);
+
+    @Query("""
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.BookBorrowCount(
+                br.book.id, COUNT(br))
+            FROM BorrowRecord br GROUP BY br.book.id
+            """)
+    List<BookBorrowCount> countBorrowsByBook();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT br FROM BorrowRecord br JOIN FETCH br.book JOIN FETCH br.user")
+    Stream<BorrowRecord> streamAll();
+
 }
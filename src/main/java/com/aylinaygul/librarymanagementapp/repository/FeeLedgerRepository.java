@@ -0,0 +1,13 @@
+package com.aylinaygul.librarymanagementapp.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.aylinaygul.librarymanagementapp.model.entity.FeeLedgerEntry;
+
+public interface FeeLedgerRepository extends JpaRepository<FeeLedgerEntry, UUID> {
+
+    List<FeeLedgerEntry> findByLoanIdOrderByAssessedOn(UUID loanId);
+}
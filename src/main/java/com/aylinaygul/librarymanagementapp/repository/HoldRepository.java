@@ -0,0 +1,82 @@
+package com.aylinaygul.librarymanagementapp.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Hold;
+import com.aylinaygul.librarymanagementapp.model.entity.HoldStatus;
+
+public interface HoldRepository extends JpaRepository<Hold, UUID> {
+
+    boolean existsByUserIdAndBookIdAndStatusIn(UUID userId, UUID bookId,
+            Collection<HoldStatus> statuses);
+
+    Optional<Hold> findFirstByUserIdAndBookIdAndStatusIn(UUID userId, UUID bookId,
+            Collection<HoldStatus> statuses);
+
+    List<Hold> findByUserIdAndStatusAndBookIdIn(UUID userId, HoldStatus status,
+            Collection<UUID> bookIds);
+
+    Optional<Hold> findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(UUID bookId,
+            HoldStatus status);
+
+    List<Hold> findByStatus(HoldStatus status);
+
+    /**
+     * 1-based place of a waiting hold in its book's queue. Compares stored timestamps only, as the
+     * column may hold less precision than the clock that produced them.
+     */
+    @Query("""
+            SELECT COUNT(q) + 1 FROM Hold h, Hold q
+            WHERE h.id = :id AND q.book = h.book AND q.status = h.status
+                AND (q.createdAt < h.createdAt OR (q.createdAt = h.createdAt AND q.id < h.id))
+            """)
+    long findPosition(UUID id);
+
+    @Query("""
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse(
+                h.id, b.id, b.title, h.status,
+                CASE WHEN h.status = :waiting THEN (
+                    SELECT COUNT(q) + 1 FROM Hold q
+                    WHERE q.book.id = b.id AND q.status = :waiting
+                        AND (q.createdAt < h.createdAt OR (q.createdAt = h.createdAt AND q.id < h.id))
+                ) END,
+                h.createdAt, h.expiresAt)
+            FROM Hold h JOIN h.book b
+            WHERE h.user.id = :userId AND h.status IN :statuses
+            ORDER BY h.createdAt
+            """)
+    List<HoldResponse> findResponsesByUserId(UUID userId, HoldStatus waiting,
+            Collection<HoldStatus> statuses);
+
+    /**
+     * Reserves a copy for the hold, unless another transaction already moved it out of the queue.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Hold h SET h.status = com.aylinaygul.librarymanagementapp.model.entity.HoldStatus.READY,
+                h.readyAt = :readyAt, h.expiresAt = :expiresAt
+            WHERE h.id = :id AND h.status = com.aylinaygul.librarymanagementapp.model.entity.HoldStatus.WAITING
+            """)
+    int markReady(UUID id, Instant readyAt, Instant expiresAt);
+
+    @Modifying
+    @Query("UPDATE Hold h SET h.status = :to WHERE h.id = :id AND h.status = :from")
+    int transition(UUID id, HoldStatus from, HoldStatus to);
+
+    @Modifying
+    @Query("""
+            UPDATE Hold h SET h.status = com.aylinaygul.librarymanagementapp.model.entity.HoldStatus.EXPIRED
+            WHERE h.id = :id AND h.status = com.aylinaygul.librarymanagementapp.model.entity.HoldStatus.READY
+                AND h.expiresAt <= :now
+            """)
+    int expire(UUID id, Instant now);
+}
@@ -0,0 +1,10 @@
+package com.aylinaygul.librarymanagementapp.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.aylinaygul.librarymanagementapp.model.entity.LoanFee;
+
+public interface LoanFeeRepository extends JpaRepository<LoanFee, UUID> {
+}
@@ -1,14 +1,29 @@
 package com.aylinaygul.librarymanagementapp.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.aylinaygul.librarymanagementapp.model.dto.response.UserResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+
+    String RESPONSE = """
+            SELECT new com.aylinaygul.librarymanagementapp.model.dto.response.UserResponse(
+                u.id, u.name, u.email, u.role)
+            FROM User u
+            """;
+
+    @Query(RESPONSE)
+    List<UserResponse> findAllResponses();
+
+    @Query(RESPONSE + "WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(UUID id);
 }
\ No newline at end of file
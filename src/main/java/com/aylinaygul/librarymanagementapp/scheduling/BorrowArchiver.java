@@ -0,0 +1,126 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.entity.ArchivedBorrowRecord;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Moves loans returned longer ago than the configured age into the
+ * {@link ArchivedBorrowRecord archive}, keeping the circulation table and its indexes down to
+ * open and recent loans.
+ *
+ * <p>
+ * Each chunk is copied with a single INSERT ... SELECT and deleted in the same transaction, both
+ * guarded on the returned status, so a crash between chunks leaves every loan in exactly one of
+ * the two tables. History reads merge both, so the move is invisible to clients.
+ */
+@Component
+public class BorrowArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(BorrowArchiver.class);
+
+    private final BorrowRepository borrowRepository;
+    private final ArchivedBorrowRepository archivedBorrowRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration minAge;
+    private final int chunkSize;
+
+    private final Timer runTimer;
+    private final Counter movedCounter;
+    private final AtomicLong lastMoved = new AtomicLong();
+
+    @Autowired
+    public BorrowArchiver(BorrowRepository borrowRepository,
+            ArchivedBorrowRepository archivedBorrowRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${library.archive.min-age:365d}") Duration minAge,
+            @Value("${library.archive.chunk-size:1000}") int chunkSize) {
+        this(borrowRepository, archivedBorrowRepository, transactionTemplate, meterRegistry,
+                Clock.systemDefaultZone(), minAge, chunkSize);
+    }
+
+    BorrowArchiver(BorrowRepository borrowRepository,
+            ArchivedBorrowRepository archivedBorrowRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock,
+            Duration minAge, int chunkSize) {
+        this.borrowRepository = borrowRepository;
+        this.archivedBorrowRepository = archivedBorrowRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.runTimer = Timer.builder("library.archive.run")
+                .description("Run time of the borrow record archiver").register(meterRegistry);
+        this.movedCounter = Counter.builder("library.archive.moved")
+                .description("Returned loans moved to the archive").register(meterRegistry);
+        Gauge.builder("library.archive.last.moved", lastMoved, AtomicLong::get)
+                .description("Returned loans moved by the latest archiver run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${library.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    /**
+     * Moves every loan returned before the cutoff to the archive and returns how many moved.
+     */
+    public long archive() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(minAge.toDays());
+        long moved = runTimer.record(() -> archiveBefore(cutoff));
+        lastMoved.set(moved);
+        movedCounter.increment(moved);
+        logger.info("Archiver moved {} loans returned before {}", moved, cutoff);
+        return moved;
+    }
+
+    private long archiveBefore(LocalDate cutoff) {
+        long moved = 0;
+        while (true) {
+            List<UUID> ids = borrowRepository.findReturnedIdsBefore(cutoff, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> move(ids));
+            moved += count == null ? 0 : count;
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private int move(List<UUID> ids) {
+        int copied = archivedBorrowRepository.copyReturned(ids);
+        int deleted = borrowRepository.deleteReturnedByIdIn(ids);
+        if (copied != deleted) {
+            // both statements filter on the same terminal status, so this means a concurrent move
+            throw new IllegalStateException("Archived " + copied + " loans but removed " + deleted);
+        }
+        logger.debug("Moved {} of {} loans to the archive", copied, ids.size());
+        return copied;
+    }
+}
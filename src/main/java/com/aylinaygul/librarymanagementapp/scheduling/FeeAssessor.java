@@ -0,0 +1,211 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.LockMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.fees.FeePolicy;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.FeeLedgerEntry;
+import com.aylinaygul.librarymanagementapp.model.entity.LoanFee;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository.DueLoan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Brings the late fee of every overdue loan up to date, adding a ledger entry for the amount each
+ * fee grew by since it was last assessed. Runs are incremental, so a loan skipped by a failed
+ * chunk is charged in full by the next run.
+ *
+ * <p>
+ * One thread walks the overdue loans in (due date, id) order along the status index and hands
+ * each chunk to a fork-join pool, which assesses up to {@code parallelism} chunks at a time. A
+ * chunk locks its loans, so it cannot race a return charging the same loan, and writes its fees
+ * and ledger entries through a {@link StatelessSession} as JDBC batches, one transaction per
+ * chunk. Loans still marked borrowed are picked up once the overdue sweep has flipped them.
+ */
+@Component
+public class FeeAssessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeAssessor.class);
+
+    private static final String OPEN_LOANS = """
+            SELECT br.id, br.user.id, br.book.id, br.dueDate FROM BorrowRecord br
+            WHERE br.id IN :ids AND br.status IN :statuses
+            ORDER BY br.id
+            """;
+
+    private final BorrowRepository borrowRepository;
+    private final FeePolicy feePolicy;
+    private final SessionFactory sessionFactory;
+    private final Clock clock;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final Timer runTimer;
+    private final Counter chargedCounter;
+    private final AtomicLong lastCharged = new AtomicLong();
+
+    @Autowired
+    public FeeAssessor(BorrowRepository borrowRepository, FeePolicy feePolicy,
+            EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+            @Value("${library.fees.chunk-size:1000}") int chunkSize,
+            @Value("${library.fees.parallelism:4}") int parallelism) {
+        this(borrowRepository, feePolicy, entityManagerFactory, meterRegistry,
+                Clock.systemDefaultZone(), chunkSize, parallelism);
+    }
+
+    FeeAssessor(BorrowRepository borrowRepository, FeePolicy feePolicy,
+            EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry, Clock clock,
+            int chunkSize, int parallelism) {
+        this.borrowRepository = borrowRepository;
+        this.feePolicy = feePolicy;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.runTimer = Timer.builder("library.fees.assessment")
+                .description("Run time of the late fee assessment").register(meterRegistry);
+        this.chargedCounter = Counter.builder("library.fees.charged")
+                .description("Late fee ledger entries written by the assessment")
+                .register(meterRegistry);
+        Gauge.builder("library.fees.last.charged", lastCharged, AtomicLong::get)
+                .description("Late fee ledger entries written by the latest assessment")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${library.fees.cron:0 0 2 * * *}")
+    public void scheduledAssessment() {
+        assess();
+    }
+
+    /**
+     * Assesses every overdue loan as of today and returns the number of ledger entries written.
+     */
+    public long assess() {
+        LocalDate today = LocalDate.now(clock);
+        long charged = runTimer.record(() -> assessAsOf(today));
+        lastCharged.set(charged);
+        chargedCounter.increment(charged);
+        logger.info("Fee assessment charged {} loans as of {}", charged, today);
+        return charged;
+    }
+
+    private long assessAsOf(LocalDate today) {
+        LocalDate before = feePolicy.chargeableBefore(today);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Deque<ForkJoinTask<Integer>> inFlight = new ArrayDeque<>();
+        long charged = 0;
+        try {
+            List<DueLoan> chunk = borrowRepository.findDueLoans(BorrowStatus.OVERDUE, before,
+                    Limit.of(chunkSize));
+            while (!chunk.isEmpty()) {
+                List<UUID> ids = chunk.stream().map(DueLoan::getId).toList();
+                inFlight.add(pool.submit(() -> assessChunk(ids, today)));
+                // bounds the loans read ahead of the ones being assessed
+                if (inFlight.size() > parallelism) {
+                    charged += inFlight.poll().join();
+                }
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                DueLoan last = chunk.get(chunk.size() - 1);
+                chunk = borrowRepository.findDueLoansAfter(BorrowStatus.OVERDUE, before,
+                        last.getDueDate(), last.getId(), Limit.of(chunkSize));
+            }
+            while (!inFlight.isEmpty()) {
+                charged += inFlight.poll().join();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return charged;
+    }
+
+    private int assessChunk(List<UUID> ids, LocalDate today) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(chunkSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                int charged = charge(session, ids, today);
+                transaction.commit();
+                return charged;
+            } catch (RuntimeException ex) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                logger.error("Failed to assess fees of {} loans from {}: {}", ids.size(),
+                        ids.get(0), ex.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    private int charge(StatelessSession session, List<UUID> ids, LocalDate today) {
+        // loans returned since the chunk was read are charged by the return itself
+        List<Object[]> loans = session.createSelectionQuery(OPEN_LOANS, Object[].class)
+                .setParameter("ids", ids).setParameter("statuses", BorrowStatus.ON_LOAN)
+                .setHibernateLockMode(LockMode.PESSIMISTIC_WRITE).getResultList();
+        Map<UUID, LoanFee> fees = session
+                .createSelectionQuery("FROM LoanFee f WHERE f.id IN :ids", LoanFee.class)
+                .setParameter("ids", ids).getResultList().stream()
+                .collect(Collectors.toMap(LoanFee::getId, Function.identity()));
+
+        List<LoanFee> created = new ArrayList<>();
+        List<LoanFee> updated = new ArrayList<>();
+        List<FeeLedgerEntry> entries = new ArrayList<>();
+        for (Object[] loan : loans) {
+            UUID loanId = (UUID) loan[0];
+            long fee = feePolicy.feeFor((LocalDate) loan[3], today);
+            LoanFee assessed = fees.get(loanId);
+            if (fee <= (assessed == null ? 0 : assessed.getAmountCents())) {
+                continue;
+            }
+            if (assessed == null) {
+                assessed = LoanFee.builder().id(loanId).userId((UUID) loan[1])
+                        .bookId((UUID) loan[2]).build();
+                created.add(assessed);
+            } else {
+                updated.add(assessed);
+            }
+            entries.add(FeeLedgerEntry.builder().loanId(loanId).userId(assessed.getUserId())
+                    .bookId(assessed.getBookId()).assessedOn(today)
+                    .amountCents(fee - assessed.getAmountCents()).build());
+            assessed.setAmountCents(fee);
+            assessed.setAssessedOn(today);
+        }
+
+        // grouped by statement, so each group goes out as one JDBC batch
+        created.forEach(session::insert);
+        updated.forEach(session::update);
+        entries.forEach(session::insert);
+        return entries.size();
+    }
+}
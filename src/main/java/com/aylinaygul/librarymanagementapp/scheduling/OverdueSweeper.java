@@ -0,0 +1,140 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository.DueLoan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Marks loans past their due date as {@link BorrowStatus#OVERDUE}, so overdue reports read a
+ * status range instead of comparing dates over every open loan.
+ *
+ * <p>
+ * Due loans are walked in (due date, id) order along the status index, one chunk per
+ * transaction, each flipped with a single conditional bulk UPDATE so a loan returned meanwhile is
+ * left alone. The books of swept loans get a new version and a change event, so cached copies and
+ * ETags of representations that embed borrow records are refreshed.
+ */
+@Component
+public class OverdueSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueSweeper.class);
+
+    private final BorrowRepository borrowRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int chunkSize;
+
+    private final Timer sweepTimer;
+    private final Counter markedCounter;
+    private final AtomicLong lastMarked = new AtomicLong();
+
+    @Autowired
+    public OverdueSweeper(BorrowRepository borrowRepository, BookRepository bookRepository,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${library.overdue.chunk-size:500}") int chunkSize) {
+        this(borrowRepository, bookRepository, eventPublisher, transactionTemplate, meterRegistry,
+                Clock.systemDefaultZone(), chunkSize);
+    }
+
+    OverdueSweeper(BorrowRepository borrowRepository, BookRepository bookRepository,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry, Clock clock, int chunkSize) {
+        this.borrowRepository = borrowRepository;
+        this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.sweepTimer = Timer.builder("library.overdue.sweep")
+                .description("Run time of the overdue sweep").register(meterRegistry);
+        this.markedCounter = Counter.builder("library.overdue.marked")
+                .description("Loans marked overdue").register(meterRegistry);
+        Gauge.builder("library.overdue.last.marked", lastMarked, AtomicLong::get)
+                .description("Loans marked overdue by the latest sweep").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${library.overdue.sweep-cron:0 5 * * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    /**
+     * Marks every borrowed loan due before today as overdue and returns how many were marked.
+     */
+    public long sweep() {
+        LocalDate today = LocalDate.now(clock);
+        long marked = sweepTimer.record(() -> sweepBefore(today));
+        lastMarked.set(marked);
+        markedCounter.increment(marked);
+        logger.info("Overdue sweep marked {} loans due before {}", marked, today);
+        return marked;
+    }
+
+    private long sweepBefore(LocalDate today) {
+        long marked = 0;
+        List<DueLoan> chunk = borrowRepository.findDueLoans(BorrowStatus.BORROWED, today,
+                Limit.of(chunkSize));
+        while (!chunk.isEmpty()) {
+            List<UUID> ids = chunk.stream().map(DueLoan::getId).toList();
+            Integer updated = transactionTemplate.execute(status -> markOverdue(ids));
+            marked += updated == null ? 0 : updated;
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            DueLoan last = chunk.get(chunk.size() - 1);
+            chunk = borrowRepository.findDueLoansAfter(BorrowStatus.BORROWED, today,
+                    last.getDueDate(), last.getId(), Limit.of(chunkSize));
+        }
+        return marked;
+    }
+
+    private int markOverdue(List<UUID> ids) {
+        int updated = borrowRepository.updateStatus(ids, BorrowStatus.BORROWED,
+                BorrowStatus.OVERDUE);
+        if (updated == 0) {
+            return 0;
+        }
+
+        // loans returned since the chunk was read kept their status and are not reported
+        borrowRepository.findResponsesByIdInAndStatus(ids, BorrowStatus.OVERDUE)
+                .forEach(loan -> eventPublisher.publishEvent(LoanEvent.overdue(loan)));
+        Set<UUID> bookIds = borrowRepository.findBookIdsByIdIn(ids);
+        bookRepository.touch(bookIds);
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            eventPublisher.publishEvent(BookChangedEvent.updated(BookSnapshot.of(book), book));
+        }
+        logger.debug("Marked {} of {} loans overdue across {} books", updated, ids.size(),
+                bookIds.size());
+        return updated;
+    }
+}
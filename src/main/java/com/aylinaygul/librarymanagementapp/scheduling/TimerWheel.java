@@ -0,0 +1,138 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel for deadlines that are set far more often than they need to be precise.
+ *
+ * <p>
+ * Time is cut into ticks and the wheel into a fixed number of buckets, one tick each. A deadline
+ * lands in the bucket of the tick it falls due in, with a count of the full turns still to go, so
+ * scheduling is constant time and each tick only looks at one bucket instead of every pending
+ * deadline. Deadlines fire on the first tick at or after them, up to one tick late and never
+ * early.
+ */
+public class TimerWheel<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    private record Timeout<T>(T item, Instant deadline, long rounds) {
+    }
+
+    private final String name;
+    private final Clock clock;
+    private final long tickMillis;
+    private final List<List<Timeout<T>>> buckets;
+    private final Consumer<T> onExpiry;
+    private ScheduledExecutorService ticker;
+
+    // guarded by this
+    private long tick;
+    private int pending;
+
+    public TimerWheel(String name, Clock clock, Duration tickDuration, int size,
+            Consumer<T> onExpiry) {
+        if (tickDuration.toMillis() < 1 || size < 1) {
+            throw new IllegalArgumentException("Timer wheel needs a positive tick and size");
+        }
+        this.name = name;
+        this.clock = clock;
+        this.tickMillis = tickDuration.toMillis();
+        this.onExpiry = onExpiry;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Starts advancing the wheel once per tick on a daemon thread.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("Timer wheel {} started with {} buckets of {} ms", name, buckets.size(),
+                tickMillis);
+    }
+
+    public synchronized void schedule(T item, Instant deadline) {
+        long delay = Math.max(0, Duration.between(clock.instant(), deadline).toMillis());
+        // round up, so the bucket is not reached before the deadline
+        long ticks = (delay + tickMillis - 1) / tickMillis;
+        long target = tick + ticks;
+        buckets.get((int) (target % buckets.size()))
+                .add(new Timeout<>(item, deadline, ticks / buckets.size()));
+        pending++;
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * Processes the current bucket and moves to the next one. Expired items are handed to the
+     * callback outside the lock, so it may schedule again.
+     */
+    void advance() {
+        List<Timeout<T>> due = new ArrayList<>();
+        synchronized (this) {
+            List<Timeout<T>> bucket = buckets.get((int) (tick % buckets.size()));
+            List<Timeout<T>> later = new ArrayList<>();
+            for (Iterator<Timeout<T>> it = bucket.iterator(); it.hasNext();) {
+                Timeout<T> timeout = it.next();
+                it.remove();
+                if (timeout.rounds() > 0) {
+                    later.add(new Timeout<>(timeout.item(), timeout.deadline(),
+                            timeout.rounds() - 1));
+                } else {
+                    due.add(timeout);
+                }
+            }
+            bucket.addAll(later);
+            pending -= due.size();
+            tick++;
+        }
+
+        Instant now = clock.instant();
+        for (Timeout<T> timeout : due) {
+            if (timeout.deadline().isAfter(now)) {
+                // the ticker ran ahead of the wall clock; wait for the deadline
+                schedule(timeout.item(), timeout.deadline());
+                continue;
+            }
+            try {
+                onExpiry.accept(timeout.item());
+            } catch (RuntimeException ex) {
+                logger.error("Timer wheel {} failed to expire {}: {}", name, timeout.item(),
+                        ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+}
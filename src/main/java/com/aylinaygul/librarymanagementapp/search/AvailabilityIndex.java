@@ -0,0 +1,79 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+/**
+ * Per-title copy counts, so availability can be read without the database.
+ *
+ * <p>
+ * Each change event is applied as the difference between its before and after counts, added to
+ * striped {@link LongAdder}s. Additions commute, so events from concurrent borrows and returns
+ * land correctly in whatever order their transactions' after-commit callbacks run, and a hot
+ * title does not serialize its updaters on one memory word.
+ */
+@Component
+public class AvailabilityIndex implements CatalogIndex {
+
+    private final Map<UUID, Copies> copies = new ConcurrentHashMap<>();
+
+    @Override
+    public void clear() {
+        copies.clear();
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        BookSnapshot before = event.before();
+        BookSnapshot after = event.after();
+        if (after == null) {
+            copies.remove(event.bookId());
+            return;
+        }
+
+        long availableDelta =
+                after.availableCopies() - (before == null ? 0 : before.availableCopies());
+        long totalDelta = after.totalCopies() - (before == null ? 0 : before.totalCopies());
+        if (before == null) {
+            copies.computeIfAbsent(event.bookId(), id -> new Copies())
+                    .add(availableDelta, totalDelta);
+        } else if (availableDelta != 0 || totalDelta != 0) {
+            // a late event for a deleted book must not bring it back
+            Copies counts = copies.get(event.bookId());
+            if (counts != null) {
+                counts.add(availableDelta, totalDelta);
+            }
+        }
+    }
+
+    /**
+     * Returns the copy counts of the book, or null if it is not in the catalog.
+     */
+    public BookAvailabilityResponse get(UUID bookId) {
+        Copies counts = copies.get(bookId);
+        if (counts == null) {
+            return null;
+        }
+        long available = counts.available.sum();
+        return new BookAvailabilityResponse(bookId, available > 0, available, counts.total.sum());
+    }
+
+    private static final class Copies {
+
+        private final LongAdder available = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        private void add(long availableDelta, long totalDelta) {
+            available.add(availableDelta);
+            total.add(totalDelta);
+        }
+    }
+}
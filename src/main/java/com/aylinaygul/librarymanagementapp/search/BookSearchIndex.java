@@ -0,0 +1,309 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.dto.UuidOrder;
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookCursor;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+/**
+ * Trigram index over book title, author, ISBN and genre answering case-insensitive
+ * "contains" queries without touching the database.
+ *
+ * <p>
+ * Every indexed document gets an int ordinal. Posting lists only ever grow at the tail, so they
+ * stay sorted and can be intersected with a linear merge. Updates and deletes tombstone the old
+ * ordinal; tombstones are reclaimed by compacting once they outnumber the live documents.
+ */
+@Component
+public class BookSearchIndex implements CatalogIndex {
+
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int ISBN = 2;
+    private static final int GENRE = 3;
+    private static final int FIELD_COUNT = 4;
+    // the title as sorted by cursor walks; not searched, so it has no postings
+    private static final int SORT_TITLE = FIELD_COUNT;
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1024;
+
+    public record Query(String title, String author, String isbn, String genre) {
+    }
+
+    public record Result(List<UUID> ids, long total) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+    private final List<String[]> documents = new ArrayList<>();
+    private final BitSet live = new BitSet();
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            ids.clear();
+            documents.clear();
+            live.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        String[] document = event.after() == null ? null : toDocument(event.after());
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(event.bookId());
+            if (existing != null && document != null
+                    && Arrays.equals(documents.get(existing), document)) {
+                // availability flips and other changes to non-indexed columns
+                return;
+            }
+            if (existing != null) {
+                tombstone(event.bookId(), existing);
+            }
+            if (document != null) {
+                append(event.bookId(), document);
+            }
+            if (ids.size() - ordinals.size() > Math.max(MIN_TOMBSTONES_FOR_COMPACTION,
+                    ordinals.size())) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of ids matching every non-empty field of the query, in index order, along
+     * with the total number of matches. Empty or null fields do not restrict the result.
+     */
+    public Result search(Query query, long offset, int limit) {
+        String[] terms = terms(query);
+
+        lock.readLock().lock();
+        try {
+            List<UUID> page = new ArrayList<>(Math.min(limit, 64));
+            long[] total = {0};
+            forEachMatch(terms, ordinal -> {
+                if (total[0] >= offset && page.size() < limit) {
+                    page.add(ids.get(ordinal));
+                }
+                total[0]++;
+            });
+            return new Result(page, total[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids matching the query that sort strictly after the given
+     * (title, id) position, in {@link BookCursor} order. Only a bounded heap of
+     * {@code limit} entries is kept, so neither skipped rows nor a total count are materialized.
+     */
+    public List<UUID> searchAfter(Query query, String afterTitle, UUID afterId, int limit) {
+        String[] terms = terms(query);
+        String cursorTitle = afterTitle == null ? null : BookCursor.titleKey(afterTitle);
+
+        lock.readLock().lock();
+        try {
+            Comparator<Integer> order = Comparator
+                    .<Integer, String>comparing(ordinal -> documents.get(ordinal)[SORT_TITLE])
+                    .thenComparing(ids::get, UuidOrder.UNSIGNED);
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order.reversed());
+
+            forEachMatch(terms, ordinal -> {
+                if (cursorTitle != null && isAtOrBefore(ordinal, cursorTitle, afterId)) {
+                    return;
+                }
+                heap.add(ordinal);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            });
+
+            UUID[] page = new UUID[heap.size()];
+            for (int i = page.length - 1; i >= 0; i--) {
+                page[i] = ids.get(heap.poll());
+            }
+            return Arrays.asList(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void forEachMatch(String[] terms, IntConsumer consumer) {
+        IntList candidates = candidates(terms);
+        if (candidates == null) {
+            for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal =
+                    live.nextSetBit(ordinal + 1)) {
+                if (matches(ordinal, terms)) {
+                    consumer.accept(ordinal);
+                }
+            }
+        } else {
+            for (int i = 0; i < candidates.size(); i++) {
+                int ordinal = candidates.get(i);
+                if (live.get(ordinal) && matches(ordinal, terms)) {
+                    consumer.accept(ordinal);
+                }
+            }
+        }
+    }
+
+    private boolean isAtOrBefore(int ordinal, String title, UUID id) {
+        int cmp = documents.get(ordinal)[SORT_TITLE].compareTo(title);
+        return cmp < 0 || (cmp == 0 && UuidOrder.UNSIGNED.compare(ids.get(ordinal), id) <= 0);
+    }
+
+    /**
+     * Intersects the posting lists of every trigram in every term that is long enough to have
+     * one. Returns null when no term narrows the search, meaning all live documents qualify.
+     */
+    private IntList candidates(String[] terms) {
+        List<IntList> lists = new ArrayList<>();
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            String term = terms[field];
+            if (term == null || term.length() < GRAM_LENGTH) {
+                continue;
+            }
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                IntList list = postings.get(gramKey(field, term, i));
+                if (list == null) {
+                    return new IntList(1);
+                }
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size() > 0; i++) {
+            result = IntList.intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Trigram hits can come from different positions, so each candidate is confirmed against the
+     * stored normalized text.
+     */
+    private boolean matches(int ordinal, String[] terms) {
+        String[] document = documents.get(ordinal);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (terms[field] != null && !document[field].contains(terms[field])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(UUID id, String[] document) {
+        int ordinal = ids.size();
+        ids.add(id);
+        documents.add(document);
+        ordinals.put(id, ordinal);
+        live.set(ordinal);
+
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            String value = document[field];
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                IntList list = postings.computeIfAbsent(gramKey(field, value, i), k -> new IntList());
+                if (list.size() == 0 || list.last() != ordinal) {
+                    list.add(ordinal);
+                }
+            }
+        }
+    }
+
+    private void tombstone(UUID id, int ordinal) {
+        ordinals.remove(id);
+        documents.set(ordinal, null);
+        live.clear(ordinal);
+    }
+
+    private void compact() {
+        List<UUID> liveIds = new ArrayList<>(ordinals.size());
+        List<String[]> liveDocuments = new ArrayList<>(ordinals.size());
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal =
+                live.nextSetBit(ordinal + 1)) {
+            liveIds.add(ids.get(ordinal));
+            liveDocuments.add(documents.get(ordinal));
+        }
+
+        postings.clear();
+        ordinals.clear();
+        ids.clear();
+        documents.clear();
+        live.clear();
+        for (int i = 0; i < liveIds.size(); i++) {
+            append(liveIds.get(i), liveDocuments.get(i));
+        }
+    }
+
+    private static String[] terms(Query query) {
+        return new String[] {normalize(query.title()), normalize(query.author()),
+                normalize(query.isbn()), normalize(query.genre())};
+    }
+
+    private static String[] toDocument(BookSnapshot book) {
+        String[] document = new String[FIELD_COUNT + 1];
+        document[TITLE] = normalizeValue(book.title());
+        document[AUTHOR] = normalizeValue(book.author());
+        document[ISBN] = normalizeValue(book.isbn());
+        document[GENRE] = normalizeValue(book.genre());
+        document[SORT_TITLE] = BookCursor.titleKey(book.title());
+        return document;
+    }
+
+    private static String normalizeValue(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String term) {
+        return term == null || term.isEmpty() ? null : term.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gramKey(int field, String value, int start) {
+        return ((long) field << 48) | ((long) value.charAt(start) << 32)
+                | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+}
@@ -0,0 +1,14 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+
+/**
+ * In-memory structure derived from the book catalog. Implementations are filled by
+ * {@link CatalogIndexLoader} at startup and kept in sync from committed {@link BookChangedEvent}s.
+ */
+public interface CatalogIndex {
+
+    void clear();
+
+    void apply(BookChangedEvent event);
+}
@@ -0,0 +1,58 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexLoader.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final List<CatalogIndex> indexes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        logger.info("Rebuilding {} catalog indexes", indexes.size());
+        indexes.forEach(CatalogIndex::clear);
+
+        long count = 0;
+        UUID lastId = new UUID(0L, 0L);
+        List<Book> batch;
+        do {
+            batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(BATCH_SIZE));
+            for (Book book : batch) {
+                BookChangedEvent event = BookChangedEvent.created(book);
+                indexes.forEach(index -> index.apply(event));
+                lastId = book.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        logger.info("Catalog indexes rebuilt from {} books", count);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        logger.debug("Applying catalog change for book {}", event.bookId());
+        indexes.forEach(index -> index.apply(event));
+    }
+}
@@ -0,0 +1,39 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+
+/**
+ * Counter bumped by every committed catalog change, used as the entity tag of whole-catalog
+ * responses. The counter restarts with the application, so it is paired with a random epoch
+ * chosen at startup to keep tags handed out before a restart from matching again.
+ *
+ * <p>
+ * Changes are counted after commit, so a tag must be read <em>before</em> the data it describes:
+ * a response may then carry an older tag than its content, costing the client one extra download,
+ * but never a newer one that would hide a change from it.
+ */
+@Component
+public class CatalogVersion implements CatalogIndex {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong changes = new AtomicLong();
+
+    @Override
+    public void clear() {
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+}
@@ -0,0 +1,119 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+/**
+ * Catalog-wide genre, author and availability counts, adjusted by each change event instead of
+ * being recomputed with GROUP BY. Reading them costs a pass over the distinct facet values.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Long> genres = new HashMap<>();
+    private final Map<String, Long> authors = new HashMap<>();
+    private long available;
+    private long unavailable;
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            genres.clear();
+            authors.clear();
+            available = 0;
+            unavailable = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        if (Objects.equals(event.before(), event.after())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                count(event.before(), -1);
+            }
+            if (event.after() != null) {
+                count(event.after(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the availability counts and the {@code limit} most common genres and authors, most
+     * common first.
+     */
+    public FacetsResponse facets(int limit) {
+        lock.readLock().lock();
+        try {
+            return new FacetsResponse(top(genres, limit), top(authors, limit), available,
+                    unavailable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void count(BookSnapshot book, long delta) {
+        adjust(genres, book.genre(), delta);
+        adjust(authors, book.author(), delta);
+        if (book.available()) {
+            available += delta;
+        } else {
+            unavailable += delta;
+        }
+    }
+
+    private static void adjust(Map<String, Long> counts, String value, long delta) {
+        if (value != null) {
+            counts.compute(value, (key, count) -> {
+                long updated = (count == null ? 0 : count) + delta;
+                return updated > 0 ? updated : null;
+            });
+        }
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, int limit) {
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(limit + 1,
+                Map.Entry.<String, Long>comparingByValue()
+                        .thenComparing(Map.Entry.<String, Long>comparingByKey().reversed()));
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        Deque<Map.Entry<String, Long>> ordered = new ArrayDeque<>(heap.size());
+        while (!heap.isEmpty()) {
+            ordered.addFirst(heap.poll());
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : ordered) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,242 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+/**
+ * Typo-tolerant word search over titles and authors.
+ *
+ * <p>
+ * Every distinct word is indexed by its padded trigrams. A query word only looks at vocabulary
+ * words sharing enough trigrams to possibly lie within its edit budget, and only those are
+ * checked with a bounded Levenshtein distance. Books score the sum of {@code 1 / (1 + distance)}
+ * over the query words they contain a near-match for.
+ */
+@Component
+public class FuzzyIndex implements CatalogIndex {
+
+    private static final char PAD = '$';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<UUID>> booksByWord = new HashMap<>();
+    private final Map<Long, Set<String>> wordsByGram = new HashMap<>();
+    private final Map<UUID, String[]> wordsByBook = new HashMap<>();
+    private final Map<UUID, String> titles = new HashMap<>();
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            booksByWord.clear();
+            wordsByGram.clear();
+            wordsByBook.clear();
+            titles.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        if (event.before() != null && event.after() != null
+                && Objects.equals(event.before().title(), event.after().title())
+                && Objects.equals(event.before().author(), event.after().author())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            UUID bookId = event.bookId();
+            String[] previous = wordsByBook.remove(bookId);
+            titles.remove(bookId);
+            if (previous != null) {
+                for (String word : previous) {
+                    removePosting(word, bookId);
+                }
+            }
+            if (event.after() != null) {
+                String[] words = words(event.after());
+                wordsByBook.put(bookId, words);
+                titles.put(bookId, TextNormalizer.normalize(event.after().title()));
+                for (String word : words) {
+                    addPosting(word, bookId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of books near-matching any word of {@code text}, best first, along with the
+     * total number of matching books.
+     */
+    public BookSearchIndex.Result search(String text, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(List.of(TextNormalizer.words(text)));
+        if (terms.isEmpty()) {
+            return new BookSearchIndex.Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<UUID, Double> best = new HashMap<>();
+                for (Map.Entry<String, Integer> match : nearWords(term).entrySet()) {
+                    double score = 1.0 / (1 + match.getValue());
+                    for (UUID bookId : booksByWord.get(match.getKey())) {
+                        best.merge(bookId, score, Math::max);
+                    }
+                }
+                best.forEach((bookId, score) -> scores.merge(bookId, score, Double::sum));
+            }
+
+            List<Map.Entry<UUID, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(entry -> titles.get(entry.getKey()))
+                    .thenComparing(Map.Entry::getKey));
+
+            List<UUID> page = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (long i = offset; i < ranked.size() && page.size() < limit; i++) {
+                page.add(ranked.get((int) i).getKey());
+            }
+            return new BookSearchIndex.Result(page, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Short words must match exactly; longer ones may be one or two edits away.
+     */
+    static int maxDistance(String term) {
+        return term.length() <= 3 ? 0 : term.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Returns the indexed words within the edit budget of {@code term}, with their distances.
+     */
+    private Map<String, Integer> nearWords(String term) {
+        int budget = maxDistance(term);
+        if (budget == 0) {
+            return booksByWord.containsKey(term) ? Map.of(term, 0) : Map.of();
+        }
+
+        // each edit destroys at most three of the term's padded trigrams
+        long[] grams = grams(term);
+        int required = grams.length - 3 * budget;
+        Map<String, Integer> shared = new HashMap<>();
+        for (long gram : grams) {
+            Set<String> words = wordsByGram.get(gram);
+            if (words != null) {
+                for (String word : words) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<String, Integer> matches = new HashMap<>();
+        shared.forEach((word, count) -> {
+            if (count >= required && Math.abs(word.length() - term.length()) <= budget) {
+                int distance = distance(term, word, budget);
+                if (distance <= budget) {
+                    matches.put(word, distance);
+                }
+            }
+        });
+        return matches;
+    }
+
+    private void addPosting(String word, UUID bookId) {
+        Set<UUID> books = booksByWord.get(word);
+        if (books == null) {
+            books = new HashSet<>();
+            booksByWord.put(word, books);
+            for (long gram : grams(word)) {
+                wordsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(word);
+            }
+        }
+        books.add(bookId);
+    }
+
+    private void removePosting(String word, UUID bookId) {
+        Set<UUID> books = booksByWord.get(word);
+        books.remove(bookId);
+        if (books.isEmpty()) {
+            booksByWord.remove(word);
+            for (long gram : grams(word)) {
+                Set<String> words = wordsByGram.get(gram);
+                words.remove(word);
+                if (words.isEmpty()) {
+                    wordsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String[] words(BookSnapshot book) {
+        Set<String> words = new LinkedHashSet<>(List.of(TextNormalizer.words(book.title())));
+        words.addAll(List.of(TextNormalizer.words(book.author())));
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Distinct trigrams of the word padded with two markers on each side, so a word of length n
+     * has up to n + 2 of them, including the ones anchoring its first and last letters.
+     */
+    private static long[] grams(String word) {
+        String padded = "" + PAD + PAD + word + PAD + PAD;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16)
+                    | padded.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or {@code budget + 1} as soon as it is
+     * known to exceed the budget.
+     */
+    static int distance(String a, String b, int budget) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > budget) {
+                return budget + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], budget + 1);
+    }
+}
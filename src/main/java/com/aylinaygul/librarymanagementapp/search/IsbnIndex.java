@@ -0,0 +1,238 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.dto.UuidOrder;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+
+/**
+ * Exact ISBN to book id lookup held in an open-addressing hash table of primitive longs.
+ *
+ * <p>
+ * An ISBN is packed into a single long as {@code digits * 100 + length}, which keeps "0123456789"
+ * and "0000123456789" apart and never produces the empty-slot marker 0. Book ids are stored as
+ * their two halves in parallel arrays, so neither keys nor values are boxed. Collisions use linear
+ * probing and deletes use backward shifting, so there are no tombstones.
+ *
+ * <p>
+ * Each book with an ISBN has an entry of its own. Books sharing an ISBN therefore sit in the same
+ * probe chain under equal keys, and deleting one of them leaves the others findable.
+ */
+@Component
+public class IsbnIndex implements CatalogIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EMPTY = 0L;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] keys;
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    private int size;
+
+    public IsbnIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            allocate(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        String before = event.before() == null ? null : event.before().isbn();
+        String after = event.after() == null ? null : event.after().isbn();
+        if (event.before() != null && event.after() != null && Objects.equals(before, after)
+                && contains(encode(after), event.bookId())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            long oldKey = encode(before);
+            if (oldKey != EMPTY) {
+                remove(oldKey, event.bookId());
+            }
+            long newKey = encode(after);
+            if (newKey != EMPTY) {
+                put(newKey, event.bookId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the id of a book with exactly this ISBN, or null if there is none or the value is not
+     * a 10 or 13 digit ISBN. Of several books sharing the ISBN, the smallest id in
+     * {@link UuidOrder database order} is returned, whatever order they were indexed in.
+     */
+    public UUID get(String isbn) {
+        long key = encode(isbn);
+        if (key == EMPTY) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            UUID smallest = null;
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    UUID id = new UUID(mostSignificantBits[slot], leastSignificantBits[slot]);
+                    if (smallest == null || UuidOrder.UNSIGNED.compare(id, smallest) < 0) {
+                        smallest = id;
+                    }
+                }
+            }
+            return smallest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of books indexed by ISBN.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Packs a 10 or 13 digit ISBN into a non-zero long, or returns {@link #EMPTY} for anything
+     * else.
+     */
+    static long encode(String isbn) {
+        if (isbn == null || (isbn.length() != 10 && isbn.length() != 13)) {
+            return EMPTY;
+        }
+        long digits = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        return digits * 100 + isbn.length();
+    }
+
+    private boolean contains(long key, UUID id) {
+        if (key == EMPTY) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return find(key, id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the slot holding this book under this key, or -1.
+     */
+    private int find(long key, UUID id) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && mostSignificantBits[slot] == id.getMostSignificantBits()
+                    && leastSignificantBits[slot] == id.getLeastSignificantBits()) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void put(long key, UUID id) {
+        if (find(key, id) >= 0) {
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        mostSignificantBits[slot] = id.getMostSignificantBits();
+        leastSignificantBits[slot] = id.getLeastSignificantBits();
+        size++;
+    }
+
+    /**
+     * Removes this book's entry, leaving other books with the same ISBN in place.
+     */
+    private void remove(long key, UUID id) {
+        int slot = find(key, id);
+        if (slot < 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+
+        // shift later entries of the probe chain back so lookups never stop early
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                mostSignificantBits[gap] = mostSignificantBits[next];
+                leastSignificantBits[gap] = leastSignificantBits[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldMost = mostSignificantBits;
+        long[] oldLeast = leastSignificantBits;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                mostSignificantBits[slot] = oldMost[i];
+                leastSignificantBits[slot] = oldLeast[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mostSignificantBits = new long[capacity];
+        leastSignificantBits = new long[capacity];
+        size = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,207 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+/**
+ * Free-text relevance ranking over title, author and genre using BM25F: each field's term
+ * frequency is saturated against that field's average length and weighted by a per-field boost,
+ * so a hit in the title outranks the same word in the genre.
+ *
+ * <p>
+ * Only a heap of the best {@code offset + limit} matches is kept while scoring, so the candidate
+ * set is never sorted as a whole.
+ */
+@Component
+public class RelevanceIndex implements CatalogIndex {
+
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int GENRE = 2;
+    private static final int FIELD_COUNT = 3;
+
+    private static final double[] BOOSTS = {3.0, 2.0, 1.0};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private record Hit(UUID id, double score) {
+    }
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .reversed().thenComparing(Hit::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Map<UUID, int[]>> postings = new HashMap<>();
+    private final Map<UUID, int[]> fieldLengths = new HashMap<>();
+    private final Map<UUID, String[]> termsByBook = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELD_COUNT];
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            fieldLengths.clear();
+            termsByBook.clear();
+            Arrays.fill(totalFieldLengths, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        if (event.before() != null && event.after() != null
+                && Objects.equals(event.before().title(), event.after().title())
+                && Objects.equals(event.before().author(), event.after().author())
+                && Objects.equals(event.before().genre(), event.after().genre())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(event.bookId());
+            if (event.after() != null) {
+                add(event.bookId(), event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of books containing any word of {@code text}, highest BM25F score first,
+     * along with the total number of matching books.
+     */
+    public BookSearchIndex.Result search(String text, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(List.of(TextNormalizer.words(text)));
+        if (terms.isEmpty() || limit < 1) {
+            return new BookSearchIndex.Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documents = fieldLengths.size();
+            double[] averageLengths = new double[FIELD_COUNT];
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                averageLengths[field] = documents == 0 ? 0
+                        : Math.max(1.0, (double) totalFieldLengths[field] / documents);
+            }
+
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<UUID, int[]> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(
+                        1 + (documents - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((bookId, frequencies) -> scores.merge(bookId,
+                        idf * weight(frequencies, fieldLengths.get(bookId), averageLengths),
+                        Double::sum));
+            }
+
+            return new BookSearchIndex.Result(top(scores, offset, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saturated, length-normalized and boosted term frequency summed over the fields.
+     */
+    private static double weight(int[] frequencies, int[] lengths, double[] averageLengths) {
+        double weight = 0;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            int frequency = frequencies[field];
+            if (frequency > 0) {
+                double norm = 1 - B + B * lengths[field] / averageLengths[field];
+                weight += BOOSTS[field] * frequency * (K1 + 1) / (frequency + K1 * norm);
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Picks ranks {@code offset} to {@code offset + limit} with a min-heap capped at
+     * {@code offset + limit} entries, then orders only those.
+     */
+    private static List<UUID> top(Map<UUID, Double> scores, long offset, int limit) {
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        int capacity = (int) Math.min(scores.size(), offset + limit);
+        PriorityQueue<Hit> heap = new PriorityQueue<>(capacity + 1, RANKING.reversed());
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(id, score);
+            if (heap.size() < capacity) {
+                heap.add(hit);
+            } else if (RANKING.compare(hit, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        });
+
+        UUID[] ranked = new UUID[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll().id();
+        }
+        return new ArrayList<>(Arrays.asList(ranked).subList((int) offset, ranked.length));
+    }
+
+    private void add(UUID bookId, BookSnapshot book) {
+        String[][] fields = new String[FIELD_COUNT][];
+        fields[TITLE] = TextNormalizer.words(book.title());
+        fields[AUTHOR] = TextNormalizer.words(book.author());
+        fields[GENRE] = TextNormalizer.words(book.genre());
+
+        int[] lengths = new int[FIELD_COUNT];
+        Set<String> terms = new LinkedHashSet<>();
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            lengths[field] = fields[field].length;
+            totalFieldLengths[field] += lengths[field];
+            for (String term : fields[field]) {
+                terms.add(term);
+                postings.computeIfAbsent(term, key -> new HashMap<>())
+                        .computeIfAbsent(bookId, key -> new int[FIELD_COUNT])[field]++;
+            }
+        }
+        fieldLengths.put(bookId, lengths);
+        termsByBook.put(bookId, terms.toArray(new String[0]));
+    }
+
+    private void remove(UUID bookId) {
+        String[] terms = termsByBook.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        int[] lengths = fieldLengths.remove(bookId);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            totalFieldLengths[field] -= lengths[field];
+        }
+        for (String term : terms) {
+            Map<UUID, int[]> matches = postings.get(term);
+            matches.remove(bookId);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookBorrowedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+
+/**
+ * Prefix completion over normalized titles and authors, ranked by how often the books behind each
+ * suggestion have been borrowed.
+ *
+ * <p>
+ * Suggestions live in a radix tree whose nodes each cache the best {@link #MAX_SUGGESTIONS}
+ * entries of their subtree, so a lookup is a walk down the prefix and a copy of that list. A
+ * change to an entry recomputes the cached lists only along the path to its key, bottom-up from
+ * the children's lists.
+ */
+@Component
+public class SuggestIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> -entry.borrows)
+            .thenComparingInt(entry -> entry.key.length())
+            .thenComparing(entry -> entry.key)
+            .thenComparing(entry -> entry.type);
+
+    private final BorrowRepository borrowRepository;
+    private final ArchivedBorrowRepository archivedBorrowRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node("");
+    private final Map<String, Entry> titles = new HashMap<>();
+    private final Map<String, Entry> authors = new HashMap<>();
+    private final Map<UUID, Entry[]> entriesByBook = new HashMap<>();
+    private final Map<UUID, Long> borrowsByBook = new HashMap<>();
+
+    public SuggestIndex(BorrowRepository borrowRepository,
+            ArchivedBorrowRepository archivedBorrowRepository) {
+        this.borrowRepository = borrowRepository;
+        this.archivedBorrowRepository = archivedBorrowRepository;
+    }
+
+    /**
+     * Empties the tree and reloads borrow counts, which change events do not carry, so that the
+     * books applied afterwards are weighted correctly.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node("");
+            titles.clear();
+            authors.clear();
+            entriesByBook.clear();
+            borrowsByBook.clear();
+            borrowRepository.countBorrowsByBook()
+                    .forEach(count -> borrowsByBook.put(count.bookId(), count.borrows()));
+            archivedBorrowRepository.countBorrowsByBook().forEach(
+                    count -> borrowsByBook.merge(count.bookId(), count.borrows(), Long::sum));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(BookChangedEvent event) {
+        if (event.before() != null && event.after() != null
+                && Objects.equals(event.before().title(), event.after().title())
+                && Objects.equals(event.before().author(), event.after().author())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            UUID bookId = event.bookId();
+            Entry[] previous = entriesByBook.remove(bookId);
+            if (previous != null) {
+                long borrows = borrowsByBook.getOrDefault(bookId, 0L);
+                for (Entry entry : previous) {
+                    detach(entry, borrows);
+                }
+            }
+            if (event.after() != null) {
+                attach(bookId, event.after());
+            } else {
+                borrowsByBook.remove(bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        logger.debug("Counting borrow of book {} towards suggestions", event.bookId());
+        lock.writeLock().lock();
+        try {
+            borrowsByBook.merge(event.bookId(), 1L, Long::sum);
+            Entry[] entries = entriesByBook.get(event.bookId());
+            if (entries != null) {
+                for (Entry entry : entries) {
+                    entry.borrows++;
+                    recompute(path(entry.key));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} titles and authors starting with {@code prefix}, ignoring case,
+     * accents and punctuation, most borrowed first.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int offset = 0;
+            while (offset < key.length()) {
+                Node child = child(node, key.charAt(offset));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefix(child.label, key, offset);
+                if (offset + common == key.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                offset += common;
+            }
+
+            Entry[] top = node.top;
+            List<SuggestionResponse> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                suggestions.add(new SuggestionResponse(top[i].text, top[i].type, top[i].borrows));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void attach(UUID bookId, BookSnapshot book) {
+        long borrows = borrowsByBook.getOrDefault(bookId, 0L);
+        List<Entry> entries = new ArrayList<>(2);
+        addEntry(titles, SuggestionResponse.Type.TITLE, book.title(), borrows, entries);
+        addEntry(authors, SuggestionResponse.Type.AUTHOR, book.author(), borrows, entries);
+        if (!entries.isEmpty()) {
+            entriesByBook.put(bookId, entries.toArray(NO_ENTRIES));
+        }
+    }
+
+    private void addEntry(Map<String, Entry> entries, SuggestionResponse.Type type, String text,
+            long borrows, List<Entry> added) {
+        String key = TextNormalizer.normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(type, text.strip(), key);
+            entries.put(key, entry);
+            entry.books = 1;
+            entry.borrows = borrows;
+            List<Node> path = insertPath(key);
+            path.get(path.size() - 1).entries.add(entry);
+            recompute(path);
+        } else {
+            entry.books++;
+            entry.borrows += borrows;
+            recompute(path(key));
+        }
+        added.add(entry);
+    }
+
+    private void detach(Entry entry, long borrows) {
+        entry.books--;
+        entry.borrows -= borrows;
+        List<Node> path = path(entry.key);
+        if (entry.books > 0) {
+            recompute(path);
+            return;
+        }
+
+        (entry.type == SuggestionResponse.Type.TITLE ? titles : authors).remove(entry.key);
+        path.get(path.size() - 1).entries.remove(entry);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.entries.isEmpty() && node.children.isEmpty()) {
+                path.get(i - 1).children.remove(node);
+            } else if (node.entries.isEmpty() && node.children.size() == 1) {
+                Node only = node.children.get(0);
+                node.label = node.label + only.label;
+                node.entries = only.entries;
+                node.children = only.children;
+            }
+        }
+        recompute(path);
+    }
+
+    /**
+     * Returns the nodes from the root down to the one ending at {@code key}, creating or splitting
+     * nodes as needed.
+     */
+    private List<Node> insertPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = child(node, key.charAt(offset));
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.children.add(child);
+                path.add(child);
+                return path;
+            }
+            int common = commonPrefix(child.label, key, offset);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.add(child);
+                node.children.set(node.children.indexOf(child), split);
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            offset += common;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the nodes from the root down to the one ending at {@code key}, which must exist.
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int offset = 0;
+        while (offset < key.length()) {
+            node = child(node, key.charAt(offset));
+            path.add(node);
+            offset += node.label.length();
+        }
+        return path;
+    }
+
+    private static void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>(node.entries);
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            node.top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size()))
+                    .toArray(NO_ENTRIES);
+        }
+    }
+
+    private static Node child(Node node, char first) {
+        for (Node child : node.children) {
+            if (child.label.charAt(0) == first) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private String label;
+        private List<Node> children = new ArrayList<>(2);
+        private List<Entry> entries = new ArrayList<>(1);
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+
+        private final SuggestionResponse.Type type;
+        private final String text;
+        private final String key;
+        private int books;
+        private long borrows;
+
+        private Entry(SuggestionResponse.Type type, String text, String key) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+        }
+    }
+}
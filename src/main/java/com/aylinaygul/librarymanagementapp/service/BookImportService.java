@@ -0,0 +1,11 @@
+package com.aylinaygul.librarymanagementapp.service;
+
+import java.io.InputStream;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookImportFormat;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookImportResponse;
+
+public interface BookImportService {
+
+    BookImportResponse importBooks(InputStream input, BookImportFormat format);
+}
@@ -2,23 +2,59 @@ package com.aylinaygul.librarymanagementapp.service;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 
 import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
 
 public interface BookService {
 
-    List<BookResponse> getAllBooks();
+    List<BookResponse> getAllBooks(boolean includeRecords);
 
-    BookResponse getBookById(UUID id);
+    void streamAllBooks(Consumer<BookResponse> consumer);
+
+    CursorPageResponse<BookResponse> getBooksAfter(String after, int limit);
+
+    BookResponse getBookById(UUID id, boolean includeRecords);
+
+    Long getBookVersion(UUID id);
+
+    String getCatalogVersion();
+
+    BookAvailabilityResponse getAvailability(UUID id);
+
+    BookResponse getBookByIsbn(String isbn);
 
     List<BookResponse> getOverdueBooks();
 
+    CursorPageResponse<BookResponse> getOverdueBooksAfter(String after, int limit);
+
+    void streamOverdueBooks(Consumer<BookResponse> consumer);
+
+    FacetsResponse getFacets(int limit);
+
+    List<SuggestionResponse> suggest(String query, int limit);
+
+    List<PopularBookResponse> getPopularBooks(PopularityWindow window, int limit);
+
+    Page<BookResponse> fuzzySearchBooks(String query, int page, int size);
+
+    Page<BookResponse> rankedSearchBooks(String query, int page, int size);
+
     Page<BookResponse> searchBooks(String title, String author, String isbn, String genre, int page,
             int size);
 
+    CursorPageResponse<BookResponse> searchBooksAfter(String title, String author, String isbn,
+            String genre, String after, int limit);
+
     BookResponse createBook(BookRequest bookRequest);
 
     BookResponse updateBook(UUID id, BookRequest bookRequest);
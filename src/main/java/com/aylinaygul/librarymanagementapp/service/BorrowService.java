@@ -2,8 +2,12 @@ package com.aylinaygul.librarymanagementapp.service;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import com.aylinaygul.librarymanagementapp.model.dto.request.HistoryFilter;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
 
 public interface BorrowService {
 
@@ -11,9 +15,21 @@ public interface BorrowService {
 
     void returnBook(UUID userId, UUID bookId);
 
+    BatchBorrowResponse borrowBooks(UUID userId, List<UUID> bookIds);
+
+    BatchBorrowResponse returnBooks(UUID userId, List<UUID> bookIds);
+
     List<BorrowResponse> getUserBorrowingHistory(UUID userId);
 
-    List<BorrowResponse> getAllBorrowHistory();
+    CursorPageResponse<BorrowResponse> getUserBorrowingHistory(UUID userId, HistoryFilter filter,
+            String after, int limit);
+
+    CursorPageResponse<BorrowResponse> getAllBorrowHistory(HistoryFilter filter, String after,
+            int limit);
 
     List<BorrowResponse> getOverdueBooks();
+
+    CursorPageResponse<BorrowResponse> getOverdueBooksAfter(String after, int limit);
+
+    void streamOverdueBooks(Consumer<BorrowResponse> consumer);
 }
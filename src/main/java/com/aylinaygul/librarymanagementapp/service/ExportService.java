@@ -0,0 +1,13 @@
+package com.aylinaygul.librarymanagementapp.service;
+
+import java.util.function.Consumer;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+
+public interface ExportService {
+
+    void exportBooks(Consumer<BookResponse> consumer);
+
+    void exportBorrowRecords(Consumer<BorrowResponse> consumer);
+}
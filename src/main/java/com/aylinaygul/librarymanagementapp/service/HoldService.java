@@ -0,0 +1,37 @@
+package com.aylinaygul.librarymanagementapp.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
+
+public interface HoldService {
+
+    HoldResponse placeHold(UUID userId, UUID bookId);
+
+    void cancelHold(UUID userId, UUID bookId);
+
+    List<HoldResponse> getHolds(UUID userId);
+
+    /**
+     * Consumes the user's ready hold on the book, if any, in the caller's transaction. Returns
+     * whether a copy was reserved for the user, in which case it must be lent without taking
+     * another one from the shelf.
+     */
+    boolean claimReadyHold(UUID userId, UUID bookId);
+
+    /**
+     * Batch form of {@link #claimReadyHold}, returning the books whose reserved copy went to the
+     * user.
+     */
+    Set<UUID> claimReadyHolds(UUID userId, Collection<UUID> bookIds);
+
+    /**
+     * Reserves a copy that just came back for the next patron in the book's queue, in the
+     * caller's transaction, which keeps the book locked until it ends. Returns false if nobody is
+     * waiting, in which case the copy goes back on the shelf.
+     */
+    boolean handOffReturnedCopy(UUID bookId);
+}
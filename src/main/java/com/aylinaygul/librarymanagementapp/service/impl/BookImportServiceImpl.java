@@ -0,0 +1,214 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookImportFormat;
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookImportResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.mapper.BookRequestMapper;
+import com.aylinaygul.librarymanagementapp.service.BookImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports books row by row from a stream, so memory use is bounded by one chunk rather than the
+ * size of the upload. Valid rows are written through a {@link StatelessSession} with JDBC batching,
+ * one transaction per chunk. Ids come from the entity's UUID generator in memory, so inserts need
+ * no round trip to fetch keys and batch cleanly.
+ */
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final SessionFactory sessionFactory;
+    private final BookRequestMapper bookRequestMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BookImportServiceImpl(EntityManagerFactory entityManagerFactory,
+            BookRequestMapper bookRequestMapper, Validator validator, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${library.import.chunk-size:1000}") int chunkSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.bookRequestMapper = bookRequestMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BookImportResponse importBooks(InputStream input, BookImportFormat format) {
+        logger.info("Importing books from {} with chunk size {}", format, chunkSize);
+        ImportRun run = new ImportRun();
+        try {
+            if (format == BookImportFormat.CSV) {
+                readCsv(input, run);
+            } else {
+                readNdjson(input, run);
+            }
+        } catch (IOException ex) {
+            // the stream cannot be resynchronised, so everything after this point is lost
+            logger.error("Unreadable import input after row {}: {}", run.row, ex.getMessage());
+            run.reject(run.row + 1, "Unreadable input: " + originalMessage(ex));
+        }
+        insertPending(run);
+
+        logger.info("Import finished: {} books imported, {} rows rejected", run.imported,
+                run.failed);
+        return new BookImportResponse(run.imported, run.failed, run.errors);
+    }
+
+    private void readCsv(InputStream input, ImportRun run) throws IOException {
+        try (MappingIterator<Map<String, String>> rows =
+                CSV_MAPPER.readerForMapOf(String.class).with(CSV_SCHEMA).readValues(input)) {
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                long row = ++run.row;
+                BookRequest request;
+                try {
+                    request = objectMapper.convertValue(values, BookRequest.class);
+                } catch (IllegalArgumentException ex) {
+                    run.reject(row, "Unreadable row: " + originalMessage(ex));
+                    continue;
+                }
+                accept(run, row, request);
+            }
+        }
+    }
+
+    private void readNdjson(InputStream input, ImportRun run) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(BookRequest.class);
+        try (BufferedReader lines =
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                long row = ++run.row;
+                if (line.isBlank()) {
+                    continue;
+                }
+                BookRequest request;
+                try {
+                    request = reader.readValue(line);
+                } catch (JsonProcessingException ex) {
+                    run.reject(row, "Unreadable row: " + ex.getOriginalMessage());
+                    continue;
+                }
+                accept(run, row, request);
+            }
+        }
+    }
+
+    private void accept(ImportRun run, long row, BookRequest request) {
+        Set<ConstraintViolation<BookRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.reject(row, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted().collect(Collectors.joining("; ")));
+            return;
+        }
+
+        run.pendingRows.add(row);
+        run.pendingBooks.add(bookRequestMapper.toEntity(request));
+        if (run.pendingBooks.size() >= chunkSize) {
+            insertPending(run);
+        }
+    }
+
+    private void insertPending(ImportRun run) {
+        if (run.pendingBooks.isEmpty()) {
+            return;
+        }
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(chunkSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                run.pendingBooks.forEach(session::insert);
+                transaction.commit();
+            } catch (RuntimeException ex) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                logger.error("Failed to insert rows {} to {}: {}", run.pendingRows.get(0),
+                        run.pendingRows.get(run.pendingRows.size() - 1), ex.getMessage());
+                run.pendingRows.forEach(row -> run.reject(row, "Insert failed: " + ex.getMessage()));
+                run.clearPending();
+                return;
+            }
+        }
+
+        run.imported += run.pendingBooks.size();
+        run.pendingBooks.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        logger.debug("Imported chunk of {} books, {} so far", run.pendingBooks.size(),
+                run.imported);
+        run.clearPending();
+    }
+
+    private static String originalMessage(Exception ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && !(cause instanceof JsonProcessingException)) {
+            cause = cause.getCause();
+        }
+        return cause instanceof JsonProcessingException jsonException
+                ? jsonException.getOriginalMessage()
+                : cause.getMessage();
+    }
+
+    private static final class ImportRun {
+
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<Book> pendingBooks = new ArrayList<>();
+        private final List<BookImportResponse.RowError> errors = new ArrayList<>();
+        private long row;
+        private long imported;
+        private long failed;
+
+        private void reject(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportResponse.RowError(row, message));
+            }
+        }
+
+        private void clearPending() {
+            pendingRows.clear();
+            pendingBooks.clear();
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package com.aylinaygul.librarymanagementapp.service.impl;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.aylinaygul.librarymanagementapp.cache.BookCache;
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookCursor;
 import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
 import com.aylinaygul.librarymanagementapp.model.mapper.BookRequestMapper;
 import com.aylinaygul.librarymanagementapp.model.mapper.BookResponseMapper;
+import com.aylinaygul.librarymanagementapp.popularity.PopularityTracker;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.search.AvailabilityIndex;
+import com.aylinaygul.librarymanagementapp.search.BookSearchIndex;
+import com.aylinaygul.librarymanagementapp.search.CatalogVersion;
+import com.aylinaygul.librarymanagementapp.search.FacetIndex;
+import com.aylinaygul.librarymanagementapp.search.FuzzyIndex;
+import com.aylinaygul.librarymanagementapp.search.IsbnIndex;
+import com.aylinaygul.librarymanagementapp.search.RelevanceIndex;
+import com.aylinaygul.librarymanagementapp.search.SuggestIndex;
 import com.aylinaygul.librarymanagementapp.service.BookService;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -25,37 +59,194 @@ public class BookServiceImpl implements BookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+    private static final int MAX_FACET_LIMIT = 100;
+    private static final int RECORD_BATCH_SIZE = 1000;
+    private static final Pattern ISBN_PATTERN = Pattern.compile("\\d{10}|\\d{13}");
+
     private final BookRepository bookRepository;
+    private final BorrowRepository borrowRepository;
+    private final ArchivedBorrowRepository archivedBorrowRepository;
     private final BookRequestMapper bookRequestMapper;
     private final BookResponseMapper bookResponseMapper;
+    private final BookSearchIndex bookSearchIndex;
+    private final IsbnIndex isbnIndex;
+    private final FacetIndex facetIndex;
+    private final SuggestIndex suggestIndex;
+    private final PopularityTracker popularityTracker;
+    private final FuzzyIndex fuzzyIndex;
+    private final RelevanceIndex relevanceIndex;
+    private final CatalogVersion catalogVersion;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookCache bookCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
-    public List<BookResponse> getAllBooks() {
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<BookResponse> getAllBooks(boolean includeRecords) {
         logger.info("Fetching all books from the database.");
-        List<BookResponse> books = bookResponseMapper.toDTOList(bookRepository.findAll());
+        List<BookResponse> books = bookRepository.findAllSummaries();
+        if (includeRecords) {
+            books = attachRecords(books);
+        }
         logger.debug("Total books fetched: {}", books.size());
         return books;
     }
 
     @Override
-    public BookResponse getBookById(UUID id) {
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookResponse> consumer) {
+        logger.info("Streaming all books from the database.");
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                consumer.accept(bookResponseMapper.toDTO(book));
+                entityManager.detach(book);
+                count++;
+            }
+        }
+        logger.debug("Total books streamed: {}", count);
+    }
+
+    @Override
+    public CursorPageResponse<BookResponse> getBooksAfter(String after, int limit) {
+        logger.info("Fetching books after cursor {} with limit {}", after, limit);
+        Pageable pageable = PageRequest.of(0, validateLimit(limit));
+
+        Slice<BookResponse> slice;
+        if (after == null || after.isEmpty()) {
+            slice = bookRepository.findFirstSliceOrderByTitle(pageable);
+        } else {
+            BookCursor cursor = BookCursor.decode(after);
+            slice = bookRepository.findSliceOrderByTitleAfter(cursor.title(), cursor.id(),
+                    pageable);
+        }
+        logger.debug("Books fetched: {}, has next: {}", slice.getNumberOfElements(),
+                slice.hasNext());
+        return toCursorPage(slice.getContent(), slice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BookResponse getBookById(UUID id, boolean includeRecords) {
         logger.info("Fetching book with ID: {}", id);
-        return bookRepository.findById(id).map(book -> {
-            logger.debug("Book found: {}", book.getTitle());
-            return bookResponseMapper.toDTO(book);
-        }).orElseGet(() -> {
+        BookCache.CachedBook cached = findCached(id);
+        if (cached == null) {
             logger.warn("Book not found with ID: {}", id);
             return null;
-        });
+        }
+
+        BookResponse book = cached.book();
+
+        logger.debug("Book found: {}", book.title());
+        if (includeRecords) {
+            return attachRecords(List.of(book)).get(0);
+        }
+        return book;
+    }
+
+    @Override
+    public Long getBookVersion(UUID id) {
+        BookCache.CachedBook cached = findCached(id);
+        return cached == null ? null : cached.version();
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    @Override
+    public BookAvailabilityResponse getAvailability(UUID id) {
+        logger.debug("Fetching availability of book {}", id);
+        return availabilityIndex.get(id);
+    }
+
+    @Override
+    public BookResponse getBookByIsbn(String isbn) {
+        logger.info("Fetching book with ISBN: {}", isbn);
+        if (!ISBN_PATTERN.matcher(isbn).matches()) {
+            throw new IllegalArgumentException("ISBN must be 10 or 13 digits: " + isbn);
+        }
+
+        UUID id = isbnIndex.get(isbn);
+        if (id == null) {
+            logger.warn("Book not found with ISBN: {}", isbn);
+            return null;
+        }
+        return getBookById(id, false);
     }
 
     @Override
     public List<BookResponse> getOverdueBooks() {
         logger.info("Fetching overdue books from the database.");
-        List<Book> overdueBooks = bookRepository.findOverdueBooks();
-        return bookResponseMapper.toDTOList(overdueBooks);
+        return bookRepository.findOverdueBooks();
     }
 
+    @Override
+    public CursorPageResponse<BookResponse> getOverdueBooksAfter(String after, int limit) {
+        logger.info("Fetching overdue books after cursor {} with limit {}", after, limit);
+        Pageable pageable = PageRequest.of(0, validateLimit(limit));
+
+        Slice<BookResponse> slice;
+        if (after == null || after.isEmpty()) {
+            slice = bookRepository.findFirstOverdueSlice(pageable);
+        } else {
+            BookCursor cursor = BookCursor.decode(after);
+            slice = bookRepository.findOverdueSliceAfter(cursor.title(), cursor.id(), pageable);
+        }
+        logger.debug("Overdue books fetched: {}, has next: {}", slice.getNumberOfElements(),
+                slice.hasNext());
+        return toCursorPage(slice.getContent(), slice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOverdueBooks(Consumer<BookResponse> consumer) {
+        logger.info("Streaming overdue books from the database.");
+        long count = 0;
+        try (Stream<BookResponse> books = bookRepository.streamOverdueBooks()) {
+            Iterator<BookResponse> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        logger.debug("Total overdue books streamed: {}", count);
+    }
+
+    @Override
+    public FacetsResponse getFacets(int limit) {
+        logger.info("Fetching facet counts with limit {}", limit);
+        if (limit < 1 || limit > MAX_FACET_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Facet limit must be between 1 and " + MAX_FACET_LIMIT + ": " + limit);
+        }
+        return facetIndex.facets(limit);
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        logger.debug("Suggesting completions for '{}' with limit {}", query, limit);
+        if (limit < 1 || limit > SuggestIndex.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Suggestion limit must be between 1 and "
+                    + SuggestIndex.MAX_SUGGESTIONS + ": " + limit);
+        }
+        return suggestIndex.suggest(query, limit);
+    }
+
+    @Override
+    public List<PopularBookResponse> getPopularBooks(PopularityWindow window, int limit) {
+        logger.debug("Fetching {} most borrowed books of the {}", limit, window);
+        if (limit < 1 || limit > PopularityTracker.MAX_LIMIT) {
+            throw new IllegalArgumentException("Popular books limit must be between 1 and "
+                    + PopularityTracker.MAX_LIMIT + ": " + limit);
+        }
+        return popularityTracker.top(window, limit);
+    }
 
     @Override
     public Page<BookResponse> searchBooks(String title, String author, String isbn, String genre,
@@ -63,22 +254,60 @@ public class BookServiceImpl implements BookService {
         logger.info("Searching books with parameters - Title: {}, Author: {}, ISBN: {}, Genre: {}",
                 title, author, isbn, genre);
 
-        Book probe = new Book();
-        probe.setTitle(title);
-        probe.setAuthor(author);
-        probe.setIsbn(isbn);
-        probe.setGenre(genre);
+        Pageable pageable = PageRequest.of(page, size);
+        BookSearchIndex.Result result =
+                bookSearchIndex.search(new BookSearchIndex.Query(title, author, isbn, genre),
+                        pageable.getOffset(), pageable.getPageSize());
+        logger.debug("Books found: {}", result.total());
+
+        List<BookResponse> content = findAllInOrder(result.ids());
 
-        ExampleMatcher matcher = ExampleMatcher.matchingAll().withIgnoreCase()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    @Override
+    public Page<BookResponse> fuzzySearchBooks(String query, int page, int size) {
+        logger.info("Fuzzy searching books for '{}'", query);
+
+        Pageable pageable = PageRequest.of(page, size);
+        BookSearchIndex.Result result =
+                fuzzyIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        logger.debug("Books found: {}", result.total());
+
+        return new PageImpl<>(findAllInOrder(result.ids()), pageable, result.total());
+    }
+
+    @Override
+    public Page<BookResponse> rankedSearchBooks(String query, int page, int size) {
+        logger.info("Relevance searching books for '{}'", query);
 
-        Example<Book> example = Example.of(probe, matcher);
         Pageable pageable = PageRequest.of(page, size);
+        BookSearchIndex.Result result =
+                relevanceIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        logger.debug("Books found: {}", result.total());
+
+        return new PageImpl<>(findAllInOrder(result.ids()), pageable, result.total());
+    }
+
+    @Override
+    public CursorPageResponse<BookResponse> searchBooksAfter(String title, String author,
+            String isbn, String genre, String after, int limit) {
+        logger.info(
+                "Searching books after cursor {} with parameters - Title: {}, Author: {}, ISBN: {}, Genre: {}",
+                after, title, author, isbn, genre);
+        int validLimit = validateLimit(limit);
+        BookCursor cursor = after == null || after.isEmpty() ? null : BookCursor.decode(after);
 
-        Page<Book> bookPage = bookRepository.findAll(example, pageable);
-        logger.debug("Books found: {}", bookPage.getTotalElements());
+        List<UUID> ids = bookSearchIndex.searchAfter(
+                new BookSearchIndex.Query(title, author, isbn, genre),
+                cursor == null ? null : cursor.title(), cursor == null ? null : cursor.id(),
+                validLimit + 1);
+        boolean hasNext = ids.size() > validLimit;
+        List<UUID> pageIds = hasNext ? ids.subList(0, validLimit) : ids;
 
-        return bookPage.map(bookResponseMapper::toDTO);
+        List<BookResponse> content = findAllInOrder(pageIds);
+        logger.debug("Books found: {}, has next: {}", content.size(), hasNext);
+        return toCursorPage(content, hasNext);
     }
 
     @Override
@@ -87,6 +316,7 @@ public class BookServiceImpl implements BookService {
         logger.info("Creating new book: {}", bookRequest.getTitle());
         Book book = bookRequestMapper.toEntity(bookRequest);
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
         logger.info("Book created successfully with ID: {}", savedBook.getId());
         return bookResponseMapper.toDTO(savedBook);
     }
@@ -101,7 +331,15 @@ public class BookServiceImpl implements BookService {
             return new IllegalArgumentException("Book not found with ID: " + id);
         });
 
+        BookSnapshot before = BookSnapshot.of(book);
         bookRequestMapper.updateBookFromRequest(bookRequest, book);
+        if (bookRequest.getCopies() != null) {
+            resizeCopies(book, bookRequest.getCopies());
+        }
+        if (Boolean.FALSE.equals(bookRequest.getAvailable())) {
+            withdrawShelfCopies(book);
+        }
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, book));
         logger.info("Book updated successfully: {}", id);
         return bookResponseMapper.toDTO(book);
     }
@@ -117,6 +355,91 @@ public class BookServiceImpl implements BookService {
         });
 
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
         logger.info("Book deleted successfully: {}", id);
     }
+
+    /**
+     * Changes the number of copies held while keeping the ones on loan on loan.
+     */
+    /**
+     * Takes the copies on the shelf out of the collection. Copies on loan stay on loan and come
+     * back to the shelf when returned; {@code copies} adds stock again.
+     */
+    private static void withdrawShelfCopies(Book book) {
+        book.setTotalCopies(book.getTotalCopies() - book.getAvailableCopies());
+        book.setAvailableCopies(0);
+        book.setAvailable(false);
+    }
+
+    private static void resizeCopies(Book book, int copies) {
+        int onLoan = book.getTotalCopies() - book.getAvailableCopies();
+        if (copies < onLoan) {
+            throw new IllegalArgumentException("Cannot reduce book " + book.getId() + " to "
+                    + copies + " copies while " + onLoan + " are on loan");
+        }
+        book.setTotalCopies(copies);
+        book.setAvailableCopies(copies - onLoan);
+        book.setAvailable(copies > onLoan);
+    }
+
+    /**
+     * Reads the version before the summary, so a concurrent update can only make the cached
+     * version older than the summary, never newer.
+     */
+    private BookCache.CachedBook findCached(UUID id) {
+        return bookCache.get(id, key -> bookRepository.findVersionById(key)
+                .flatMap(version -> bookRepository.findSummaryById(key)
+                        .map(book -> new BookCache.CachedBook(book, version)))
+                .orElse(null));
+    }
+
+    /**
+     * Loads the given books with a single query and maps them in the order of {@code ids}. Ids
+     * deleted since they were read from the search index are skipped.
+     */
+    private List<BookResponse> findAllInOrder(List<UUID> ids) {
+        Map<UUID, BookResponse> books = bookRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Attaches each book's loans, current and archived, newest first. Both tables are read a
+     * batch of books at a time; callers hold a repeatable read transaction so a loan being
+     * archived meanwhile shows up exactly once.
+     */
+    private List<BookResponse> attachRecords(List<BookResponse> books) {
+        List<BorrowResponse> records = new ArrayList<>();
+        for (int from = 0; from < books.size(); from += RECORD_BATCH_SIZE) {
+            List<UUID> bookIds = books.subList(from, Math.min(from + RECORD_BATCH_SIZE,
+                    books.size())).stream().map(BookResponse::id).toList();
+            records.addAll(borrowRepository.findResponsesByBookIdIn(bookIds));
+            records.addAll(archivedBorrowRepository.findResponsesByBookIdIn(bookIds));
+        }
+        Map<UUID, List<BorrowResponse>> recordsByBook = records.stream()
+                .sorted(BorrowResponse.NEWEST_FIRST)
+                .collect(Collectors.groupingBy(BorrowResponse::getBookId));
+        return books.stream()
+                .map(book -> book.withRecords(recordsByBook.getOrDefault(book.id(), List.of())))
+                .toList();
+    }
+
+    private static int validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Limit must be between 1 and " + MAX_CURSOR_LIMIT + ": " + limit);
+        }
+        return limit;
+    }
+
+    private static CursorPageResponse<BookResponse> toCursorPage(List<BookResponse> content,
+            boolean hasNext) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            BookResponse last = content.get(content.size() - 1);
+            nextCursor = BookCursor.at(last.title(), last.id()).encode();
+        }
+        return new CursorPageResponse<>(content, hasNext, nextCursor);
+    }
 }
@@ -1,28 +1,59 @@
 package com.aylinaygul.librarymanagementapp.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.aylinaygul.librarymanagementapp.fees.FeeLedger;
+import com.aylinaygul.librarymanagementapp.model.dto.request.HistoryFilter;
+import com.aylinaygul.librarymanagementapp.model.dto.request.LoanCursor;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse.Outcome;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
-import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.model.event.BookBorrowedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
 import com.aylinaygul.librarymanagementapp.model.exception.BookNotAvailableException;
 import com.aylinaygul.librarymanagementapp.model.exception.BookNotFoundException;
 import com.aylinaygul.librarymanagementapp.model.exception.UserNotFoundException;
-import com.aylinaygul.librarymanagementapp.model.mapper.BorrowResponseMapper;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
 import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.UserRepository;
 import com.aylinaygul.librarymanagementapp.service.BorrowService;
+import com.aylinaygul.librarymanagementapp.service.HoldService;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -31,18 +62,18 @@ public class BorrowServiceImpl implements BorrowService {
 
     private static final Logger logger = LoggerFactory.getLogger(BorrowServiceImpl.class);
 
+    private static final int MAX_BORROW_ATTEMPTS = 3;
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
     private final BorrowRepository borrowRepository;
-    private final BorrowResponseMapper borrowResponseMapper;
-
-    private User validateAndGetUser(UUID userId) {
-        logger.debug("Validating user with ID: {}", userId);
-        return userRepository.findById(userId).orElseThrow(() -> {
-            logger.warn("User not found with ID: {}", userId);
-            return new UserNotFoundException("User not found with ID: " + userId);
-        });
-    }
+    private final ArchivedBorrowRepository archivedBorrowRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final HoldService holdService;
+    private final FeeLedger feeLedger;
 
     private Book validateAndGetBook(UUID bookId) {
         logger.debug("Validating book with ID: {}", bookId);
@@ -52,32 +83,78 @@ public class BorrowServiceImpl implements BorrowService {
         });
     }
 
-    private void checkBookAvailability(Book book) {
-        if (!book.isAvailable()) {
-            logger.warn("Attempted to borrow unavailable book: {}", book.getTitle());
-            throw new BookNotAvailableException("Book is not available for borrowing.");
+    private void validateUser(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            logger.warn("User not found with ID: {}", userId);
+            throw new UserNotFoundException("User not found with ID: " + userId);
         }
     }
 
+    /**
+     * Claims a copy with a single conditional decrement, so of any number of concurrent borrowers
+     * exactly as many succeed as there were copies on the shelf and the rest are refused. A patron
+     * whose hold is ready gets the copy reserved for it instead. Write conflicts reported by the
+     * database, including optimistic lock failures on the book's version, roll the attempt back
+     * and are retried a bounded number of times.
+     */
     @Override
-    @Transactional
     public void borrowBook(UUID userId, UUID bookId) {
         logger.info("User {} attempting to borrow book {}", userId, bookId);
-        User user = validateAndGetUser(userId);
-        Book book = validateAndGetBook(bookId);
+        validateUser(userId);
+        for (int attempt = 1;; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> claimBook(userId, bookId));
+                return;
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt == MAX_BORROW_ATTEMPTS) {
+                    logger.error("Giving up borrowing book {} for user {} after {} attempts: {}",
+                            bookId, userId, attempt, ex.getMessage());
+                    throw ex;
+                }
+                logger.warn("Write conflict borrowing book {} on attempt {}, retrying", bookId,
+                        attempt);
+            }
+        }
+    }
 
-        checkBookAvailability(book);
+    private void claimBook(UUID userId, UUID bookId) {
+        if (borrowRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId,
+                BorrowStatus.ON_LOAN)) {
+            logger.warn("User {} already holds a copy of book {}", userId, bookId);
+            throw new IllegalArgumentException("You already have a copy of this book on loan.");
+        }
+        // a copy reserved for this user's hold is already off the shelf
+        boolean reserved = holdService.claimReadyHold(userId, bookId);
+        if (!reserved && bookRepository.takeCopy(bookId) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                logger.warn("Book not found with ID: {}", bookId);
+                throw new BookNotFoundException("Book not found with ID: " + bookId);
+            }
+            logger.warn("Attempted to borrow unavailable book: {}", bookId);
+            throw new BookNotAvailableException(
+                    "Book is not available for borrowing. Place a hold to be next in line.");
+        }
 
-        BorrowRecord borrowRecord = BorrowRecord.builder().user(user).book(book)
+        // the update holds the row lock until commit, so this read cannot race another borrower
+        Book book = validateAndGetBook(bookId);
+        BorrowRecord borrowRecord = BorrowRecord.builder()
+                .user(userRepository.getReferenceById(userId)).book(book)
                 .borrowDate(LocalDate.now()).dueDate(LocalDate.now().plusDays(14))
                 .status(BorrowStatus.BORROWED).build();
-
-        borrowRepository.save(borrowRecord);
+        borrowRepository.saveAndFlush(borrowRecord);
         logger.info("Borrow record created for user {} and book {}", userId, bookId);
 
-        book.setAvailable(false);
-        bookRepository.save(book);
-        logger.info("Book {} marked as unavailable", bookId);
+        BookSnapshot after = BookSnapshot.of(book);
+        if (reserved) {
+            touchBooks(Set.of(bookId));
+        } else {
+            eventPublisher.publishEvent(new BookChangedEvent(bookId,
+                    after.withAvailableCopies(after.availableCopies() + 1), after));
+        }
+        eventPublisher.publishEvent(new BookBorrowedEvent(bookId));
+        eventPublisher.publishEvent(LoanEvent.borrowed(borrowRecord));
+        logger.info("Book {} has {} of {} copies left", bookId, after.availableCopies(),
+                after.totalCopies());
     }
 
     @Override
@@ -86,7 +163,7 @@ public class BorrowServiceImpl implements BorrowService {
         logger.info("User {} attempting to return book {}", userId, bookId);
 
         BorrowRecord borrowRecord = borrowRepository
-                .findByUserIdAndBookIdAndStatus(userId, bookId, BorrowStatus.BORROWED)
+                .findFirstByUserIdAndBookIdAndStatusIn(userId, bookId, BorrowStatus.ON_LOAN)
                 .orElseThrow(() -> {
                     logger.error("No active borrow record found for user {} and book {}", userId,
                             bookId);
@@ -95,37 +172,333 @@ public class BorrowServiceImpl implements BorrowService {
 
         borrowRecord.setReturnDate(LocalDate.now());
         borrowRecord.setStatus(BorrowStatus.RETURNED);
-        borrowRepository.save(borrowRecord);
+        borrowRepository.saveAndFlush(borrowRecord);
+        feeLedger.chargeReturned(List.of(borrowRecord));
+        eventPublisher.publishEvent(LoanEvent.returned(borrowRecord));
         logger.info("Borrow record updated to RETURNED for user {} and book {}", userId, bookId);
 
-        Book book = borrowRecord.getBook();
-        book.setAvailable(true);
-        bookRepository.save(book);
-        logger.info("Book {} marked as available", book.getId());
+        if (holdService.handOffReturnedCopy(bookId)) {
+            logger.info("Returned copy of book {} reserved for the next hold", bookId);
+            touchBooks(Set.of(bookId));
+            return;
+        }
+        if (bookRepository.returnCopy(bookId) == 0) {
+            logger.warn("All copies of book {} were already on the shelf", bookId);
+            touchBooks(Set.of(bookId));
+            return;
+        }
+
+        BookSnapshot after = BookSnapshot.of(validateAndGetBook(bookId));
+        eventPublisher.publishEvent(new BookChangedEvent(bookId,
+                after.withAvailableCopies(after.availableCopies() - 1), after));
+        logger.info("Book {} has {} of {} copies available", bookId, after.availableCopies(),
+                after.totalCopies());
+    }
+
+    /**
+     * Borrows every available book of the batch in one transaction. The books are locked with a
+     * single query, each item is decided in memory, and the new borrow records and book updates
+     * are written as JDBC batches when the transaction flushes. Items that cannot be borrowed are
+     * reported and skipped without affecting the rest.
+     */
+    @Override
+    @Transactional
+    public BatchBorrowResponse borrowBooks(UUID userId, List<UUID> bookIds) {
+        logger.info("User {} attempting to borrow {} books", userId, bookIds.size());
+        validateUser(userId);
+        Set<UUID> requested = new LinkedHashSet<>(bookIds);
+        Map<UUID, Book> books = lockBooks(requested);
+        Set<UUID> held = borrowRepository.findBookIdsByUserIdAndStatusInAndBookIdIn(userId,
+                BorrowStatus.ON_LOAN, requested);
+        Set<UUID> claimable = new HashSet<>(books.keySet());
+        claimable.removeAll(held);
+        Set<UUID> reserved = claimable.isEmpty() ? Set.of()
+                : holdService.claimReadyHolds(userId, claimable);
+
+        Map<UUID, Outcome> outcomes = new HashMap<>();
+        List<BorrowRecord> records = new ArrayList<>();
+        List<BookChangedEvent> changes = new ArrayList<>();
+        for (UUID bookId : requested) {
+            Book book = books.get(bookId);
+            if (book == null) {
+                outcomes.put(bookId, Outcome.NOT_FOUND);
+            } else if (held.contains(bookId)) {
+                outcomes.put(bookId, Outcome.ALREADY_BORROWED);
+            } else if (!reserved.contains(bookId) && book.getAvailableCopies() == 0) {
+                outcomes.put(bookId, Outcome.NOT_AVAILABLE);
+            } else {
+                if (!reserved.contains(bookId)) {
+                    BookSnapshot before = BookSnapshot.of(book);
+                    book.setAvailableCopies(book.getAvailableCopies() - 1);
+                    book.setAvailable(book.getAvailableCopies() > 0);
+                    changes.add(BookChangedEvent.updated(before, book));
+                }
+                records.add(BorrowRecord.builder().user(userRepository.getReferenceById(userId))
+                        .book(book).borrowDate(LocalDate.now())
+                        .dueDate(LocalDate.now().plusDays(14)).status(BorrowStatus.BORROWED)
+                        .build());
+                outcomes.put(bookId, Outcome.BORROWED);
+            }
+        }
+
+        if (!records.isEmpty()) {
+            borrowRepository.saveAll(records);
+            borrowRepository.flush();
+            changes.forEach(eventPublisher::publishEvent);
+            touchBooks(reserved);
+            records.forEach(record -> {
+                eventPublisher.publishEvent(new BookBorrowedEvent(record.getBook().getId()));
+                eventPublisher.publishEvent(LoanEvent.borrowed(record));
+            });
+        }
+        return summarize(userId, bookIds, outcomes);
+    }
+
+    /**
+     * Returns every book of the batch the user has on loan in one transaction, writing the closed
+     * borrow records and book updates as JDBC batches. Books the user does not hold are reported
+     * and skipped.
+     */
+    @Override
+    @Transactional
+    public BatchBorrowResponse returnBooks(UUID userId, List<UUID> bookIds) {
+        logger.info("User {} attempting to return {} books", userId, bookIds.size());
+        Set<UUID> requested = new LinkedHashSet<>(bookIds);
+        // lock before loading the records, whose eager book association would otherwise put
+        // unlocked copies of the rows into the persistence context first
+        Map<UUID, Book> books = lockBooks(requested);
+        Map<UUID, BorrowRecord> loans = borrowRepository
+                .findByUserIdAndStatusInAndBookIdIn(userId, BorrowStatus.ON_LOAN, requested)
+                .stream()
+                .collect(Collectors.toMap(record -> record.getBook().getId(), Function.identity()));
+
+        Map<UUID, Outcome> outcomes = new HashMap<>();
+        List<BookChangedEvent> changes = new ArrayList<>();
+        Set<UUID> unchanged = new HashSet<>();
+        for (UUID bookId : requested) {
+            BorrowRecord loan = loans.get(bookId);
+            if (loan == null) {
+                outcomes.put(bookId, Outcome.NOT_BORROWED);
+                continue;
+            }
+            loan.setReturnDate(LocalDate.now());
+            loan.setStatus(BorrowStatus.RETURNED);
+            outcomes.put(bookId, Outcome.RETURNED);
+            eventPublisher.publishEvent(LoanEvent.returned(loan));
+
+            Book book = books.get(bookId);
+            if (holdService.handOffReturnedCopy(bookId)) {
+                logger.info("Returned copy of book {} reserved for the next hold", bookId);
+                unchanged.add(bookId);
+            } else if (book.getAvailableCopies() < book.getTotalCopies()) {
+                BookSnapshot before = BookSnapshot.of(book);
+                book.setAvailableCopies(book.getAvailableCopies() + 1);
+                book.setAvailable(true);
+                changes.add(BookChangedEvent.updated(before, book));
+            } else {
+                logger.warn("All copies of book {} were already on the shelf", bookId);
+                unchanged.add(bookId);
+            }
+        }
+
+        borrowRepository.flush();
+        feeLedger.chargeReturned(loans.values());
+        changes.forEach(eventPublisher::publishEvent);
+        touchBooks(unchanged);
+        return summarize(userId, bookIds, outcomes);
+    }
+
+    /**
+     * Bumps the versions of books whose loan records changed while their copies stayed put, such
+     * as a returned copy passed to a hold, so cached copies and ETags of representations that
+     * embed the records are refreshed.
+     */
+    private void touchBooks(Set<UUID> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        bookRepository.touch(bookIds);
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            eventPublisher.publishEvent(BookChangedEvent.updated(BookSnapshot.of(book), book));
+        }
+    }
+
+    /**
+     * Loads and locks the books in one round trip and sizes the session's JDBC batches to the
+     * request, so the writes that follow go out in as few statements as possible.
+     */
+    private Map<UUID, Book> lockBooks(Collection<UUID> bookIds) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(bookIds.size());
+        return bookRepository.findAllByIdInForUpdate(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
     }
 
+    private static BatchBorrowResponse summarize(UUID userId, List<UUID> bookIds,
+            Map<UUID, Outcome> outcomes) {
+        Set<UUID> seen = new HashSet<>();
+        List<BatchBorrowResponse.Item> items = new ArrayList<>(bookIds.size());
+        int succeeded = 0;
+        for (UUID bookId : bookIds) {
+            Outcome outcome = seen.add(bookId) ? outcomes.get(bookId) : Outcome.DUPLICATE;
+            if (outcome.succeeded()) {
+                succeeded++;
+            }
+            items.add(new BatchBorrowResponse.Item(bookId, outcome));
+        }
+        logger.info("Batch for user {} finished: {} succeeded, {} failed", userId, succeeded,
+                items.size() - succeeded);
+        return new BatchBorrowResponse(succeeded, items.size() - succeeded, items);
+    }
+
+    /**
+     * History reads span the circulation table and the archive. Both are read in one snapshot so
+     * a loan moved by the archiver meanwhile is seen exactly once.
+     */
     @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public List<BorrowResponse> getUserBorrowingHistory(UUID userId) {
         logger.info("Fetching borrowing history for user {}", userId);
-        List<BorrowRecord> records = borrowRepository.findAllByUserIdOrderByBorrowDateDesc(userId);
+        List<BorrowResponse> records = merge(borrowRepository.findResponsesByUserId(userId),
+                archivedBorrowRepository.findResponsesByUserId(userId));
         logger.debug("Total borrow records found: {}", records.size());
-        return borrowResponseMapper.toDTOList(records);
+        return records;
     }
 
     @Override
-    public List<BorrowResponse> getAllBorrowHistory() {
-        logger.info("Fetching all borrowing history");
-        List<BorrowRecord> records = borrowRepository.findAllByOrderByBorrowDateDesc();
-        logger.debug("Total borrow records in system: {}", records.size());
-        return borrowResponseMapper.toDTOList(records);
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPageResponse<BorrowResponse> getUserBorrowingHistory(UUID userId,
+            HistoryFilter filter, String after, int limit) {
+        logger.info("Fetching borrowing history for user {} after cursor {} with limit {}",
+                userId, after, limit);
+        Pageable pageable = PageRequest.of(0, validateLimit(limit));
+
+        Slice<BorrowResponse> hot;
+        Slice<BorrowResponse> archived;
+        if (after == null || after.isEmpty()) {
+            hot = borrowRepository.findFirstHistorySliceByUserId(userId, filter.status(),
+                    filter.from(), filter.to(), pageable);
+            archived = archivedBorrowRepository.findFirstHistorySliceByUserId(userId,
+                    filter.status(), filter.from(), filter.to(), pageable);
+        } else {
+            LoanCursor cursor = LoanCursor.decode(after);
+            hot = borrowRepository.findHistorySliceByUserIdBefore(userId, filter.status(),
+                    filter.from(), filter.to(), cursor.date(), cursor.id(), pageable);
+            archived = archivedBorrowRepository.findHistorySliceByUserIdBefore(userId,
+                    filter.status(), filter.from(), filter.to(), cursor.date(), cursor.id(),
+                    pageable);
+        }
+        return toHistoryPage(hot, archived, pageable.getPageSize());
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPageResponse<BorrowResponse> getAllBorrowHistory(HistoryFilter filter,
+            String after, int limit) {
+        logger.info("Fetching all borrowing history after cursor {} with limit {}", after, limit);
+        Pageable pageable = PageRequest.of(0, validateLimit(limit));
+
+        Slice<BorrowResponse> hot;
+        Slice<BorrowResponse> archived;
+        if (after == null || after.isEmpty()) {
+            hot = borrowRepository.findFirstHistorySlice(filter.status(), filter.from(),
+                    filter.to(), pageable);
+            archived = archivedBorrowRepository.findFirstHistorySlice(filter.status(),
+                    filter.from(), filter.to(), pageable);
+        } else {
+            LoanCursor cursor = LoanCursor.decode(after);
+            hot = borrowRepository.findHistorySliceBefore(filter.status(), filter.from(),
+                    filter.to(), cursor.date(), cursor.id(), pageable);
+            archived = archivedBorrowRepository.findHistorySliceBefore(filter.status(),
+                    filter.from(), filter.to(), cursor.date(), cursor.id(), pageable);
+        }
+        return toHistoryPage(hot, archived, pageable.getPageSize());
+    }
+
+    /**
+     * Both slices continue from the same cursor in the same order, so the page is the first
+     * {@code limit} records of their merge and more follow if either side had more.
+     */
+    private static CursorPageResponse<BorrowResponse> toHistoryPage(Slice<BorrowResponse> hot,
+            Slice<BorrowResponse> archived, int limit) {
+        List<BorrowResponse> merged = merge(hot.getContent(), archived.getContent());
+        boolean hasNext = merged.size() > limit || hot.hasNext() || archived.hasNext();
+        List<BorrowResponse> content = merged.size() > limit ? merged.subList(0, limit) : merged;
+        logger.debug("Borrow records fetched: {} ({} archived), has next: {}", content.size(),
+                archived.getNumberOfElements(), hasNext);
+        return toCursorPage(content, hasNext, BorrowResponse::getBorrowDate);
+    }
+
+    private static List<BorrowResponse> merge(List<BorrowResponse> hot,
+            List<BorrowResponse> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<BorrowResponse> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(BorrowResponse.NEWEST_FIRST);
+        return merged;
     }
 
     @Override
     public List<BorrowResponse> getOverdueBooks() {
         logger.info("Fetching overdue books");
-        List<BorrowRecord> records = borrowRepository
-                .findByStatusAndDueDateBefore(BorrowStatus.BORROWED, LocalDate.now());
+        List<BorrowResponse> records = borrowRepository.findOverdueResponses();
         logger.debug("Total overdue records: {}", records.size());
-        return borrowResponseMapper.toDTOList(records);
+        return records;
+    }
+
+    @Override
+    public CursorPageResponse<BorrowResponse> getOverdueBooksAfter(String after, int limit) {
+        logger.info("Fetching overdue records after cursor {} with limit {}", after, limit);
+        Pageable pageable = PageRequest.of(0, validateLimit(limit));
+
+        Slice<BorrowResponse> slice;
+        if (after == null || after.isEmpty()) {
+            slice = borrowRepository.findFirstOverdueSlice(pageable);
+        } else {
+            LoanCursor cursor = LoanCursor.decode(after);
+            slice = borrowRepository.findOverdueSliceAfter(cursor.date(), cursor.id(),
+                    pageable);
+        }
+        logger.debug("Overdue records fetched: {}, has next: {}", slice.getNumberOfElements(),
+                slice.hasNext());
+        return toCursorPage(slice.getContent(), slice.hasNext(), BorrowResponse::getDueDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOverdueBooks(Consumer<BorrowResponse> consumer) {
+        logger.info("Streaming overdue records");
+        long count = 0;
+        try (Stream<BorrowResponse> records = borrowRepository.streamOverdueResponses()) {
+            Iterator<BorrowResponse> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        logger.debug("Total overdue records streamed: {}", count);
+    }
+
+    private static int validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Limit must be between 1 and " + MAX_CURSOR_LIMIT + ": " + limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Wraps a slice, pointing the cursor at its last record under the date the walk is ordered by.
+     */
+    private static CursorPageResponse<BorrowResponse> toCursorPage(List<BorrowResponse> content,
+            boolean hasNext, Function<BorrowResponse, LocalDate> orderDate) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            BorrowResponse last = content.get(content.size() - 1);
+            nextCursor = new LoanCursor(orderDate.apply(last), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(content, hasNext, nextCursor);
     }
 }
@@ -0,0 +1,77 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.mapper.BookResponseMapper;
+import com.aylinaygul.librarymanagementapp.model.mapper.BorrowResponseMapper;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.service.ExportService;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Full-table extracts for the data warehouse. Each export reads one snapshot through a forward-only
+ * cursor, and the persistence context is cleared as rows are handed off, so memory does not grow
+ * with the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final BookRepository bookRepository;
+    private final BorrowRepository borrowRepository;
+    private final ArchivedBorrowRepository archivedBorrowRepository;
+    private final BookResponseMapper bookResponseMapper;
+    private final BorrowResponseMapper borrowResponseMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportBooks(Consumer<BookResponse> consumer) {
+        logger.info("Exporting all books.");
+        long count = export(bookRepository.streamAll(), bookResponseMapper::toDTO, consumer);
+        logger.info("Total books exported: {}", count);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportBorrowRecords(Consumer<BorrowResponse> consumer) {
+        logger.info("Exporting all borrow records.");
+        long count = export(borrowRepository.streamAll(), borrowResponseMapper::toDTO, consumer)
+                + export(archivedBorrowRepository.streamAll(), borrowResponseMapper::toDTO,
+                        consumer);
+        logger.info("Total borrow records exported: {}", count);
+    }
+
+    private <E, D> long export(Stream<E> rows, Function<E, D> mapper, Consumer<D> consumer) {
+        long count = 0;
+        try (rows) {
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(mapper.apply(iterator.next()));
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,269 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Hold;
+import com.aylinaygul.librarymanagementapp.model.entity.HoldStatus;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.model.event.HoldReadyEvent;
+import com.aylinaygul.librarymanagementapp.model.exception.BookNotFoundException;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.HoldRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.scheduling.TimerWheel;
+import com.aylinaygul.librarymanagementapp.service.HoldService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * FIFO hold queues per book. A returned copy is reserved for the oldest waiting hold instead of
+ * going back on the shelf, so patrons wait for their turn rather than retrying the borrow.
+ *
+ * <p>
+ * Every status change is a conditional update from the expected previous status, so a pickup, a
+ * cancellation and an expiry racing for the same hold cannot all win. Pickup deadlines live on a
+ * {@link TimerWheel} fed after each reservation commits and refilled from the ready holds at
+ * startup, so expiry never scans the table.
+ */
+@Service
+public class HoldServiceImpl implements HoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldServiceImpl.class);
+
+    private static final List<HoldStatus> ACTIVE = List.of(HoldStatus.WAITING, HoldStatus.READY);
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final BorrowRepository borrowRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration pickupWindow;
+    private final TimerWheel<UUID> expiries;
+
+    @Autowired
+    public HoldServiceImpl(HoldRepository holdRepository, BookRepository bookRepository,
+            BorrowRepository borrowRepository, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+            @Value("${library.holds.pickup-window:3d}") Duration pickupWindow,
+            @Value("${library.holds.wheel.tick:1m}") Duration tick,
+            @Value("${library.holds.wheel.size:512}") int wheelSize) {
+        this(holdRepository, bookRepository, borrowRepository, userRepository, eventPublisher,
+                transactionTemplate, Clock.systemUTC(), pickupWindow, tick, wheelSize);
+    }
+
+    HoldServiceImpl(HoldRepository holdRepository, BookRepository bookRepository,
+            BorrowRepository borrowRepository, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+            Clock clock, Duration pickupWindow, Duration tick, int wheelSize) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.borrowRepository = borrowRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.pickupWindow = pickupWindow;
+        this.expiries = new TimerWheel<>("hold-expiry", clock, tick, wheelSize, this::expire);
+    }
+
+    @Override
+    @Transactional
+    public HoldResponse placeHold(UUID userId, UUID bookId) {
+        logger.info("User {} placing a hold on book {}", userId, bookId);
+        // a return hands its copy off under the same lock, so it either sees this hold or puts
+        // the copy back on the shelf before the check below
+        Book book = bookRepository.findAllByIdInForUpdate(List.of(bookId)).stream().findFirst()
+                .orElseThrow(() -> {
+                    logger.warn("Book not found with ID: {}", bookId);
+                    return new BookNotFoundException("Book not found with ID: " + bookId);
+                });
+        if (book.getAvailableCopies() > 0) {
+            logger.warn("Hold on book {} refused, {} copies on the shelf", bookId,
+                    book.getAvailableCopies());
+            throw new IllegalArgumentException("Book is available; borrow it instead.");
+        }
+        if (borrowRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId,
+                BorrowStatus.ON_LOAN)) {
+            throw new IllegalArgumentException("You already have a copy of this book on loan.");
+        }
+        if (holdRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId, ACTIVE)) {
+            throw new IllegalArgumentException("You already have a hold on this book.");
+        }
+
+        Hold hold = holdRepository.save(Hold.builder().book(book)
+                .user(userRepository.getReferenceById(userId)).status(HoldStatus.WAITING)
+                .createdAt(clock.instant()).build());
+        long position = holdRepository.findPosition(hold.getId());
+        logger.info("Hold {} placed at position {} for book {}", hold.getId(), position, bookId);
+        return new HoldResponse(hold.getId(), bookId, book.getTitle(), hold.getStatus(), position,
+                hold.getCreatedAt(), null);
+    }
+
+    @Override
+    @Transactional
+    public void cancelHold(UUID userId, UUID bookId) {
+        logger.info("User {} cancelling hold on book {}", userId, bookId);
+        Hold hold = holdRepository.findFirstByUserIdAndBookIdAndStatusIn(userId, bookId, ACTIVE)
+                .orElseThrow(() -> {
+                    logger.warn("No active hold found for user {} and book {}", userId, bookId);
+                    return new IllegalArgumentException("Active hold not found");
+                });
+
+        if (holdRepository.transition(hold.getId(), hold.getStatus(),
+                HoldStatus.CANCELLED) == 0) {
+            throw new IllegalArgumentException("Hold has changed, please try again.");
+        }
+        if (hold.getStatus() == HoldStatus.READY) {
+            releaseReservedCopy(bookId);
+        }
+        logger.info("Hold {} cancelled", hold.getId());
+    }
+
+    @Override
+    public List<HoldResponse> getHolds(UUID userId) {
+        logger.info("Fetching holds for user {}", userId);
+        return holdRepository.findResponsesByUserId(userId, HoldStatus.WAITING, ACTIVE);
+    }
+
+    @Override
+    public boolean claimReadyHold(UUID userId, UUID bookId) {
+        Optional<Hold> ready = holdRepository.findFirstByUserIdAndBookIdAndStatusIn(userId,
+                bookId, List.of(HoldStatus.READY));
+        return ready.isPresent() && fulfil(ready.get());
+    }
+
+    @Override
+    public Set<UUID> claimReadyHolds(UUID userId, Collection<UUID> bookIds) {
+        Set<UUID> claimed = new HashSet<>();
+        for (Hold hold : holdRepository.findByUserIdAndStatusAndBookIdIn(userId,
+                HoldStatus.READY, bookIds)) {
+            if (fulfil(hold)) {
+                claimed.add(hold.getBook().getId());
+            }
+        }
+        return claimed;
+    }
+
+    private boolean fulfil(Hold hold) {
+        if (holdRepository.transition(hold.getId(), HoldStatus.READY,
+                HoldStatus.FULFILLED) == 0) {
+            // expired or cancelled a moment ago; the copy has moved on
+            return false;
+        }
+        logger.info("Hold {} picked up", hold.getId());
+        return true;
+    }
+
+    @Override
+    public boolean handOffReturnedCopy(UUID bookId) {
+        // serializes with placeHold, so a hold queued meanwhile is not passed over
+        bookRepository.findAllByIdInForUpdate(List.of(bookId));
+        Optional<Hold> next;
+        while ((next = holdRepository.findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(bookId,
+                HoldStatus.WAITING)).isPresent()) {
+            Hold hold = next.get();
+            Instant now = clock.instant();
+            Instant expiresAt = now.plus(pickupWindow);
+            if (holdRepository.markReady(hold.getId(), now, expiresAt) == 1) {
+                logger.info("Copy of book {} reserved for hold {} until {}", bookId,
+                        hold.getId(), expiresAt);
+                eventPublisher.publishEvent(new HoldReadyEvent(hold.getId(), bookId,
+                        hold.getUser().getId(), expiresAt));
+                return true;
+            }
+            // taken by a concurrent hand-off; hold statuses only move forward, so this ends
+            logger.debug("Hold {} left the queue concurrently, trying the next one",
+                    hold.getId());
+        }
+        return false;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldReady(HoldReadyEvent event) {
+        logger.debug("Tracking pickup deadline {} of hold {}", event.expiresAt(), event.holdId());
+        expiries.schedule(event.holdId(), event.expiresAt());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startExpiries() {
+        List<Hold> ready = holdRepository.findByStatus(HoldStatus.READY);
+        ready.forEach(hold -> expiries.schedule(hold.getId(), hold.getExpiresAt()));
+        expiries.start();
+        logger.info("Tracking pickup deadlines of {} ready holds", ready.size());
+    }
+
+    @PreDestroy
+    public void stopExpiries() {
+        expiries.close();
+    }
+
+    /**
+     * Expires the hold if it is still waiting for pickup and passes its copy on. Failures are
+     * retried a minute later rather than dropped.
+     */
+    void expire(UUID holdId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Hold hold = holdRepository.findById(holdId).orElse(null);
+                if (hold == null || holdRepository.expire(holdId, clock.instant()) == 0) {
+                    return;
+                }
+                logger.info("Hold {} expired without pickup", holdId);
+                releaseReservedCopy(hold.getBook().getId());
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Failed to expire hold {}, retrying: {}", holdId, ex.getMessage());
+            expiries.schedule(holdId, clock.instant().plusSeconds(60));
+        }
+    }
+
+    /**
+     * Gives a copy that was reserved for a hold to the next patron in line, or puts it back on the
+     * shelf if nobody is waiting.
+     */
+    private void releaseReservedCopy(UUID bookId) {
+        if (handOffReturnedCopy(bookId)) {
+            return;
+        }
+        if (bookRepository.returnCopy(bookId) == 0) {
+            logger.warn("All copies of book {} were already on the shelf", bookId);
+            return;
+        }
+        BookSnapshot after = BookSnapshot.of(bookRepository.findById(bookId).orElseThrow());
+        eventPublisher.publishEvent(new BookChangedEvent(bookId,
+                after.withAvailableCopies(after.availableCopies() - 1), after));
+        logger.info("Reserved copy of book {} is back on the shelf", bookId);
+    }
+
+    int pendingExpiries() {
+        return expiries.pending();
+    }
+}
@@ -30,19 +30,18 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<UserResponse> getAllUsers() {
         logger.info("Fetching all users");
-        List<User> users = userRepository.findAll();
+        List<UserResponse> users = userRepository.findAllResponses();
         logger.debug("Total users found: {}", users.size());
-        return userResponseMapper.toDTOList(users);
+        return users;
     }
 
     @Override
     public UserResponse getUserById(UUID userId) {
         logger.info("Fetching user by ID: {}", userId);
-        User user = userRepository.findById(userId).orElseThrow(() -> {
+        return userRepository.findResponseById(userId).orElseThrow(() -> {
             logger.warn("User not found with ID: {}", userId);
             return new IllegalArgumentException("User not found with ID: " + userId);
         });
-        return userResponseMapper.toDTO(user);
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.aylinaygul.librarymanagementapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CopyCountReconcilerIT {
+
+    @Autowired
+    private CopyCountReconciler reconciler;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Book lent;
+    private Book shelved;
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAllById(List.of(lent.getId(), shelved.getId()));
+    }
+
+    @Test
+    void shouldTakeTheDefaultCopyOffLentBooksOnce() {
+        lent = bookRepository.save(book("Lent", false));
+        shelved = bookRepository.save(book("Shelved", true));
+        // what the schema update left behind for a book lent out before copies were counted
+        jdbcTemplate.update("UPDATE books SET available_copies = 1 WHERE id = ?", lent.getId());
+        long version = bookRepository.findVersionById(lent.getId()).orElseThrow();
+
+        reconciler.run(new DefaultApplicationArguments());
+        reconciler.run(new DefaultApplicationArguments());
+
+        Book reconciled = bookRepository.findById(lent.getId()).orElseThrow();
+        assertEquals(0, reconciled.getAvailableCopies());
+        assertFalse(reconciled.isAvailable());
+        assertEquals(version + 1, reconciled.getVersion());
+        assertEquals(1, bookRepository.findById(shelved.getId()).orElseThrow()
+                .getAvailableCopies());
+    }
+
+    private static Book book(String title, boolean available) {
+        return Book.builder().title(title).author("Author").genre("Fiction").isbn("1234567890")
+                .publicationDate(LocalDate.of(2020, 1, 1)).available(available).build();
+    }
+}
@@ -1,7 +1,18 @@
 package com.aylinaygul.librarymanagementapp.controller;
 
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.jayway.jsonpath.JsonPath;
 
 import jakarta.transaction.Transactional;
 
@@ -13,11 +24,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,6 +52,12 @@ public class BookControllerIT {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @BeforeEach
     void setup() {
         bookRepository.deleteAll();
@@ -57,6 +79,22 @@ public class BookControllerIT {
                 .andExpect(jsonPath("$[0].title", is("Test Book")));
     }
 
+    @Test
+    void shouldStreamAllBooksAsNdjson() throws Exception {
+        // the stream is read on another thread, so the fixture has to be committed first
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/books").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"title\":\"Test Book\"")));
+
+        bookRepository.deleteAll();
+    }
+
     @Test
     void shouldGetBookById() throws Exception {
         UUID id = bookRepository.findAll().get(0).getId();
@@ -65,6 +103,61 @@ public class BookControllerIT {
                 .andExpect(status().isOk()).andExpect(jsonPath("$.title", is("Test Book")));
     }
 
+    @Test
+    void shouldAnswerConditionalGetsWithNotModified() throws Exception {
+        UUID id = bookRepository.findAll().get(0).getId();
+
+        String bookTag = mockMvc.perform(get("/api/v1/books/{id}", id))
+                .andExpect(status().isOk()).andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/books/{id}", id).header("If-None-Match", bookTag))
+                .andExpect(status().isNotModified()).andExpect(content().string(""));
+
+        String catalogTag = mockMvc.perform(get("/api/v1/books")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/books").header("If-None-Match", catalogTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldNegotiateBinaryFormats() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/api/v1/books").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode books = new CBORMapper().readTree(cbor);
+        assertEquals("Test Book", books.get(0).get("title").asText());
+        assertEquals("2020-01-01", books.get(0).get("publicationDate").asText());
+
+        UUID id = bookRepository.findAll().get(0).getId();
+        byte[] smile = mockMvc.perform(get("/api/v1/books/{id}", id)
+                .accept("application/x-jackson-smile")).andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Test Book", new SmileMapper().readTree(smile).get("title").asText());
+
+        mockMvc.perform(get("/api/v1/books")).andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldIncludeBorrowRecordsOnlyWhenRequested() throws Exception {
+        Book book = bookRepository.findAll().get(0);
+        User patron = userRepository.save(User.builder().name("patron")
+                .email("records@example.com").password("password").role(Role.PATRON).build());
+        borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                .status(BorrowStatus.BORROWED).borrowDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(14)).build());
+
+        mockMvc.perform(get("/api/v1/books/{id}", book.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.records").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/books/{id}", book.getId()).param("include", "records"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.records", hasSize(1)))
+                .andExpect(jsonPath("$.records[0].userId", is(patron.getId().toString())));
+    }
+
     @Test
     void shouldReturnNotFoundForNonExistentBook() throws Exception {
         mockMvc.perform(get("/api/v1/books/{id}", UUID.randomUUID())
@@ -89,10 +182,134 @@ public class BookControllerIT {
                 .andExpect(status().isCreated()).andExpect(jsonPath("$.title", is("New Book")));
     }
 
+    @Test
+    void shouldImportBooksFromCsv() throws Exception {
+        // rows are written on their own connection, so the fixture has to be committed first
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        String csv = """
+                title,author,genre,isbn,publicationDate,available
+                Imported Book,Imported Author,Fiction,9780140449136,2019-05-01,true
+                ,Missing Title,Fiction,9780140449137,2019-05-01,true
+                """;
+
+        mockMvc.perform(post("/api/v1/books/bulk").contentType("text/csv").content(csv))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+
+        mockMvc.perform(get("/api/v1/books/isbn/{isbn}", "9780140449136"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.title", is("Imported Book")));
+
+        bookRepository.deleteAll();
+    }
+
     @Test
     void shouldDeleteBook() throws Exception {
         UUID id = bookRepository.findAll().get(0).getId();
 
         mockMvc.perform(delete("/api/v1/books/{id}", id)).andExpect(status().isNoContent());
     }
+
+    @Test
+    void shouldWalkBooksWithCursor() throws Exception {
+        Book second = new Book();
+        second.setTitle("Another Book");
+        second.setAuthor("Another Author");
+        second.setGenre("Fiction");
+        second.setIsbn("1234567891");
+        second.setPublicationDate(LocalDate.of(2021, 1, 1));
+        second.setAvailable(true);
+        bookRepository.save(second);
+
+        String body = mockMvc.perform(get("/api/v1/books").param("limit", "1"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Another Book")))
+                .andExpect(jsonPath("$.hasNext", is(true))).andReturn().getResponse()
+                .getContentAsString();
+        String next = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/books").param("limit", "1").param("after", next))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Test Book")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void shouldRejectRankedSearchWithCursorLimit() throws Exception {
+        // neither the cursor walk nor the filtered search takes 'q', so it must not be dropped
+        mockMvc.perform(get("/api/v1/books/search").param("q", "nothing like it")
+                .param("limit", "20")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/books/search").param("q", "test"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books/search").param("limit", "20"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void shouldWalkOverdueReportWithCursor() throws Exception {
+        Book first = bookRepository.findAll().get(0);
+        Book second = new Book();
+        second.setTitle("Another Book");
+        second.setAuthor("Another Author");
+        second.setGenre("Fiction");
+        second.setIsbn("1234567891");
+        second.setPublicationDate(LocalDate.of(2021, 1, 1));
+        second.setAvailable(true);
+        bookRepository.save(second);
+        User patron = userRepository.save(User.builder().name("patron")
+                .email("overdue@example.com").password("password").role(Role.PATRON).build());
+        // two late loans of one book must still report it once
+        for (Book book : new Book[] {first, first, second}) {
+            borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                    .status(BorrowStatus.BORROWED).borrowDate(LocalDate.now().minusDays(20))
+                    .dueDate(LocalDate.now().minusDays(6)).build());
+        }
+
+        String body = mockMvc.perform(get("/api/v1/books/reports/overdue").param("limit", "1"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Another Book")))
+                .andExpect(jsonPath("$.hasNext", is(true))).andReturn().getResponse()
+                .getContentAsString();
+        String next = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/books/reports/overdue").param("limit", "1")
+                .param("after", next)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Test Book")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        mockMvc.perform(get("/api/v1/books/reports/overdue")).andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void shouldStreamOverdueReportAsNdjson() throws Exception {
+        Book book = bookRepository.findAll().get(0);
+        User patron = userRepository.save(User.builder().name("patron")
+                .email("overdue-stream@example.com").password("password").role(Role.PATRON)
+                .build());
+        borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                .status(BorrowStatus.OVERDUE).borrowDate(LocalDate.now().minusDays(20))
+                .dueDate(LocalDate.now().minusDays(6)).build());
+        // the stream is read on another thread, so the fixture has to be committed first
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            MvcResult result = mockMvc.perform(get("/api/v1/books/reports/overdue")
+                    .accept(MediaType.APPLICATION_NDJSON)).andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(containsString("\"title\":\"Test Book\"")));
+        } finally {
+            borrowRepository.deleteAll();
+            bookRepository.deleteAll();
+            userRepository.delete(patron);
+        }
+    }
 }
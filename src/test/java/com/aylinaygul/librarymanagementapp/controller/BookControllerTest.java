@@ -2,11 +2,16 @@ package com.aylinaygul.librarymanagementapp.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -16,11 +21,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetedPage;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
 import com.aylinaygul.librarymanagementapp.service.BookService;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,51 +52,133 @@ public class BookControllerTest {
     @Test
     void shouldGetAllBooks() {
         BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "Test Book Title",
-                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true, null);
+                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true);
 
         List<BookResponse> bookResponseList = Collections.singletonList(bookResponse);
 
-        when(bookService.getAllBooks()).thenReturn(bookResponseList);
+        when(bookService.getCatalogVersion()).thenReturn("abc-7");
+        when(bookService.getAllBooks(false)).thenReturn(bookResponseList);
 
-        ResponseEntity<List<BookResponse>> response = bookController.getAllBooks();
+        ResponseEntity<List<BookResponse>> response =
+                bookController.getAllBooks(null, request(null));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"abc-7\"", response.getHeaders().getETag());
         assertFalse(response.getBody().isEmpty());
         assertEquals(bookResponseList, response.getBody());
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenCatalogUnchanged() {
+        when(bookService.getCatalogVersion()).thenReturn("abc-7");
+
+        ResponseEntity<List<BookResponse>> response =
+                bookController.getAllBooks(null, request("\"abc-7\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(bookService, never()).getAllBooks(anyBoolean());
+    }
+
+    @Test
+    void shouldTagRepresentationsWithRecordsSeparately() {
+        when(bookService.getCatalogVersion()).thenReturn("abc-7");
+        when(bookService.getAllBooks(true)).thenReturn(List.of());
+
+        ResponseEntity<List<BookResponse>> response =
+                bookController.getAllBooks(List.of("records"), request("\"abc-7\""));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"abc-7-records\"", response.getHeaders().getETag());
+    }
+
     @Test
     void shouldGetBookById() {
         UUID bookId = UUID.randomUUID();
         BookResponse bookResponse = new BookResponse(bookId, "Test Book Title", "Test Author",
-                "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true, null);
+                "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true);
 
-        when(bookService.getBookById(bookId)).thenReturn(bookResponse);
+        when(bookService.getBookVersion(bookId)).thenReturn(3L);
+        when(bookService.getBookById(bookId, false)).thenReturn(bookResponse);
 
-        ResponseEntity<BookResponse> response = bookController.getBookById(bookId);
+        ResponseEntity<BookResponse> response =
+                bookController.getBookById(bookId, null, request("\"2\""));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
         assertEquals(bookResponse, response.getBody());
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenBookUnchanged() {
+        UUID bookId = UUID.randomUUID();
+
+        when(bookService.getBookVersion(bookId)).thenReturn(3L);
+
+        ResponseEntity<BookResponse> response =
+                bookController.getBookById(bookId, null, request("\"3\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(bookService, never()).getBookById(bookId, false);
+    }
+
     @Test
     void shouldReturnNotFoundWhenBookDoesNotExist() {
         UUID bookId = UUID.randomUUID();
 
-        when(bookService.getBookById(bookId)).thenReturn(null);
+        when(bookService.getBookVersion(bookId)).thenReturn(null);
 
-        ResponseEntity<BookResponse> response = bookController.getBookById(bookId);
+        ResponseEntity<BookResponse> response =
+                bookController.getBookById(bookId, null, request(null));
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    private static WebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    void shouldGetBookByIsbn() {
+        BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "Test Book Title",
+                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true);
+
+        when(bookService.getBookByIsbn("1234567890")).thenReturn(bookResponse);
+
+        ResponseEntity<BookResponse> response = bookController.getBookByIsbn("1234567890");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(bookResponse, response.getBody());
+        assertEquals(HttpStatus.NOT_FOUND,
+                bookController.getBookByIsbn("0987654321").getStatusCode());
+    }
+
+    @Test
+    void shouldGetAvailability() {
+        UUID bookId = UUID.randomUUID();
+        BookAvailabilityResponse availability = new BookAvailabilityResponse(bookId, true, 2, 3);
+
+        when(bookService.getAvailability(bookId)).thenReturn(availability);
+
+        ResponseEntity<BookAvailabilityResponse> response = bookController.getAvailability(bookId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(availability, response.getBody());
+        assertEquals(HttpStatus.NOT_FOUND,
+                bookController.getAvailability(UUID.randomUUID()).getStatusCode());
+    }
+
     @Test
     void shouldCreateBook() {
         BookRequest bookRequest = new BookRequest("Test Book Title", "Test Author", "Fiction",
-                "1234567890", LocalDate.of(2020, 1, 1), true);
+                "1234567890", LocalDate.of(2020, 1, 1), true, null);
 
         BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "Test Book Title",
-                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true, null);
+                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true);
 
         when(bookService.createBook(bookRequest)).thenReturn(bookResponse);
 
@@ -93,10 +192,10 @@ public class BookControllerTest {
     void shouldUpdateBook() {
         UUID bookId = UUID.randomUUID();
         BookRequest bookRequest = new BookRequest("Updated Book Title", "Updated Author",
-                "Non-Fiction", "0987654321", LocalDate.of(2021, 1, 1), false);
+                "Non-Fiction", "0987654321", LocalDate.of(2021, 1, 1), false, null);
 
         BookResponse bookResponse = new BookResponse(bookId, "Updated Book Title", "Updated Author",
-                "Non-Fiction", "0987654321", LocalDate.of(2021, 1, 1), false, null);
+                "Non-Fiction", "0987654321", LocalDate.of(2021, 1, 1), false);
 
         when(bookService.updateBook(bookId, bookRequest)).thenReturn(bookResponse);
 
@@ -125,20 +224,113 @@ public class BookControllerTest {
         int size = 10;
 
         BookResponse bookResponse = new BookResponse(UUID.randomUUID(), title, author, genre, isbn,
-                LocalDate.of(2020, 1, 1), true, null);
+                LocalDate.of(2020, 1, 1), true);
 
         List<BookResponse> bookResponseList = Collections.singletonList(bookResponse);
         Page<BookResponse> pageResult = new PageImpl<>(bookResponseList);
 
+        FacetsResponse facets = new FacetsResponse(Map.of(genre, 1L), Map.of(author, 1L), 1, 0);
+
         when(bookService.searchBooks(title, author, isbn, genre, page, size))
                 .thenReturn(pageResult);
+        when(bookService.getFacets(10)).thenReturn(facets);
 
-        ResponseEntity<Page<BookResponse>> response =
-                bookController.searchBooks(title, author, isbn, genre, page, size);
+        ResponseEntity<FacetedPage<BookResponse>> response =
+                bookController.searchBooks(title, author, isbn, genre, page, size, 10);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(response.getBody().isEmpty());
         assertEquals(bookResponseList, response.getBody().getContent());
+        assertEquals(facets, response.getBody().getFacets());
     }
 
+    @Test
+    void shouldFuzzySearchBooks() {
+        BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "War and Peace",
+                "Leo Tolstoy", "Classic", "1234567890", LocalDate.of(1869, 1, 1), true);
+        FacetsResponse facets = new FacetsResponse(Map.of(), Map.of(), 1, 0);
+
+        when(bookService.fuzzySearchBooks("tolstoi", 0, 10))
+                .thenReturn(new PageImpl<>(List.of(bookResponse)));
+        when(bookService.getFacets(10)).thenReturn(facets);
+
+        ResponseEntity<FacetedPage<BookResponse>> response =
+                bookController.fuzzySearchBooks("tolstoi", 0, 10, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(bookResponse), response.getBody().getContent());
+    }
+
+    @Test
+    void shouldRankedSearchBooks() {
+        BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "War and Peace",
+                "Leo Tolstoy", "Classic", "1234567890", LocalDate.of(1869, 1, 1), true);
+        FacetsResponse facets = new FacetsResponse(Map.of(), Map.of(), 1, 0);
+
+        when(bookService.rankedSearchBooks("peace", 0, 10))
+                .thenReturn(new PageImpl<>(List.of(bookResponse)));
+        when(bookService.getFacets(10)).thenReturn(facets);
+
+        ResponseEntity<FacetedPage<BookResponse>> response =
+                bookController.rankedSearchBooks("peace", 0, 10, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(bookResponse), response.getBody().getContent());
+        assertEquals(facets, response.getBody().getFacets());
+    }
+
+    @Test
+    void shouldSuggest() {
+        List<SuggestionResponse> suggestions = List.of(
+                new SuggestionResponse("Leo Tolstoy", SuggestionResponse.Type.AUTHOR, 4));
+
+        when(bookService.suggest("leo", 10)).thenReturn(suggestions);
+
+        ResponseEntity<List<SuggestionResponse>> response = bookController.suggest("leo", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(suggestions, response.getBody());
+    }
+
+    @Test
+    void shouldGetPopularBooksReport() {
+        List<PopularBookResponse> popular = List.of(
+                new PopularBookResponse(UUID.randomUUID(), "War and Peace", "Leo Tolstoy", 7, 1));
+
+        when(bookService.getPopularBooks(PopularityWindow.WEEK, 10)).thenReturn(popular);
+
+        ResponseEntity<List<PopularBookResponse>> response =
+                bookController.getPopularBooksReport(PopularityWindow.WEEK, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(popular, response.getBody());
+    }
+
+    @Test
+    void shouldGetFacets() {
+        FacetsResponse facets = new FacetsResponse(Map.of("Fiction", 2L), Map.of(), 1, 1);
+
+        when(bookService.getFacets(5)).thenReturn(facets);
+
+        ResponseEntity<FacetsResponse> response = bookController.getFacets(5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(facets, response.getBody());
+    }
+
+    @Test
+    void shouldGetBooksAfterCursor() {
+        BookResponse bookResponse = new BookResponse(UUID.randomUUID(), "Test Book Title",
+                "Test Author", "Fiction", "1234567890", LocalDate.of(2020, 1, 1), true);
+        CursorPageResponse<BookResponse> slice =
+                new CursorPageResponse<>(List.of(bookResponse), true, "next");
+
+        when(bookService.getBooksAfter("cursor", 1)).thenReturn(slice);
+
+        ResponseEntity<CursorPageResponse<BookResponse>> response =
+                bookController.getBooksAfter("cursor", 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(slice, response.getBody());
+    }
 }
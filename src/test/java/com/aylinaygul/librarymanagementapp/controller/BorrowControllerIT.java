@@ -1,12 +1,15 @@
 package com.aylinaygul.librarymanagementapp.controller;
 
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
 import com.aylinaygul.librarymanagementapp.model.entity.Role;
 import com.aylinaygul.librarymanagementapp.model.entity.User;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
 import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.UserRepository;
 import com.aylinaygul.librarymanagementapp.security.JwtUtil;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +24,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -42,6 +47,9 @@ public class BorrowControllerIT {
         @Autowired
         private BookRepository bookRepository;
 
+        @Autowired
+        private BorrowRepository borrowRepository;
+
         private String patronToken;
         private UUID bookId;
 
@@ -82,4 +90,131 @@ public class BorrowControllerIT {
                                 .contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(status().isOk());
         }
+
+        @Test
+        void shouldBorrowAndReturnBooksInBatch() throws Exception {
+                UUID secondBookId = bookRepository.save(Book.builder().title("Second Book")
+                                .author("Author").genre("Fiction").isbn("1234567894444")
+                                .publicationDate(LocalDate.of(2020, 1, 1)).available(true).build())
+                                .getId();
+                String body = "{\"bookIds\":[\"" + bookId + "\",\"" + secondBookId + "\",\""
+                                + bookId + "\"]}";
+
+                mockMvc.perform(post("/api/v1/borrow/batch")
+                                .header("Authorization", patronToken)
+                                .contentType(MediaType.APPLICATION_JSON).content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(2))
+                                .andExpect(jsonPath("$.items[0].outcome").value("BORROWED"))
+                                .andExpect(jsonPath("$.items[2].outcome").value("DUPLICATE"));
+
+                mockMvc.perform(post("/api/v1/borrow/batch")
+                                .header("Authorization", patronToken)
+                                .contentType(MediaType.APPLICATION_JSON).content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(0))
+                                .andExpect(jsonPath("$.items[0].outcome").value("ALREADY_BORROWED"));
+
+                mockMvc.perform(post("/api/v1/borrow/return/batch")
+                                .header("Authorization", patronToken)
+                                .contentType(MediaType.APPLICATION_JSON).content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(2))
+                                .andExpect(jsonPath("$.items[1].outcome").value("RETURNED"));
+        }
+
+        @Test
+        void shouldRejectEmptyBatch() throws Exception {
+                mockMvc.perform(post("/api/v1/borrow/batch")
+                                .header("Authorization", patronToken)
+                                .contentType(MediaType.APPLICATION_JSON).content("{\"bookIds\":[]}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReserveReturnedCopyForFirstHold() throws Exception {
+                User waiting = userRepository.save(User.builder().name("waiting")
+                                .email("waiting@example.com").password("password")
+                                .role(Role.PATRON).build());
+                String waitingToken = "Bearer " + jwtUtil.generateToken(waiting);
+
+                mockMvc.perform(post("/api/v1/borrow/" + bookId).header("Authorization",
+                                patronToken)).andExpect(status().isOk());
+                mockMvc.perform(post("/api/v1/borrow/holds/" + bookId).header("Authorization",
+                                waitingToken)).andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("WAITING"))
+                                .andExpect(jsonPath("$.position").value(1));
+
+                mockMvc.perform(post("/api/v1/borrow/return/" + bookId).header("Authorization",
+                                patronToken)).andExpect(status().isOk());
+                mockMvc.perform(get("/api/v1/borrow/holds").header("Authorization",
+                                waitingToken)).andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].status").value("READY"))
+                                .andExpect(jsonPath("$[0].expiresAt").exists());
+
+                // the returned copy is reserved, so it is not back on the shelf
+                mockMvc.perform(post("/api/v1/borrow/holds/" + bookId).header("Authorization",
+                                patronToken)).andExpect(status().isOk())
+                                .andExpect(jsonPath("$.position").value(1));
+
+                mockMvc.perform(post("/api/v1/borrow/" + bookId).header("Authorization",
+                                waitingToken)).andExpect(status().isOk());
+                mockMvc.perform(get("/api/v1/borrow/holds").header("Authorization",
+                                waitingToken)).andExpect(status().isOk())
+                                .andExpect(jsonPath("$").isEmpty());
+        }
+
+        @Test
+        void shouldRefuseHoldOnBookOnTheShelf() throws Exception {
+                mockMvc.perform(post("/api/v1/borrow/holds/" + bookId).header("Authorization",
+                                patronToken)).andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldWalkOwnHistoryWithCursorAndFilters() throws Exception {
+                User patron = userRepository.findByEmail("patron@example.com").orElseThrow();
+                Book book = bookRepository.findById(bookId).orElseThrow();
+                for (int daysAgo : new int[] {30, 10, 5}) {
+                        borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                                        .borrowDate(LocalDate.now().minusDays(daysAgo))
+                                        .dueDate(LocalDate.now().minusDays(daysAgo).plusDays(14))
+                                        .status(daysAgo == 10 ? BorrowStatus.BORROWED
+                                                        : BorrowStatus.RETURNED)
+                                        .build());
+                }
+
+                String body = mockMvc.perform(get("/api/v1/borrow/history")
+                                .header("Authorization", patronToken).param("limit", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(2))
+                                .andExpect(jsonPath("$.content[0].borrowDate")
+                                                .value(LocalDate.now().minusDays(5).toString()))
+                                .andExpect(jsonPath("$.hasNext").value(true)).andReturn()
+                                .getResponse().getContentAsString();
+                String next = JsonPath.read(body, "$.nextCursor");
+
+                mockMvc.perform(get("/api/v1/borrow/history").header("Authorization", patronToken)
+                                .param("limit", "2").param("after", next))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(1))
+                                .andExpect(jsonPath("$.content[0].borrowDate")
+                                                .value(LocalDate.now().minusDays(30).toString()))
+                                .andExpect(jsonPath("$.hasNext").value(false));
+
+                mockMvc.perform(get("/api/v1/borrow/history").header("Authorization", patronToken)
+                                .param("limit", "10").param("status", "RETURNED")
+                                .param("from", LocalDate.now().minusDays(20).toString()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(1))
+                                .andExpect(jsonPath("$.content[0].borrowDate")
+                                                .value(LocalDate.now().minusDays(5).toString()));
+        }
+
+        @Test
+        void shouldRejectInvertedHistoryRange() throws Exception {
+                mockMvc.perform(get("/api/v1/borrow/history").header("Authorization", patronToken)
+                                .param("limit", "10").param("from", "2024-02-01")
+                                .param("to", "2024-01-01"))
+                                .andExpect(status().isBadRequest());
+        }
 }
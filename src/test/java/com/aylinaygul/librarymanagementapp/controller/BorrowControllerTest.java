@@ -3,14 +3,20 @@ package com.aylinaygul.librarymanagementapp.controller;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import com.aylinaygul.librarymanagementapp.model.dto.request.BatchBorrowRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.HoldStatus;
 import com.aylinaygul.librarymanagementapp.model.entity.User;
 import com.aylinaygul.librarymanagementapp.service.BorrowService;
+import com.aylinaygul.librarymanagementapp.service.HoldService;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +36,9 @@ public class BorrowControllerTest {
     @Mock
     private BorrowService borrowService;
 
+    @Mock
+    private HoldService holdService;
+
     @Mock
     private Authentication authentication;
 
@@ -80,6 +89,63 @@ public class BorrowControllerTest {
         verify(borrowService).returnBook(userId, bookId);
     }
 
+    @Test
+    void shouldBorrowBooksInBatch() {
+        initSecurityContext();
+
+        BatchBorrowResponse batch = new BatchBorrowResponse(1, 0, List.of(
+                new BatchBorrowResponse.Item(bookId, BatchBorrowResponse.Outcome.BORROWED)));
+        when(borrowService.borrowBooks(userId, List.of(bookId))).thenReturn(batch);
+
+        ResponseEntity<BatchBorrowResponse> result =
+                borrowController.borrowBooks(new BatchBorrowRequest(List.of(bookId)));
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(batch, result.getBody());
+    }
+
+    @Test
+    void shouldReturnBooksInBatch() {
+        initSecurityContext();
+
+        BatchBorrowResponse batch = new BatchBorrowResponse(0, 1, List.of(
+                new BatchBorrowResponse.Item(bookId, BatchBorrowResponse.Outcome.NOT_BORROWED)));
+        when(borrowService.returnBooks(userId, List.of(bookId))).thenReturn(batch);
+
+        ResponseEntity<BatchBorrowResponse> result =
+                borrowController.returnBooks(new BatchBorrowRequest(List.of(bookId)));
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(batch, result.getBody());
+    }
+
+    @Test
+    void shouldPlaceAndCancelHold() {
+        initSecurityContext();
+
+        HoldResponse hold = new HoldResponse(UUID.randomUUID(), bookId, "Test Book",
+                HoldStatus.WAITING, 2L, Instant.now(), null);
+        when(holdService.placeHold(userId, bookId)).thenReturn(hold);
+
+        ResponseEntity<HoldResponse> placed = borrowController.placeHold(bookId);
+        ResponseEntity<String> cancelled = borrowController.cancelHold(bookId);
+
+        assertEquals(hold, placed.getBody());
+        assertEquals("Hold cancelled successfully.", cancelled.getBody());
+        verify(holdService).cancelHold(userId, bookId);
+    }
+
+    @Test
+    void shouldGetOwnHolds() {
+        initSecurityContext();
+
+        List<HoldResponse> holds = List.of(new HoldResponse(UUID.randomUUID(), bookId,
+                "Test Book", HoldStatus.READY, null, Instant.now(), Instant.now()));
+        when(holdService.getHolds(userId)).thenReturn(holds);
+
+        assertEquals(holds, borrowController.getOwnHolds().getBody());
+    }
+
     @Test
     void shouldGetOwnHistory() {
         initSecurityContext();
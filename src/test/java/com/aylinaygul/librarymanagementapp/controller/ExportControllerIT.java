@@ -0,0 +1,89 @@
+package com.aylinaygul.librarymanagementapp.controller;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "LIBRARIAN")
+public class ExportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User patron;
+
+    @BeforeEach
+    void setup() {
+        Book book = bookRepository.save(Book.builder().title("Exported Book").author("Author")
+                .genre("Fiction").isbn("1234567890").publicationDate(LocalDate.of(2020, 1, 1))
+                .available(false).build());
+        patron = userRepository.save(User.builder().name("patron").email("export@example.com")
+                .password("password").role(Role.PATRON).build());
+        borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                .status(BorrowStatus.BORROWED).borrowDate(LocalDate.of(2024, 3, 1))
+                .dueDate(LocalDate.of(2024, 3, 15)).build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        borrowRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.delete(patron);
+    }
+
+    @Test
+    void shouldExportBooksAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/exports/books"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("books.csv")))
+                .andExpect(content().string(containsString(
+                        "Exported Book,Author,Fiction,1234567890,2020-01-01,false")));
+    }
+
+    @Test
+    void shouldExportBorrowRecordsAsNdjson() throws Exception {
+        MvcResult result = mockMvc
+                .perform(get("/api/v1/exports/borrow-records").param("format", "ndjson"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"bookTitle\":\"Exported Book\"")))
+                .andExpect(content().string(containsString("\"userId\":\"" + patron.getId())));
+    }
+}
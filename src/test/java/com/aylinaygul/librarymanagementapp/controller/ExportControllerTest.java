@@ -0,0 +1,101 @@
+package com.aylinaygul.librarymanagementapp.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportControllerTest {
+
+    @Mock
+    private ExportService exportService;
+
+    private ExportController exportController;
+
+    private final UUID bookId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        exportController = new ExportController(exportService, new ObjectMapper()
+                .findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Test
+    void shouldExportBooksAsCsv() throws Exception {
+        stubBooks();
+
+        ResponseEntity<StreamingResponseBody> response = exportController.exportBooks("csv", false);
+
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"books.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("id,title,author,genre,isbn,publicationDate,available,availableCopies,totalCopies\n"
+                + bookId
+                + ",\"War, and Peace\",Leo Tolstoy,Classic,1111111111,1869-01-01,true,1,1\n",
+                write(response.getBody()));
+    }
+
+    @Test
+    void shouldExportBooksAsGzippedNdjson() throws Exception {
+        stubBooks();
+
+        ResponseEntity<StreamingResponseBody> response =
+                exportController.exportBooks("NDJSON", true);
+
+        assertEquals("attachment; filename=\"books.ndjson.gz\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        String body = new String(
+                new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("{\"id\":\"" + bookId
+                + "\",\"title\":\"War, and Peace\",\"author\":\"Leo Tolstoy\",\"genre\":\"Classic\",\"isbn\":\"1111111111\",\"publicationDate\":\"1869-01-01\",\"available\":true,\"availableCopies\":1,\"totalCopies\":1}\n",
+                body);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportController.exportBorrowRecords("xml", false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBooks() {
+        doAnswer(invocation -> {
+            ((Consumer<BookResponse>) invocation.getArgument(0)).accept(new BookResponse(bookId,
+                    "War, and Peace", "Leo Tolstoy", "Classic", "1111111111",
+                    LocalDate.of(1869, 1, 1), true, 1, 1));
+            return null;
+        }).when(exportService).exportBooks(any());
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
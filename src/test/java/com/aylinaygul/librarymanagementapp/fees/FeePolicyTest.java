@@ -0,0 +1,55 @@
+package com.aylinaygul.librarymanagementapp.fees;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+public class FeePolicyTest {
+
+    private static final LocalDate DUE = LocalDate.of(2024, 3, 1);
+
+    private final FeePolicy policy =
+            new FeePolicy(new BigDecimal("0.25"), Duration.ofDays(2), new BigDecimal("5.00"));
+
+    @Test
+    void feeFor_ShouldWaiveLoansReturnedWithinGracePeriod() {
+        assertEquals(0, policy.feeFor(DUE, DUE.minusDays(3)));
+        assertEquals(0, policy.feeFor(DUE, DUE));
+        assertEquals(0, policy.feeFor(DUE, DUE.plusDays(2)));
+    }
+
+    @Test
+    void feeFor_ShouldChargeEveryDaySinceDueDateOnceGraceIsOver() {
+        assertEquals(75, policy.feeFor(DUE, DUE.plusDays(3)));
+        assertEquals(250, policy.feeFor(DUE, DUE.plusDays(10)));
+    }
+
+    @Test
+    void feeFor_ShouldStopAtCap() {
+        assertEquals(500, policy.feeFor(DUE, DUE.plusDays(20)));
+        assertEquals(500, policy.feeFor(DUE, DUE.plusYears(3)));
+    }
+
+    @Test
+    void chargeableBefore_ShouldMatchFirstChargedDueDate() {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        LocalDate before = policy.chargeableBefore(today);
+
+        assertTrue(policy.feeFor(before.minusDays(1), today) > 0);
+        assertEquals(0, policy.feeFor(before, today));
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FeePolicy(new BigDecimal("0.125"), Duration.ZERO, BigDecimal.TEN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FeePolicy(new BigDecimal("-1"), Duration.ZERO, BigDecimal.TEN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FeePolicy(BigDecimal.ONE, Duration.ofDays(-1), BigDecimal.TEN));
+    }
+}
@@ -0,0 +1,202 @@
+package com.aylinaygul.librarymanagementapp.journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CirculationJournalTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    private final List<CirculationJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (CirculationJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void shouldReadBackDurableEntriesInOrder() throws Exception {
+        CirculationJournal journal = open(DataSize.ofMegabytes(1));
+        UUID bookId = UUID.randomUUID();
+
+        CompletableFuture<Long> created = journal.append(JournalEntry.of(new BookChangedEvent(
+                bookId, null, new BookSnapshot("Title", "Author", "Fiction", "123", true)),
+                Instant.EPOCH));
+        CompletableFuture<Long> borrowed = journal.append(JournalEntry.of(new LoanEvent(
+                LoanEvent.Type.BORROWED, UUID.randomUUID(), UUID.randomUUID(), bookId,
+                LocalDate.of(2024, 1, 1)), Instant.EPOCH));
+
+        assertEquals(1L, created.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, borrowed.get(5, TimeUnit.SECONDS));
+        assertEquals(2, journal.lastSequence());
+
+        List<JournalRecord> records = journal.read(0, 10);
+        assertEquals(List.of(1L, 2L), records.stream().map(JournalRecord::sequence).toList());
+        assertEquals(JournalEntry.Type.BOOK_CREATED, records.get(0).entry().type());
+        assertEquals("Title", records.get(0).entry().book().title());
+        assertEquals(1, records.get(0).entry().availableCopiesDelta());
+        assertEquals(JournalEntry.Type.LOAN_BORROWED, records.get(1).entry().type());
+        assertEquals(List.of(2L), journal.read(1, 10).stream().map(JournalRecord::sequence)
+                .toList());
+        assertTrue(journal.read(2, 10).isEmpty());
+    }
+
+    @Test
+    void shouldSumCopyDeltasRegardlessOfJournalOrder() {
+        BookSnapshot three = new BookSnapshot("Title", "Author", "Fiction", "123", true, 3, 3);
+        UUID bookId = UUID.randomUUID();
+        JournalEntry first = JournalEntry.of(new BookChangedEvent(bookId, three,
+                three.withAvailableCopies(2)), Instant.EPOCH);
+        JournalEntry second = JournalEntry.of(new BookChangedEvent(bookId,
+                three.withAvailableCopies(2), three.withAvailableCopies(1)), Instant.EPOCH);
+
+        // The second borrow's entry is journaled first; its snapshot is the newer one.
+        int available = three.availableCopies();
+        for (JournalEntry entry : List.of(second, first)) {
+            available += entry.availableCopiesDelta();
+        }
+        assertEquals(1, available);
+        assertEquals(0, first.totalCopiesDelta());
+    }
+
+    @Test
+    void shouldRollOverSegmentsAndReplayAcrossThem() throws Exception {
+        CirculationJournal journal = open(DataSize.ofBytes(512));
+        CompletableFuture<Long> last = null;
+        for (int i = 0; i < 20; i++) {
+            last = journal.append(loan(LoanEvent.Type.RETURNED));
+        }
+        assertEquals(20L, last.get(5, TimeUnit.SECONDS));
+        assertTrue(segmentFiles().size() > 1);
+
+        List<Long> replayed = new ArrayList<>();
+        assertEquals(15, journal.replay(5, record -> replayed.add(record.sequence())));
+        assertEquals(6L, replayed.get(0));
+        assertEquals(20L, replayed.get(replayed.size() - 1));
+        assertEquals(List.of(11L, 12L), journal.read(10, 2).stream()
+                .map(JournalRecord::sequence).toList());
+    }
+
+    @Test
+    void shouldDropTornTailAndContinueSequenceAfterRestart() throws Exception {
+        CirculationJournal journal = open(DataSize.ofMegabytes(1));
+        journal.append(loan(LoanEvent.Type.BORROWED));
+        journal.append(loan(LoanEvent.Type.RETURNED)).get(5, TimeUnit.SECONDS);
+        journal.close();
+        opened.clear();
+
+        // a third frame whose body never made it to disk
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer, 0);
+            int end = 0;
+            while (buffer.getInt(end) != 0) {
+                end += 16 + buffer.getInt(end);
+            }
+            channel.write(ByteBuffer.allocate(8).putInt(0, 40).putInt(4, 1234), end);
+        }
+
+        CirculationJournal reopened = open(DataSize.ofMegabytes(1));
+        assertEquals(2, reopened.lastSequence());
+        assertEquals(3L, reopened.append(loan(LoanEvent.Type.OVERDUE)).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(JournalEntry.Type.LOAN_BORROWED, JournalEntry.Type.LOAN_RETURNED,
+                JournalEntry.Type.LOAN_OVERDUE), reopened.read(0, 10).stream()
+                        .map(record -> record.entry().type()).toList());
+    }
+
+    @Test
+    void shouldStopReadingAtCorruptedRecord() throws Exception {
+        CirculationJournal journal = open(DataSize.ofMegabytes(1));
+        journal.append(loan(LoanEvent.Type.BORROWED));
+        journal.append(loan(LoanEvent.Type.RETURNED)).get(5, TimeUnit.SECONDS);
+
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            int second = 16 + length.getInt(0);
+            // flip a payload byte of the second record
+            ByteBuffer payload = ByteBuffer.allocate(1);
+            channel.read(payload, second + 20);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~payload.get(0)}), second + 20);
+        }
+
+        assertEquals(List.of(1L), journal.read(0, 10).stream().map(JournalRecord::sequence)
+                .toList());
+    }
+
+    @Test
+    void shouldRefuseSecondWriterOnSameDirectory() throws Exception {
+        open(DataSize.ofMegabytes(1));
+        CirculationJournal second = journal(DataSize.ofMegabytes(1));
+
+        assertThrows(IllegalStateException.class, second::open);
+    }
+
+    @Test
+    void shouldRejectInvalidLimit() throws Exception {
+        CirculationJournal journal = open(DataSize.ofMegabytes(1));
+
+        assertThrows(IllegalArgumentException.class, () -> journal.read(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> journal.read(0, CirculationJournal.MAX_READ_LIMIT + 1));
+    }
+
+    private CirculationJournal open(DataSize segmentSize) throws IOException {
+        CirculationJournal journal = journal(segmentSize);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private CirculationJournal journal(DataSize segmentSize) {
+        return new CirculationJournal(directory, segmentSize, Duration.ofMillis(1), MAPPER,
+                new SimpleMeterRegistry());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static JournalEntry loan(LoanEvent.Type type) {
+        return JournalEntry.of(new LoanEvent(type, UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), LocalDate.of(2024, 1, 1)), Instant.EPOCH);
+    }
+}
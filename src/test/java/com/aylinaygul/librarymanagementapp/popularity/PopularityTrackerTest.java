@@ -0,0 +1,158 @@
+package com.aylinaygul.librarymanagementapp.popularity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+public class PopularityTrackerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final UUID classic = UUID.randomUUID();
+    private final UUID bestseller = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setup() {
+        when(bookRepository.findSummariesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new BookResponse(id, id.equals(classic) ? "Classic"
+                    : "Bestseller", "Author", "Fiction", "123", LocalDate.of(2020, 1, 1), true))
+                    .toList();
+        });
+    }
+
+    @Test
+    void shouldRankBorrowsOfEachRollingWindow() {
+        PopularityTracker tracker = tracker();
+        tracker.load();
+        record(tracker, classic, 5);
+        clock.advance(Duration.ofDays(10));
+        record(tracker, bestseller, 3);
+        record(tracker, classic, 1);
+
+        assertTrue(tracker.top(PopularityWindow.WEEK, 10).isEmpty());
+        tracker.refresh();
+
+        assertEquals(List.of(new PopularBookResponse(bestseller, "Bestseller", "Author", 3, 0),
+                new PopularBookResponse(classic, "Classic", "Author", 1, 0)),
+                tracker.top(PopularityWindow.WEEK, 10));
+        assertEquals(List.of(classic, bestseller), ids(tracker.top(PopularityWindow.MONTH, 10)));
+        assertEquals(6, tracker.top(PopularityWindow.MONTH, 1).get(0).borrows());
+
+        // the first day's borrows have left the month
+        clock.advance(Duration.ofDays(25));
+        tracker.refresh();
+        assertEquals(List.of(bestseller, classic), ids(tracker.top(PopularityWindow.MONTH, 10)));
+        assertTrue(tracker.top(PopularityWindow.WEEK, 10).isEmpty());
+    }
+
+    @Test
+    void shouldSurviveRestartThroughSnapshot() {
+        PopularityTracker tracker = tracker();
+        tracker.load();
+        record(tracker, classic, 2);
+        record(tracker, bestseller, 4);
+        tracker.close();
+
+        PopularityTracker restarted = tracker();
+        restarted.load();
+
+        assertEquals(List.of(bestseller, classic), ids(restarted.top(PopularityWindow.WEEK, 10)));
+        assertEquals(4, restarted.top(PopularityWindow.WEEK, 1).get(0).borrows());
+    }
+
+    @Test
+    void shouldDropBooksDeletedSinceTheirBorrows() {
+        doReturn(List.of()).when(bookRepository).findSummariesByIdIn(any());
+        PopularityTracker tracker = tracker();
+        record(tracker, classic, 1);
+
+        tracker.refresh();
+
+        assertTrue(tracker.top(PopularityWindow.MONTH, 10).isEmpty());
+    }
+
+    @Test
+    void shouldStartEmptyFromUnreadableSnapshot() throws IOException {
+        Files.writeString(directory.resolve("popular.json"), "{not json");
+        PopularityTracker tracker = tracker();
+
+        tracker.load();
+
+        assertTrue(tracker.top(PopularityWindow.WEEK, 10).isEmpty());
+    }
+
+    private PopularityTracker tracker() {
+        return new PopularityTracker(bookRepository, MAPPER, clock,
+                directory.resolve("popular.json"), PopularityTracker.MAX_LIMIT);
+    }
+
+    private static void record(PopularityTracker tracker, UUID bookId, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(bookId);
+        }
+    }
+
+    private static List<UUID> ids(List<PopularBookResponse> books) {
+        return books.stream().map(PopularBookResponse::bookId).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.aylinaygul.librarymanagementapp.popularity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.popularity.SpaceSaving.Estimate;
+
+public class SpaceSavingTest {
+
+    @Test
+    void shouldCountExactlyWhileUnderCapacity() {
+        SpaceSaving summary = new SpaceSaving(10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            summary.offer(first);
+        }
+        summary.offer(second);
+
+        assertEquals(List.of(new Estimate(first, 3, 0), new Estimate(second, 1, 0)),
+                summary.estimates());
+    }
+
+    @Test
+    void shouldKeepHeavyHittersOfSkewedStreamWithinErrorBounds() {
+        SpaceSaving summary = new SpaceSaving(20);
+        List<UUID> heavy = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Map<UUID, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            UUID key = i % 4 != 3 ? heavy.get(i % 4) : UUID.randomUUID();
+            if (random.nextInt(10) == 0) {
+                key = heavy.get(0);
+            }
+            summary.offer(key);
+            truth.merge(key, 1L, Long::sum);
+        }
+
+        List<Estimate> estimates = summary.estimates();
+        assertEquals(20, summary.size());
+        assertEquals(heavy.get(0), estimates.get(0).key());
+        assertTrue(estimates.subList(0, 3).stream().map(Estimate::key).toList()
+                .containsAll(heavy));
+        for (Estimate estimate : estimates) {
+            long actual = truth.get(estimate.key());
+            assertTrue(estimate.count() >= actual);
+            assertTrue(estimate.count() - estimate.error() <= actual);
+        }
+    }
+
+    @Test
+    void mergeShouldBoundKeysMissingFromFullSummaries() {
+        UUID common = UUID.randomUUID();
+        UUID rare = UUID.randomUUID();
+        SpaceSaving monday = new SpaceSaving(2);
+        SpaceSaving tuesday = new SpaceSaving(2);
+        for (int i = 0; i < 5; i++) {
+            monday.offer(common);
+            tuesday.offer(common);
+        }
+        monday.offer(rare);
+        monday.offer(rare);
+        tuesday.offer(UUID.randomUUID());
+        tuesday.offer(UUID.randomUUID());
+
+        List<Estimate> merged = SpaceSaving.merge(List.of(monday, tuesday), 2);
+
+        assertEquals(new Estimate(common, 10, 0), merged.get(0));
+        // tuesday's smallest counter is 2, so rare may have occurred twice there unseen
+        assertEquals(new Estimate(rare, 4, 2), merged.get(1));
+    }
+
+    @Test
+    void restoreShouldRebuildEqualSummary() {
+        SpaceSaving summary = new SpaceSaving(3);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keys.add(UUID.randomUUID());
+            for (int j = 0; j <= i; j++) {
+                summary.offer(keys.get(i));
+            }
+        }
+        SpaceSaving restored = new SpaceSaving(3);
+        summary.estimates().forEach(restored::restore);
+
+        assertEquals(summary.estimates(), restored.estimates());
+    }
+
+    @Test
+    void shouldRejectEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving(0));
+    }
+}
@@ -0,0 +1,134 @@
+package com.aylinaygul.librarymanagementapp.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookCursor;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+
+/**
+ * Runs the catalog queries as Hibernate renders them for PostgreSQL, against H2 in PostgreSQL
+ * mode. H2 accepts a SELECT DISTINCT ordered by an expression outside its select list, which
+ * PostgreSQL rejects, so the rendered statements are also checked for that rule.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postgres;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.aylinaygul.librarymanagementapp.repository.BookRepositoryPostgresIT$Statements"})
+@ActiveProfiles("test")
+@Transactional
+public class BookRepositoryPostgresIT {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Book dune;
+    private Book emma;
+
+    public static class Statements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @AfterEach
+    void checkStatements() {
+        for (String sql : Statements.SQL) {
+            assertFalse(sql.contains("select distinct") && sql.contains("order by"),
+                    () -> "PostgreSQL only orders a SELECT DISTINCT by selected columns: " + sql);
+        }
+        Statements.SQL.clear();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dune = bookRepository.save(book("Dune"));
+        emma = bookRepository.save(book("Emma"));
+        bookRepository.save(book("Walden"));
+        User patron = userRepository.save(User.builder().name("patron")
+                .email("postgres@example.com").password("password").role(Role.PATRON).build());
+        // two late loans of one book must still report it once
+        for (Book book : new Book[] {dune, dune, emma}) {
+            borrowRepository.save(BorrowRecord.builder().book(book).user(patron)
+                    .status(BorrowStatus.BORROWED).borrowDate(LocalDate.now().minusDays(20))
+                    .dueDate(LocalDate.now().minusDays(6)).build());
+        }
+    }
+
+    @Test
+    void shouldWalkOverdueBooksByCursor() {
+        Slice<BookResponse> first = bookRepository.findFirstOverdueSlice(PageRequest.of(0, 1));
+        assertEquals(List.of(dune.getId()), ids(first.getContent()));
+        assertTrue(first.hasNext());
+
+        BookCursor cursor = BookCursor.at(dune.getTitle(), dune.getId());
+        Slice<BookResponse> second = bookRepository.findOverdueSliceAfter(cursor.title(),
+                cursor.id(), PageRequest.of(0, 1));
+        assertEquals(List.of(emma.getId()), ids(second.getContent()));
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void shouldListAndStreamOverdueBooksOnce() {
+        assertEquals(2, bookRepository.findOverdueBooks().size());
+        try (Stream<BookResponse> books = bookRepository.streamOverdueBooks()) {
+            assertEquals(List.of(dune.getId(), emma.getId()), ids(books.toList()));
+        }
+    }
+
+    @Test
+    void shouldWalkCatalogByCursor() {
+        Slice<BookResponse> first = bookRepository.findFirstSliceOrderByTitle(PageRequest.of(0, 2));
+        assertEquals(List.of(dune.getId(), emma.getId()), ids(first.getContent()));
+
+        BookCursor cursor = BookCursor.at(emma.getTitle(), emma.getId());
+        Slice<BookResponse> rest = bookRepository.findSliceOrderByTitleAfter(cursor.title(),
+                cursor.id(), PageRequest.of(0, 2));
+        assertEquals(List.of("Walden"), rest.getContent().stream().map(BookResponse::title)
+                .toList());
+    }
+
+    private static List<UUID> ids(List<BookResponse> books) {
+        return books.stream().map(BookResponse::id).toList();
+    }
+
+    private static Book book(String title) {
+        return Book.builder().title(title).author("Author").genre("Fiction").isbn("1234567890")
+                .publicationDate(LocalDate.of(2020, 1, 1)).available(true).build();
+    }
+}
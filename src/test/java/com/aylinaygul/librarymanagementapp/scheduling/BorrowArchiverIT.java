@@ -0,0 +1,108 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.HistoryFilter;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.ArchivedBorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.service.BorrowService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BorrowArchiverIT {
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private ArchivedBorrowRepository archivedBorrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldMoveOldReturnedLoansAndKeepHistoryWhole() {
+        User patron = userRepository.save(User.builder().name("reader")
+                .email("reader@example.com").password("password").role(Role.PATRON).build());
+        Book book = bookRepository.save(Book.builder().title("Archived Book").author("Author")
+                .genre("Fiction").isbn("1234567890").publicationDate(LocalDate.of(2020, 1, 1))
+                .available(true).build());
+        BorrowRecord oldest = borrowRepository.save(returned(patron, book, 120));
+        BorrowRecord old = borrowRepository.save(returned(patron, book, 60));
+        BorrowRecord recent = borrowRepository.save(returned(patron, book, 10));
+        BorrowRecord open = borrowRepository.save(BorrowRecord.builder().user(patron).book(book)
+                .status(BorrowStatus.BORROWED).borrowDate(LocalDate.now().minusDays(1))
+                .dueDate(LocalDate.now().plusDays(13)).build());
+        borrowRepository.flush();
+
+        // a chunk of one makes the archiver loop over several transactions
+        BorrowArchiver archiver = new BorrowArchiver(borrowRepository, archivedBorrowRepository,
+                transactionTemplate, new SimpleMeterRegistry(), Clock.systemDefaultZone(),
+                Duration.ofDays(30), 1);
+
+        assertEquals(2, archiver.archive());
+        assertEquals(0, archiver.archive());
+
+        assertEquals(Set.of(recent.getId(), open.getId()), Set.copyOf(
+                borrowRepository.findAll().stream().map(BorrowRecord::getId).toList()));
+        assertEquals(Set.of(oldest.getId(), old.getId()), Set.copyOf(archivedBorrowRepository
+                .findAll().stream().map(ArchivedBorrowRecord::getId).toList()));
+
+        List<UUID> expected = List.of(open.getId(), recent.getId(), old.getId(), oldest.getId());
+        assertEquals(expected, borrowService.getUserBorrowingHistory(patron.getId()).stream()
+                .map(BorrowResponse::getId).toList());
+
+        CursorPageResponse<BorrowResponse> first = borrowService
+                .getUserBorrowingHistory(patron.getId(), HistoryFilter.NONE, null, 3);
+        CursorPageResponse<BorrowResponse> second = borrowService.getUserBorrowingHistory(
+                patron.getId(), HistoryFilter.NONE, first.nextCursor(), 3);
+        assertTrue(first.hasNext());
+        assertFalse(second.hasNext());
+        assertEquals(expected, Stream.of(first, second)
+                .flatMap(page -> page.content().stream()).map(BorrowResponse::getId).toList());
+    }
+
+    private static BorrowRecord returned(User patron, Book book, int daysAgo) {
+        LocalDate borrowed = LocalDate.now().minusDays(daysAgo + 7);
+        return BorrowRecord.builder().user(patron).book(book).status(BorrowStatus.RETURNED)
+                .borrowDate(borrowed).dueDate(borrowed.plusDays(14))
+                .returnDate(LocalDate.now().minusDays(daysAgo)).build();
+    }
+}
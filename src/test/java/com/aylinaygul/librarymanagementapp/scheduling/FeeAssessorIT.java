@@ -0,0 +1,134 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aylinaygul.librarymanagementapp.fees.FeePolicy;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.FeeLedgerEntry;
+import com.aylinaygul.librarymanagementapp.model.entity.LoanFee;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.FeeLedgerRepository;
+import com.aylinaygul.librarymanagementapp.repository.LoanFeeRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.service.BorrowService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs without a test transaction, since each chunk is assessed on a connection of its own and
+ * must see the loans committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class FeeAssessorIT {
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private FeePolicy feePolicy;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private LoanFeeRepository loanFeeRepository;
+
+    @Autowired
+    private FeeLedgerRepository feeLedgerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Book> books = new ArrayList<>();
+    private User patron;
+
+    @AfterEach
+    void cleanup() {
+        feeLedgerRepository.deleteAll();
+        loanFeeRepository.deleteAll();
+        borrowRepository.deleteAll();
+        bookRepository.deleteAllById(books.stream().map(Book::getId).toList());
+        userRepository.delete(patron);
+    }
+
+    @Test
+    void shouldChargeOverdueLoansIncrementallyAndOnReturn() {
+        LocalDate today = LocalDate.now();
+        patron = userRepository.save(User.builder().name("debtor").email("debtor@example.com")
+                .password("password").role(Role.PATRON).build());
+        BorrowRecord tenDaysLate = loan(BorrowStatus.OVERDUE, today.minusDays(10));
+        BorrowRecord monthLate = loan(BorrowStatus.OVERDUE, today.minusDays(30));
+        BorrowRecord inGrace = loan(BorrowStatus.OVERDUE, today.minusDays(1));
+        BorrowRecord unswept = loan(BorrowStatus.BORROWED, today.minusDays(5));
+        BorrowRecord notDue = loan(BorrowStatus.BORROWED, today.plusDays(3));
+
+        // chunks of one spread the loans over several concurrently assessed transactions
+        assertEquals(2, assessor(today).assess());
+        assertEquals(0, assessor(today).assess());
+        assertEquals(Map.of(tenDaysLate.getId(), 250L, monthLate.getId(), 750L), fees());
+
+        borrowService.returnBook(patron.getId(), unswept.getBook().getId());
+        assertEquals(125L, fees().get(unswept.getId()));
+
+        assertEquals(3, assessor(today.plusDays(3)).assess());
+        assertEquals(Map.of(tenDaysLate.getId(), 325L, monthLate.getId(), 825L,
+                inGrace.getId(), 100L, unswept.getId(), 125L), fees());
+        assertEquals(List.of(250L, 75L), feeLedgerRepository
+                .findByLoanIdOrderByAssessedOn(tenDaysLate.getId()).stream()
+                .map(FeeLedgerEntry::getAmountCents).toList());
+        assertTrue(feeLedgerRepository.findByLoanIdOrderByAssessedOn(notDue.getId()).isEmpty());
+        assertEquals(loanFeeRepository.findAll().stream().mapToLong(LoanFee::getAmountCents)
+                .sum(), feeLedgerRepository.findAll().stream()
+                        .mapToLong(FeeLedgerEntry::getAmountCents).sum());
+    }
+
+    private FeeAssessor assessor(LocalDate today) {
+        Clock clock = Clock.fixed(today.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                ZoneId.systemDefault());
+        return new FeeAssessor(borrowRepository, feePolicy, entityManagerFactory,
+                new SimpleMeterRegistry(), clock, 1, 2);
+    }
+
+    private Map<UUID, Long> fees() {
+        return loanFeeRepository.findAll().stream()
+                .collect(Collectors.toMap(LoanFee::getId, LoanFee::getAmountCents));
+    }
+
+    private BorrowRecord loan(BorrowStatus status, LocalDate dueDate) {
+        Book book = bookRepository.save(Book.builder().title("Fee Book " + books.size())
+                .author("Author").genre("Fiction").isbn("1234567890")
+                .publicationDate(LocalDate.of(2020, 1, 1)).availableCopies(0).available(false)
+                .build());
+        books.add(book);
+        return borrowRepository.save(BorrowRecord.builder().user(patron).book(book)
+                .status(status).borrowDate(dueDate.minusDays(14)).dueDate(dueDate).build());
+    }
+}
@@ -0,0 +1,89 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.service.BorrowService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class OverdueSweeperIT {
+
+    @Autowired
+    private OverdueSweeper overdueSweeper;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void shouldMarkLateLoansOverdueAndStillAcceptTheirReturn() {
+        User patron = userRepository.save(User.builder().name("late").email("late@example.com")
+                .password("password").role(Role.PATRON).build());
+        Book late = bookRepository.save(book("Late Book"));
+        Book onTime = bookRepository.save(book("On Time Book"));
+        BorrowRecord lateLoan =
+                borrowRepository.save(loan(patron, late, LocalDate.now().minusDays(3)));
+        BorrowRecord currentLoan =
+                borrowRepository.save(loan(patron, onTime, LocalDate.now().plusDays(3)));
+        borrowRepository.flush();
+        long version = bookRepository.findVersionById(late.getId()).orElseThrow();
+
+        assertEquals(1, overdueSweeper.sweep());
+        assertEquals(0, overdueSweeper.sweep());
+
+        assertEquals(BorrowStatus.OVERDUE,
+                borrowRepository.findById(lateLoan.getId()).orElseThrow().getStatus());
+        assertEquals(BorrowStatus.BORROWED,
+                borrowRepository.findById(currentLoan.getId()).orElseThrow().getStatus());
+        assertEquals(version + 1, bookRepository.findVersionById(late.getId()).orElseThrow());
+        assertEquals(List.of(lateLoan.getId()), borrowRepository.findOverdueResponses().stream()
+                .map(BorrowResponse::getId).toList());
+        assertEquals(List.of(late.getId()),
+                bookRepository.findOverdueBooks().stream().map(BookResponse::id).toList());
+
+        borrowService.returnBook(patron.getId(), late.getId());
+
+        assertEquals(BorrowStatus.RETURNED,
+                borrowRepository.findById(lateLoan.getId()).orElseThrow().getStatus());
+        assertTrue(borrowRepository.findOverdueResponses().isEmpty());
+    }
+
+    private static Book book(String title) {
+        return Book.builder().title(title).author("Author").genre("Fiction").isbn("1234567890")
+                .publicationDate(LocalDate.of(2020, 1, 1)).available(false).availableCopies(0)
+                .build();
+    }
+
+    private static BorrowRecord loan(User patron, Book book, LocalDate dueDate) {
+        return BorrowRecord.builder().user(patron).book(book).status(BorrowStatus.BORROWED)
+                .borrowDate(dueDate.minusDays(14)).dueDate(dueDate).build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository.DueLoan;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class OverdueSweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OverdueSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new OverdueSweeper(borrowRepository, bookRepository, eventPublisher,
+                transactionTemplate, meterRegistry,
+                Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC), 2);
+    }
+
+    @Test
+    void shouldMarkDueLoansChunkByChunk() {
+        runInTransaction();
+        DueLoan first = loan(TODAY.minusDays(9));
+        DueLoan second = loan(TODAY.minusDays(3));
+        DueLoan third = loan(TODAY.minusDays(1));
+        when(borrowRepository.findDueLoans(BorrowStatus.BORROWED, TODAY, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(borrowRepository.findDueLoansAfter(BorrowStatus.BORROWED, TODAY,
+                second.getDueDate(), second.getId(), Limit.of(2))).thenReturn(List.of(third));
+        when(borrowRepository.updateStatus(any(), eq(BorrowStatus.BORROWED),
+                eq(BorrowStatus.OVERDUE))).thenReturn(2, 1);
+        Book book = Book.builder().id(UUID.randomUUID()).title("Late Book").build();
+        when(borrowRepository.findBookIdsByIdIn(any())).thenReturn(Set.of(book.getId()));
+        when(bookRepository.findAllById(Set.of(book.getId()))).thenReturn(List.of(book));
+
+        assertEquals(3, sweeper.sweep());
+
+        verify(borrowRepository).updateStatus(List.of(first.getId(), second.getId()),
+                BorrowStatus.BORROWED, BorrowStatus.OVERDUE);
+        verify(borrowRepository).updateStatus(List.of(third.getId()), BorrowStatus.BORROWED,
+                BorrowStatus.OVERDUE);
+        verify(bookRepository, times(2)).touch(Set.of(book.getId()));
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+        assertEquals(3.0, meterRegistry.get("library.overdue.marked").counter().count());
+        assertEquals(3.0, meterRegistry.get("library.overdue.last.marked").gauge().value());
+        assertEquals(1, meterRegistry.get("library.overdue.sweep").timer().count());
+    }
+
+    @Test
+    void shouldSkipBooksWhenLoansWereReturnedMeanwhile() {
+        runInTransaction();
+        when(borrowRepository.findDueLoans(BorrowStatus.BORROWED, TODAY, Limit.of(2)))
+                .thenReturn(List.of(loan(TODAY.minusDays(2))));
+        when(borrowRepository.updateStatus(any(), any(), any())).thenReturn(0);
+
+        assertEquals(0, sweeper.sweep());
+
+        verifyNoInteractions(bookRepository, eventPublisher);
+        assertEquals(0.0, meterRegistry.get("library.overdue.last.marked").gauge().value());
+    }
+
+    private static DueLoan loan(LocalDate dueDate) {
+        UUID id = UUID.randomUUID();
+        return new DueLoan() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -0,0 +1,120 @@
+package com.aylinaygul.librarymanagementapp.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final List<String> expired = new ArrayList<>();
+    private TimerWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel<>("test", clock, Duration.ofMinutes(1), 4, expired::add);
+    }
+
+    @Test
+    void shouldExpireOnFirstTickAtOrAfterDeadline() {
+        wheel.schedule("soon", clock.instant().plusSeconds(90));
+        wheel.schedule("due", clock.instant().minusSeconds(5));
+
+        tick();
+        assertEquals(List.of("due"), expired);
+        tick();
+        assertEquals(List.of("due"), expired);
+        tick();
+        assertEquals(List.of("due", "soon"), expired);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void shouldCountFullTurnsForDistantDeadlines() {
+        wheel.schedule("later", clock.instant().plus(Duration.ofMinutes(10)));
+
+        for (int i = 0; i < 10; i++) {
+            tick();
+            assertTrue(expired.isEmpty(), "tick " + i);
+        }
+        tick();
+        assertEquals(List.of("later"), expired);
+    }
+
+    @Test
+    void shouldNeverFireBeforeTheDeadline() {
+        wheel.schedule("late", clock.instant().plus(Duration.ofMinutes(2)));
+
+        // the ticker runs ahead of the clock
+        for (int i = 0; i < 4; i++) {
+            wheel.advance();
+        }
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.pending());
+
+        clock.advance(Duration.ofMinutes(3));
+        for (int i = 0; i < 4; i++) {
+            wheel.advance();
+        }
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void shouldKeepTickingWhenCallbackFails() {
+        TimerWheel<String> failing = new TimerWheel<>("failing", clock, Duration.ofMinutes(1), 4,
+                item -> {
+                    if (item.equals("bad")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    expired.add(item);
+                });
+        failing.schedule("bad", clock.instant());
+        failing.schedule("good", clock.instant());
+
+        failing.advance();
+
+        assertEquals(List.of("good"), expired);
+    }
+
+    private void tick() {
+        clock.advance(Duration.ofMinutes(1));
+        wheel.advance();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
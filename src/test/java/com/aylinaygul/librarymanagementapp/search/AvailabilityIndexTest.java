@@ -0,0 +1,57 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class AvailabilityIndexTest {
+
+    private AvailabilityIndex index;
+
+    private final UUID bookId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndex();
+        index.apply(new BookChangedEvent(bookId, null, copies(3, 3)));
+    }
+
+    @Test
+    void shouldCountCopiesOfCreatedBooks() {
+        assertEquals(new BookAvailabilityResponse(bookId, true, 3, 3), index.get(bookId));
+        assertNull(index.get(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldApplyBorrowsAndReturnsInAnyOrder() {
+        index.apply(new BookChangedEvent(bookId, copies(2, 3), copies(1, 3)));
+        index.apply(new BookChangedEvent(bookId, copies(1, 3), copies(2, 3)));
+        index.apply(new BookChangedEvent(bookId, copies(3, 3), copies(2, 3)));
+        index.apply(new BookChangedEvent(bookId, copies(1, 3), copies(0, 3)));
+        index.apply(new BookChangedEvent(bookId, copies(2, 3), copies(1, 3)));
+
+        assertEquals(new BookAvailabilityResponse(bookId, false, 0, 3), index.get(bookId));
+    }
+
+    @Test
+    void shouldTrackResizedAndDeletedBooks() {
+        index.apply(new BookChangedEvent(bookId, copies(3, 3), copies(5, 5)));
+        assertEquals(new BookAvailabilityResponse(bookId, true, 5, 5), index.get(bookId));
+
+        index.apply(new BookChangedEvent(bookId, copies(5, 5), null));
+        index.apply(new BookChangedEvent(bookId, copies(5, 5), copies(4, 5)));
+        assertNull(index.get(bookId));
+    }
+
+    private static BookSnapshot copies(int available, int total) {
+        return new BookSnapshot("War and Peace", "Leo Tolstoy", "Classic", "1", available > 0,
+                available, total);
+    }
+}
@@ -0,0 +1,120 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    private final UUID warAndPeace = UUID.randomUUID();
+    private final UUID annaKarenina = UUID.randomUUID();
+    private final UUID idiot = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.apply(created(warAndPeace, "War and Peace", "Leo Tolstoy", "Classic", "1111111111"));
+        index.apply(created(annaKarenina, "Anna Karenina", "Leo Tolstoy", "Classic", "2222222222"));
+        index.apply(created(idiot, "The Idiot", "Fyodor Dostoevsky", "Classic", "3333333333"));
+    }
+
+    @Test
+    void shouldMatchSubstringIgnoringCase() {
+        BookSearchIndex.Result result = index.search(query("PEACE", null, null, null), 0, 10);
+
+        assertEquals(1, result.total());
+        assertEquals(List.of(warAndPeace), result.ids());
+    }
+
+    @Test
+    void shouldRequireEveryGivenField() {
+        BookSearchIndex.Result result = index.search(query("a", "tolstoy", null, "class"), 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(warAndPeace, annaKarenina), result.ids());
+        assertEquals(0, index.search(query("idiot", "tolstoy", null, null), 0, 10).total());
+    }
+
+    @Test
+    void shouldRejectTrigramHitsThatAreNotSubstrings() {
+        // "ann" and "nna" both occur in "anna karenina" but "annna" does not
+        assertEquals(0, index.search(query("annna", null, null, null), 0, 10).total());
+    }
+
+    @Test
+    void shouldReturnRequestedPageWithTotal() {
+        BookSearchIndex.Result result = index.search(query(null, null, null, null), 1, 1);
+
+        assertEquals(3, result.total());
+        assertEquals(List.of(annaKarenina), result.ids());
+    }
+
+    @Test
+    void shouldReflectUpdatesAndDeletes() {
+        index.apply(new BookChangedEvent(idiot, null,
+                new BookSnapshot("The Gambler", "Fyodor Dostoevsky", "Classic", "3333333333", true)));
+        index.apply(new BookChangedEvent(warAndPeace, null, null));
+
+        assertEquals(0, index.search(query("idiot", null, null, null), 0, 10).total());
+        assertEquals(List.of(idiot), index.search(query("gambler", null, null, null), 0, 10).ids());
+        assertEquals(0, index.search(query("peace", null, null, null), 0, 10).total());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldCompactTombstonesWithoutLosingDocuments() {
+        for (int i = 0; i < 3000; i++) {
+            index.apply(created(idiot, "The Idiot " + i, "Fyodor Dostoevsky", "Classic",
+                    "3333333333"));
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(idiot),
+                index.search(query("idiot 2999", null, null, null), 0, 10).ids());
+        assertEquals(2, index.search(query(null, "tolstoy", null, null), 0, 10).total());
+    }
+
+    @Test
+    void shouldWalkMatchesByTitleAfterCursor() {
+        BookSearchIndex.Query classics = query(null, null, null, "classic");
+
+        List<UUID> first = index.searchAfter(classics, null, null, 2);
+        assertEquals(List.of(annaKarenina, idiot), first);
+
+        List<UUID> second = index.searchAfter(classics, "The Idiot", idiot, 2);
+        assertEquals(List.of(warAndPeace), second);
+    }
+
+    @Test
+    void shouldWalkUntitledBooksFirstWithIdsInUnsignedOrder() {
+        // the high bit makes this id negative to UUID.compareTo but larger to the database
+        UUID high = new UUID(0x8000000000000000L, 0L);
+        UUID low = new UUID(1L, 0L);
+        index.apply(created(high, null, "Anonymous", "Classic", "4444444444"));
+        index.apply(created(low, null, "Anonymous", "Classic", "5555555555"));
+        BookSearchIndex.Query classics = query(null, null, null, "classic");
+
+        assertEquals(List.of(low, high), index.searchAfter(classics, null, null, 2));
+        assertEquals(List.of(high, annaKarenina), index.searchAfter(classics, "", low, 2));
+        assertEquals(List.of(annaKarenina), index.searchAfter(classics, "", high, 1));
+    }
+
+    private static BookSearchIndex.Query query(String title, String author, String isbn,
+            String genre) {
+        return new BookSearchIndex.Query(title, author, isbn, genre);
+    }
+
+    private static BookChangedEvent created(UUID id, String title, String author, String genre,
+            String isbn) {
+        return new BookChangedEvent(id, null, new BookSnapshot(title, author, genre, isbn, true));
+    }
+}
@@ -0,0 +1,92 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class FacetIndexTest {
+
+    private FacetIndex index;
+
+    private final UUID warAndPeace = UUID.randomUUID();
+    private final BookSnapshot warAndPeaceSnapshot =
+            new BookSnapshot("War and Peace", "Leo Tolstoy", "Classic", "1111111111", true);
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.apply(new BookChangedEvent(warAndPeace, null, warAndPeaceSnapshot));
+        index.apply(created("Anna Karenina", "Leo Tolstoy", "Classic", true));
+        index.apply(created("The Idiot", "Fyodor Dostoevsky", "Classic", false));
+        index.apply(created("Dune", "Frank Herbert", "Science Fiction", true));
+    }
+
+    @Test
+    void shouldCountMostCommonValuesFirst() {
+        FacetsResponse facets = index.facets(10);
+
+        assertEquals(Map.of("Classic", 3L, "Science Fiction", 1L), facets.genres());
+        assertEquals(List.of("Classic", "Science Fiction"), List.copyOf(facets.genres().keySet()));
+        assertEquals(List.of("Leo Tolstoy", "Frank Herbert", "Fyodor Dostoevsky"),
+                List.copyOf(facets.authors().keySet()));
+        assertEquals(3, facets.available());
+        assertEquals(1, facets.unavailable());
+    }
+
+    @Test
+    void shouldKeepOnlyTopValues() {
+        FacetsResponse facets = index.facets(1);
+
+        assertEquals(Map.of("Leo Tolstoy", 2L), facets.authors());
+        assertEquals(Map.of("Classic", 3L), facets.genres());
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        BookSnapshot borrowed =
+                new BookSnapshot("War and Peace", "Leo Tolstoy", "Classic", "1111111111", false);
+        index.apply(new BookChangedEvent(warAndPeace, warAndPeaceSnapshot, borrowed));
+
+        FacetsResponse facets = index.facets(10);
+        assertEquals(2, facets.available());
+        assertEquals(2, facets.unavailable());
+
+        index.apply(new BookChangedEvent(warAndPeace, borrowed, null));
+
+        facets = index.facets(10);
+        assertEquals(1L, facets.authors().get("Leo Tolstoy"));
+        assertEquals(2L, facets.genres().get("Classic"));
+        assertEquals(1, facets.unavailable());
+    }
+
+    @Test
+    void shouldDropValuesThatReachZero() {
+        BookSnapshot renamed =
+                new BookSnapshot("War and Peace", "Lev Tolstoy", "Epic", "1111111111", true);
+        index.apply(new BookChangedEvent(warAndPeace, warAndPeaceSnapshot, renamed));
+        index.apply(new BookChangedEvent(warAndPeace, renamed, null));
+
+        FacetsResponse facets = index.facets(10);
+        assertFalse(facets.genres().containsKey("Epic"));
+        assertFalse(facets.authors().containsKey("Lev Tolstoy"));
+        assertEquals(1L, facets.authors().get("Leo Tolstoy"));
+
+        index.clear();
+        assertTrue(index.facets(10).genres().isEmpty());
+    }
+
+    private static BookChangedEvent created(String title, String author, String genre,
+            boolean available) {
+        return new BookChangedEvent(UUID.randomUUID(), null,
+                new BookSnapshot(title, author, genre, "0000000000", available));
+    }
+}
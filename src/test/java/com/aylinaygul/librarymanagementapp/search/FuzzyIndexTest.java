@@ -0,0 +1,95 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    private final UUID warAndPeace = UUID.randomUUID();
+    private final UUID annaKarenina = UUID.randomUUID();
+    private final UUID idiot = UUID.randomUUID();
+    private final UUID crime = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.apply(created(warAndPeace, "War and Peace", "Leo Tolstoy"));
+        index.apply(created(annaKarenina, "Anna Karenina", "Leo Tolstoy"));
+        index.apply(created(idiot, "The Idiot", "Fyodor Dostoevsky"));
+        index.apply(created(crime, "Crime and Punishment", "Fyodor Dostoevsky"));
+    }
+
+    @Test
+    void shouldFindMisspelledAuthors() {
+        BookSearchIndex.Result tolstoy = index.search("Tolstoi", 0, 10);
+        assertEquals(2, tolstoy.total());
+        assertEquals(List.of(annaKarenina, warAndPeace), tolstoy.ids());
+
+        assertEquals(List.of(crime, idiot), index.search("Dostoyevski", 0, 10).ids());
+    }
+
+    @Test
+    void shouldRankBooksMatchingMoreWordsFirst() {
+        BookSearchIndex.Result result = index.search("karenia tolstoi", 0, 10);
+
+        assertEquals(List.of(annaKarenina, warAndPeace), result.ids());
+    }
+
+    @Test
+    void shouldPreferCloserMatches() {
+        UUID punishmint = UUID.randomUUID();
+        index.apply(created(punishmint, "Punishmint", "Someone Else"));
+
+        assertEquals(List.of(punishmint, crime), index.search("punishmint", 0, 10).ids());
+    }
+
+    @Test
+    void shouldRequireExactMatchForShortWords() {
+        assertEquals(0, index.search("wor", 0, 10).total());
+        assertEquals(List.of(warAndPeace), index.search("war", 0, 10).ids());
+    }
+
+    @Test
+    void shouldPageRankedResults() {
+        BookSearchIndex.Result result = index.search("fyodor", 1, 1);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(idiot), result.ids());
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        index.apply(new BookChangedEvent(idiot,
+                new BookSnapshot("The Idiot", "Fyodor Dostoevsky", "Classic", "1", true),
+                new BookSnapshot("The Gambler", "Fyodor Dostoevsky", "Classic", "1", true)));
+        index.apply(new BookChangedEvent(crime,
+                new BookSnapshot("Crime and Punishment", "Fyodor Dostoevsky", "Classic", "1", true),
+                null));
+
+        assertEquals(0, index.search("idiot", 0, 10).total());
+        assertEquals(List.of(idiot), index.search("gamblr", 0, 10).ids());
+        assertEquals(0, index.search("punishment", 0, 10).total());
+    }
+
+    @Test
+    void shouldBoundEditDistance() {
+        assertEquals(1, FuzzyIndex.distance("tolstoi", "tolstoy", 1));
+        assertEquals(2, FuzzyIndex.distance("dostoyevski", "dostoevsky", 2));
+        assertEquals(3, FuzzyIndex.distance("karenina", "kafka", 2));
+    }
+
+    private static BookChangedEvent created(UUID id, String title, String author) {
+        return new BookChangedEvent(id, null,
+                new BookSnapshot(title, author, "Classic", "1111111111", true));
+    }
+}
@@ -0,0 +1,128 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class IsbnIndexTest {
+
+    private IsbnIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IsbnIndex();
+    }
+
+    @Test
+    void shouldFindBookByExactIsbn() {
+        UUID id = UUID.randomUUID();
+        index.apply(new BookChangedEvent(id, null, snapshot("9780140449136")));
+
+        assertEquals(id, index.get("9780140449136"));
+        assertNull(index.get("978014044913"));
+        assertNull(index.get("not-an-isbn"));
+    }
+
+    @Test
+    void shouldKeepLeadingZerosApart() {
+        UUID shortIsbn = UUID.randomUUID();
+        UUID longIsbn = UUID.randomUUID();
+        index.apply(new BookChangedEvent(shortIsbn, null, snapshot("0123456789")));
+        index.apply(new BookChangedEvent(longIsbn, null, snapshot("0000123456789")));
+
+        assertEquals(shortIsbn, index.get("0123456789"));
+        assertEquals(longIsbn, index.get("0000123456789"));
+    }
+
+    @Test
+    void shouldFollowIsbnChangesAndDeletes() {
+        UUID id = UUID.randomUUID();
+        index.apply(new BookChangedEvent(id, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(id, snapshot("1111111111"), snapshot("2222222222")));
+
+        assertNull(index.get("1111111111"));
+        assertEquals(id, index.get("2222222222"));
+
+        index.apply(new BookChangedEvent(id, snapshot("2222222222"), null));
+        assertNull(index.get("2222222222"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldNotRemoveIsbnClaimedByAnotherBook() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.apply(new BookChangedEvent(first, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(second, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(first, snapshot("1111111111"), null));
+
+        assertEquals(second, index.get("1111111111"));
+    }
+
+    @Test
+    void shouldKeepOtherBooksWithSameIsbnWhenOneIsDeleted() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.apply(new BookChangedEvent(first, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(second, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(second, snapshot("1111111111"), null));
+
+        assertEquals(first, index.get("1111111111"));
+        assertEquals(1, index.size());
+
+        index.apply(new BookChangedEvent(first, snapshot("1111111111"), null));
+        assertNull(index.get("1111111111"));
+    }
+
+    @Test
+    void shouldReturnSmallestIdOfBooksSharingIsbn() {
+        UUID highBit = new UUID(Long.MIN_VALUE, 0);
+        UUID small = new UUID(1, 0);
+        UUID smallest = new UUID(0, 1);
+        index.apply(new BookChangedEvent(highBit, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(small, null, snapshot("1111111111")));
+        index.apply(new BookChangedEvent(smallest, null, snapshot("1111111111")));
+        assertEquals(smallest, index.get("1111111111"));
+
+        for (int i = 0; i < 2000; i++) {
+            index.apply(new BookChangedEvent(UUID.randomUUID(), null, snapshot(isbn(i))));
+        }
+        index.apply(new BookChangedEvent(smallest, snapshot("1111111111"), null));
+
+        assertEquals(small, index.get("1111111111"));
+    }
+
+    @Test
+    void shouldSurviveGrowthAndInterleavedRemovals() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.apply(new BookChangedEvent(id, null, snapshot(isbn(i))));
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            index.apply(new BookChangedEvent(ids.get(i), snapshot(isbn(i)), null));
+        }
+
+        assertEquals(2500, index.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? null : ids.get(i), index.get(isbn(i)));
+        }
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    private static BookSnapshot snapshot(String isbn) {
+        return new BookSnapshot("Title", "Author", "Genre", isbn, true);
+    }
+}
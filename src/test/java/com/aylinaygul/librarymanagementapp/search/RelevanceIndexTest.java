@@ -0,0 +1,92 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+
+public class RelevanceIndexTest {
+
+    private RelevanceIndex index;
+
+    private final UUID warAndPeace = UUID.randomUUID();
+    private final UUID peaceNovel = UUID.randomUUID();
+    private final UUID warPoems = UUID.randomUUID();
+    private final UUID idiot = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new RelevanceIndex();
+        index.apply(created(warAndPeace, "War and Peace", "Leo Tolstoy", "Classic"));
+        index.apply(created(peaceNovel, "A Long Novel About Quiet Times", "Anna Peace", "Drama"));
+        index.apply(created(warPoems, "Collected Poems", "Various", "War"));
+        index.apply(created(idiot, "The Idiot", "Fyodor Dostoevsky", "Classic"));
+    }
+
+    @Test
+    void shouldWeightTitleAboveAuthorAboveGenre() {
+        BookSearchIndex.Result peace = index.search("peace", 0, 10);
+        assertEquals(2, peace.total());
+        assertEquals(List.of(warAndPeace, peaceNovel), peace.ids());
+
+        assertEquals(List.of(warAndPeace, warPoems), index.search("war", 0, 10).ids());
+    }
+
+    @Test
+    void shouldRankBooksMatchingMoreTermsFirst() {
+        BookSearchIndex.Result result = index.search("idiot classic", 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(idiot, warAndPeace), result.ids());
+    }
+
+    @Test
+    void shouldPreferShorterFields() {
+        UUID longTitle = UUID.randomUUID();
+        index.apply(created(longTitle, "Peace In Our Time And Other Essays", "Someone", "Essay"));
+
+        List<UUID> ids = index.search("peace", 0, 10).ids();
+
+        assertTrue(ids.indexOf(warAndPeace) < ids.indexOf(longTitle));
+    }
+
+    @Test
+    void shouldPageRankedResults() {
+        BookSearchIndex.Result result = index.search("peace", 1, 1);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(peaceNovel), result.ids());
+        assertEquals(List.of(), index.search("peace", 5, 10).ids());
+    }
+
+    @Test
+    void shouldIgnoreCaseAndAccents() {
+        assertEquals(List.of(idiot), index.search("DOSTOÉVSKY", 0, 10).ids());
+        assertEquals(0, index.search("   ", 0, 10).total());
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        index.apply(new BookChangedEvent(idiot,
+                new BookSnapshot("The Idiot", "Fyodor Dostoevsky", "Classic", "1", true),
+                new BookSnapshot("The Gambler", "Fyodor Dostoevsky", "Classic", "1", true)));
+        index.apply(new BookChangedEvent(warAndPeace,
+                new BookSnapshot("War and Peace", "Leo Tolstoy", "Classic", "1", true), null));
+
+        assertEquals(0, index.search("idiot", 0, 10).total());
+        assertEquals(List.of(idiot), index.search("gambler", 0, 10).ids());
+        assertEquals(List.of(peaceNovel), index.search("peace", 0, 10).ids());
+        assertEquals(List.of(idiot), index.search("classic", 0, 10).ids());
+    }
+
+    private static BookChangedEvent created(UUID id, String title, String author, String genre) {
+        return new BookChangedEvent(id, null,
+                new BookSnapshot(title, author, genre, "1111111111", true));
+    }
+}
@@ -0,0 +1,138 @@
+package com.aylinaygul.librarymanagementapp.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookBorrowCount;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookBorrowedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookSnapshot;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class SuggestIndexTest {
+
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @Mock
+    private ArchivedBorrowRepository archivedBorrowRepository;
+
+    private SuggestIndex index;
+
+    private final UUID warAndPeace = UUID.randomUUID();
+    private final UUID warOfTheWorlds = UUID.randomUUID();
+    private final UUID wuthering = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // archived loans count towards popularity like current ones
+        when(borrowRepository.countBorrowsByBook())
+                .thenReturn(List.of(new BookBorrowCount(warOfTheWorlds, 2)));
+        when(archivedBorrowRepository.countBorrowsByBook())
+                .thenReturn(List.of(new BookBorrowCount(warOfTheWorlds, 3)));
+        index = new SuggestIndex(borrowRepository, archivedBorrowRepository);
+        index.clear();
+        index.apply(created(warAndPeace, "War and Peace", "Leo Tolstoy"));
+        index.apply(created(warOfTheWorlds, "The War of the Worlds", "H. G. Wells"));
+        index.apply(created(wuthering, "Wuthering Heights", "Emily Brontë"));
+    }
+
+    @Test
+    void shouldCompletePrefixIgnoringCaseAndAccents() {
+        assertEquals(List.of("War and Peace", "Wuthering Heights"), texts(index.suggest("W", 10)));
+        assertEquals(List.of("Emily Brontë"), texts(index.suggest("emily BRONTE", 10)));
+        assertEquals(List.of("H. G. Wells"), texts(index.suggest("h g", 10)));
+        assertTrue(index.suggest("wx", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldRankByBorrows() {
+        index.apply(created(UUID.randomUUID(), "Warbreaker", "Brandon Sanderson"));
+        index.onBookBorrowed(new BookBorrowedEvent(warAndPeace));
+        index.onBookBorrowed(new BookBorrowedEvent(warAndPeace));
+
+        List<SuggestionResponse> suggestions = index.suggest("war", 10);
+
+        assertEquals(List.of("War and Peace", "Warbreaker"), texts(suggestions));
+        assertEquals(2, suggestions.get(0).borrows());
+        assertEquals(5, index.suggest("the", 1).get(0).borrows());
+    }
+
+    @Test
+    void shouldMergeBooksSharingAnAuthor() {
+        UUID annaKarenina = UUID.randomUUID();
+        index.apply(created(annaKarenina, "Anna Karenina", "Leo Tolstoy"));
+        index.onBookBorrowed(new BookBorrowedEvent(annaKarenina));
+
+        List<SuggestionResponse> suggestions = index.suggest("leo", 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(SuggestionResponse.Type.AUTHOR, suggestions.get(0).type());
+        assertEquals(1, suggestions.get(0).borrows());
+
+        index.apply(new BookChangedEvent(annaKarenina,
+                new BookSnapshot("Anna Karenina", "Leo Tolstoy", "Classic", "1", true), null));
+        assertEquals(0, index.suggest("leo", 10).get(0).borrows());
+    }
+
+    @Test
+    void shouldFollowRenamesAndDeletes() {
+        index.apply(new BookChangedEvent(wuthering,
+                new BookSnapshot("Wuthering Heights", "Emily Brontë", "Classic", "1", true),
+                new BookSnapshot("Jane Eyre", "Charlotte Brontë", "Classic", "1", true)));
+        index.apply(new BookChangedEvent(warAndPeace,
+                new BookSnapshot("War and Peace", "Leo Tolstoy", "Classic", "1", true), null));
+
+        assertTrue(index.suggest("wu", 10).isEmpty());
+        assertTrue(index.suggest("war", 10).isEmpty());
+        assertEquals(List.of("Jane Eyre"), texts(index.suggest("ja", 10)));
+        assertEquals(List.of("The War of the Worlds"), texts(index.suggest("the war", 10)));
+    }
+
+    @Test
+    void shouldKeepTopSuggestionsAcrossManyEntries() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.apply(created(id, "Volume " + i, "Anonymous"));
+        }
+        for (int i = 0; i < 200; i += 40) {
+            for (int borrows = 0; borrows <= i / 40; borrows++) {
+                index.onBookBorrowed(new BookBorrowedEvent(ids.get(i)));
+            }
+        }
+        for (int i = 1; i < 200; i += 2) {
+            index.apply(new BookChangedEvent(ids.get(i),
+                    new BookSnapshot("Volume " + i, "Anonymous", "Serial", "1", true), null));
+        }
+
+        assertEquals(List.of("Volume 160", "Volume 120", "Volume 80"),
+                texts(index.suggest("vol", 3)));
+        assertEquals(List.of("Volume 120", "Volume 12", "Volume 122", "Volume 124", "Volume 126",
+                "Volume 128"), texts(index.suggest("volume 12", 10)));
+    }
+
+    private static List<String> texts(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::text).toList();
+    }
+
+    private static BookChangedEvent created(UUID id, String title, String author) {
+        return new BookChangedEvent(id, null,
+                new BookSnapshot(title, author, "Classic", "1111111111", true));
+    }
+}
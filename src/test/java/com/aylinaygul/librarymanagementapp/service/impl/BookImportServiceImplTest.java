@@ -0,0 +1,136 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookImportFormat;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookImportResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.mapper.BookRequestMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImportServiceImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private StatelessSession session;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookImportServiceImpl importService;
+
+    @BeforeEach
+    public void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        importService = new BookImportServiceImpl(entityManagerFactory, new BookRequestMapperImpl(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), eventPublisher, 2);
+    }
+
+    @Test
+    public void testImportCsv_InsertsValidRowsInChunks() {
+        stubSession();
+        String csv = """
+                title,author,genre,isbn,publicationDate,available
+                First,Author,Fiction,1111111111,2020-01-01,true
+                Second,Author,Fiction,2222222222,2020-01-01,false
+                Third,Author,Fiction,3333333333,2020-01-01,true
+                """;
+
+        BookImportResponse result = importService.importBooks(stream(csv), BookImportFormat.CSV);
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        ArgumentCaptor<Book> inserted = ArgumentCaptor.forClass(Book.class);
+        verify(session, times(3)).insert(inserted.capture());
+        assertEquals(List.of("First", "Second", "Third"),
+                inserted.getAllValues().stream().map(Book::getTitle).toList());
+        assertFalse(inserted.getAllValues().get(1).isAvailable());
+        verify(sessionFactory, times(2)).openStatelessSession();
+        verify(transaction, times(2)).commit();
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    public void testImportNdjson_ReportsRejectedRows() {
+        stubSession();
+        String ndjson = """
+                {"title":"Valid","author":"Author","genre":"Fiction","isbn":"1111111111","publicationDate":"2020-01-01"}
+                {"title":"","author":"Author","genre":"Fiction","isbn":"12","publicationDate":"2020-01-01"}
+                {"title":"Broken",
+
+                {"title":"Dated","author":"Author","genre":"Fiction","isbn":"2222222222","publicationDate":"not-a-date"}
+                """;
+
+        BookImportResponse result =
+                importService.importBooks(stream(ndjson), BookImportFormat.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(2L, 3L, 5L),
+                result.errors().stream().map(BookImportResponse.RowError::row).toList());
+        assertEquals("isbn: ISBN must be 10 or 13 digits.; title: Title is required.",
+                result.errors().get(0).message());
+        verify(session, times(1)).insert(any(Book.class));
+    }
+
+    @Test
+    public void testImport_RejectsWholeChunkWhenInsertFails() {
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(transaction.isActive()).thenReturn(true);
+        doThrow(new IllegalStateException("constraint violated")).when(transaction).commit();
+        String csv = """
+                title,author,genre,isbn,publicationDate,available
+                First,Author,Fiction,1111111111,2020-01-01,true
+                """;
+
+        BookImportResponse result = importService.importBooks(stream(csv), BookImportFormat.CSV);
+
+        assertEquals(0, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(1L, result.errors().get(0).row());
+        verify(transaction).rollback();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private void stubSession() {
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,28 +4,58 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Example;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import com.aylinaygul.librarymanagementapp.cache.BookCache;
+import com.aylinaygul.librarymanagementapp.model.dto.request.BookCursor;
 import com.aylinaygul.librarymanagementapp.model.dto.request.BookRequest;
+import com.aylinaygul.librarymanagementapp.model.dto.request.PopularityWindow;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookAvailabilityResponse;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.FacetsResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.PopularBookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.SuggestionResponse;
 import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
 import com.aylinaygul.librarymanagementapp.model.mapper.BookRequestMapper;
 import com.aylinaygul.librarymanagementapp.model.mapper.BookResponseMapper;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.search.AvailabilityIndex;
+import com.aylinaygul.librarymanagementapp.search.BookSearchIndex;
+import com.aylinaygul.librarymanagementapp.search.CatalogVersion;
+import com.aylinaygul.librarymanagementapp.search.FacetIndex;
+import com.aylinaygul.librarymanagementapp.search.FuzzyIndex;
+import com.aylinaygul.librarymanagementapp.search.IsbnIndex;
+import com.aylinaygul.librarymanagementapp.search.RelevanceIndex;
+import com.aylinaygul.librarymanagementapp.popularity.PopularityTracker;
+import com.aylinaygul.librarymanagementapp.search.SuggestIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceImplTest {
@@ -39,6 +69,49 @@ public class BookServiceImplTest {
     @Mock
     private BookResponseMapper bookResponseMapper;
 
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @Mock
+    private ArchivedBorrowRepository archivedBorrowRepository;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private IsbnIndex isbnIndex;
+
+    @Mock
+    private FacetIndex facetIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private PopularityTracker popularityTracker;
+
+    @Mock
+    private FuzzyIndex fuzzyIndex;
+
+    @Mock
+    private RelevanceIndex relevanceIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Spy
+    private BookCache bookCache = new BookCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(10), Duration.ofSeconds(30));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -49,14 +122,13 @@ public class BookServiceImplTest {
     @BeforeEach
     public void setUp() {
         bookRequest = new BookRequest("Test Book Title", "Test Author", "Fiction", "1234567890",
-                LocalDate.of(2020, 1, 1), true);
+                LocalDate.of(2020, 1, 1), true, null);
 
         book = new Book(UUID.randomUUID(), "Test Book Title", "Test Author", "Fiction",
-                "1234567890", LocalDate.of(2020, 1, 1), true, null);
+                "1234567890", LocalDate.of(2020, 1, 1), true, 1, 1, 0, null);
 
         bookResponse = new BookResponse(book.getId(), book.getTitle(), book.getAuthor(),
-                book.getGenre(), book.getIsbn(), book.getPublicationDate(), book.isAvailable(),
-                book.getRecords());
+                book.getGenre(), book.getIsbn(), book.getPublicationDate(), book.isAvailable());
     }
 
     @Test
@@ -72,22 +144,107 @@ public class BookServiceImplTest {
         verify(bookRepository).save(book);
         verify(bookRequestMapper).toEntity(bookRequest);
         verify(bookResponseMapper).toDTO(book);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
     public void testGetAllBooks() {
-        List<Book> books = List.of(book);
         List<BookResponse> bookResponses = List.of(bookResponse);
-        when(bookRepository.findAll()).thenReturn(books);
-        when(bookResponseMapper.toDTOList(books)).thenReturn(bookResponses);
+        when(bookRepository.findAllSummaries()).thenReturn(bookResponses);
 
-        List<BookResponse> result = bookService.getAllBooks();
+        List<BookResponse> result = bookService.getAllBooks(false);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(bookResponse, result.get(0));
-        verify(bookRepository).findAll();
-        verify(bookResponseMapper).toDTOList(books);
+        verify(bookRepository).findAllSummaries();
+        verifyNoInteractions(borrowRepository);
+    }
+
+    @Test
+    public void testGetAllBooks_IncludeRecords() {
+        BorrowResponse record = BorrowResponse.builder().id(UUID.randomUUID())
+                .bookId(book.getId()).status(BorrowStatus.RETURNED).build();
+        when(bookRepository.findAllSummaries()).thenReturn(List.of(bookResponse));
+        when(borrowRepository.findResponsesByBookIdIn(List.of(book.getId())))
+                .thenReturn(List.of(record));
+
+        List<BookResponse> result = bookService.getAllBooks(true);
+
+        assertEquals(List.of(record), result.get(0).records());
+        verify(borrowRepository).findResponsesByBookIdIn(List.of(book.getId()));
+        verify(archivedBorrowRepository).findResponsesByBookIdIn(List.of(book.getId()));
+    }
+
+    @Test
+    public void testStreamAllBooks() {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+        when(bookResponseMapper.toDTO(book)).thenReturn(bookResponse);
+
+        List<BookResponse> streamed = new ArrayList<>();
+        bookService.streamAllBooks(streamed::add);
+
+        assertEquals(List.of(bookResponse), streamed);
+        verify(entityManager).detach(book);
+    }
+
+    @Test
+    public void testUpdateBook_ResizesCopiesAroundLoans() {
+        book.setTotalCopies(3);
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        BookRequest resize = new BookRequest("Test Book Title", "Test Author", "Fiction",
+                "1234567890", LocalDate.of(2020, 1, 1), true, 5);
+
+        bookService.updateBook(book.getId(), resize);
+
+        assertEquals(5, book.getTotalCopies());
+        assertEquals(3, book.getAvailableCopies());
+        assertTrue(book.isAvailable());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    public void testUpdateBook_UnavailableWithdrawsShelfCopies() {
+        book.setTotalCopies(3);
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        BookRequest withdraw = new BookRequest("Test Book Title", "Test Author", "Fiction",
+                "1234567890", LocalDate.of(2020, 1, 1), false, null);
+
+        bookService.updateBook(book.getId(), withdraw);
+
+        assertEquals(2, book.getTotalCopies());
+        assertEquals(0, book.getAvailableCopies());
+        assertFalse(book.isAvailable());
+    }
+
+    @Test
+    public void testUpdateBook_LeavesCopiesWhenAvailabilityOmitted() {
+        book.setTotalCopies(3);
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        BookRequest rename = new BookRequest("Renamed", "Test Author", "Fiction", "1234567890",
+                LocalDate.of(2020, 1, 1), null, null);
+
+        bookService.updateBook(book.getId(), rename);
+
+        assertEquals(3, book.getTotalCopies());
+        assertEquals(1, book.getAvailableCopies());
+        assertTrue(book.isAvailable());
+    }
+
+    @Test
+    public void testUpdateBook_RejectsFewerCopiesThanOnLoan() {
+        book.setTotalCopies(3);
+        book.setAvailableCopies(0);
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        BookRequest shrink = new BookRequest("Test Book Title", "Test Author", "Fiction",
+                "1234567890", LocalDate.of(2020, 1, 1), true, 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.updateBook(book.getId(), shrink));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -99,6 +256,7 @@ public class BookServiceImplTest {
 
         verify(bookRepository).findById(bookId);
         verify(bookRepository).delete(book);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
@@ -110,18 +268,11 @@ public class BookServiceImplTest {
         int page = 0;
         int size = 10;
 
-        Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Book probe = new Book();
-        probe.setTitle(title);
-        probe.setAuthor(author);
-        probe.setIsbn(isbn);
-        probe.setGenre(genre);
-
-        Example<Book> example = Example.of(probe);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
-
-        when(bookRepository.findAll(any(Example.class), any(Pageable.class))).thenReturn(bookPage);
-        when(bookResponseMapper.toDTO(book)).thenReturn(bookResponse);
+        BookSearchIndex.Query query = new BookSearchIndex.Query(title, author, isbn, genre);
+        when(bookSearchIndex.search(query, 0, size))
+                .thenReturn(new BookSearchIndex.Result(List.of(book.getId()), 1));
+        when(bookRepository.findSummariesByIdIn(List.of(book.getId())))
+                .thenReturn(List.of(bookResponse));
 
         Page<BookResponse> result = bookService.searchBooks(title, author, isbn, genre, page, size);
 
@@ -129,32 +280,231 @@ public class BookServiceImplTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(bookResponse, result.getContent().get(0));
 
-        verify(bookRepository).findAll(any(Example.class), any(Pageable.class));
-        verify(bookResponseMapper).toDTO(book);
+        verify(bookSearchIndex).search(query, 0, size);
+        verify(bookRepository).findSummariesByIdIn(List.of(book.getId()));
+    }
+
+    @Test
+    public void testFuzzySearchBooks() {
+        UUID otherId = UUID.randomUUID();
+        BookResponse other = new BookResponse(otherId, "Other", "Leo Tolstoy", "Fiction",
+                "0987654321", LocalDate.of(2021, 1, 1), true);
+        when(fuzzyIndex.search("tolstoi", 0, 10))
+                .thenReturn(new BookSearchIndex.Result(List.of(otherId, book.getId()), 2));
+        when(bookRepository.findSummariesByIdIn(List.of(otherId, book.getId())))
+                .thenReturn(List.of(bookResponse, other));
+
+        Page<BookResponse> result = bookService.fuzzySearchBooks("tolstoi", 0, 10);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(other, bookResponse), result.getContent());
+    }
+
+    @Test
+    public void testRankedSearchBooks() {
+        UUID otherId = UUID.randomUUID();
+        BookResponse other = new BookResponse(otherId, "Peace", "Someone", "Fiction",
+                "0987654321", LocalDate.of(2021, 1, 1), true);
+        when(relevanceIndex.search("peace", 10, 10))
+                .thenReturn(new BookSearchIndex.Result(List.of(otherId, book.getId()), 12));
+        when(bookRepository.findSummariesByIdIn(List.of(otherId, book.getId())))
+                .thenReturn(List.of(bookResponse, other));
+
+        Page<BookResponse> result = bookService.rankedSearchBooks("peace", 1, 10);
+
+        assertEquals(12, result.getTotalElements());
+        assertEquals(List.of(other, bookResponse), result.getContent());
     }
 
     @Test
     public void testGetBookById_BookFound() {
         UUID bookId = UUID.randomUUID();
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        when(bookResponseMapper.toDTO(book)).thenReturn(bookResponse);
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.of(3L));
+        when(bookRepository.findSummaryById(bookId)).thenReturn(Optional.of(bookResponse));
 
-        BookResponse result = bookService.getBookById(bookId);
+        BookResponse result = bookService.getBookById(bookId, false);
 
         assertNotNull(result);
         assertEquals(bookResponse, result);
-        verify(bookRepository).findById(bookId);
-        verify(bookResponseMapper).toDTO(book);
+        assertNull(result.records());
+        verify(bookRepository).findSummaryById(bookId);
+    }
+
+    @Test
+    public void testGetBookById_ServedFromCacheUntilInvalidated() {
+        UUID bookId = book.getId();
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.of(3L));
+        when(bookRepository.findSummaryById(bookId)).thenReturn(Optional.of(bookResponse));
+
+        bookService.getBookById(bookId, false);
+        bookService.getBookById(bookId, false);
+        verify(bookRepository, times(1)).findSummaryById(bookId);
+
+        bookCache.onBookChanged(BookChangedEvent.deleted(book));
+        bookService.getBookById(bookId, false);
+        verify(bookRepository, times(2)).findSummaryById(bookId);
+    }
+
+    @Test
+    public void testGetBookById_CachesUnknownIds() {
+        UUID bookId = UUID.randomUUID();
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.empty());
+
+        assertNull(bookService.getBookById(bookId, false));
+        assertNull(bookService.getBookById(bookId, false));
+
+        verify(bookRepository, times(1)).findVersionById(bookId);
+        verify(bookRepository, never()).findSummaryById(bookId);
+    }
+
+    @Test
+    public void testGetBookById_IncludeRecords() {
+        UUID bookId = book.getId();
+        BorrowResponse record = BorrowResponse.builder().id(UUID.randomUUID()).bookId(bookId)
+                .status(BorrowStatus.BORROWED).build();
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.of(3L));
+        when(bookRepository.findSummaryById(bookId)).thenReturn(Optional.of(bookResponse));
+        when(borrowRepository.findResponsesByBookIdIn(List.of(bookId)))
+                .thenReturn(List.of(record));
+
+        BookResponse result = bookService.getBookById(bookId, true);
+
+        assertEquals(List.of(record), result.records());
     }
 
     @Test
     public void testGetBookById_BookNotFound() {
         UUID bookId = UUID.randomUUID();
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.empty());
 
-        BookResponse result = bookService.getBookById(bookId);
+        BookResponse result = bookService.getBookById(bookId, false);
 
         assertNull(result);
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findVersionById(bookId);
+    }
+
+    @Test
+    public void testGetBookVersion_SharesCachedEntry() {
+        UUID bookId = book.getId();
+        when(bookRepository.findVersionById(bookId)).thenReturn(Optional.of(3L));
+        when(bookRepository.findSummaryById(bookId)).thenReturn(Optional.of(bookResponse));
+
+        assertEquals(3L, bookService.getBookVersion(bookId));
+        assertEquals(bookResponse, bookService.getBookById(bookId, false));
+        assertNull(bookService.getBookVersion(UUID.randomUUID()));
+
+        verify(bookRepository, times(1)).findVersionById(bookId);
+        verify(bookRepository, times(1)).findSummaryById(bookId);
+    }
+
+    @Test
+    public void testGetCatalogVersion() {
+        when(catalogVersion.current()).thenReturn("abc-7");
+
+        assertEquals("abc-7", bookService.getCatalogVersion());
+    }
+
+    @Test
+    public void testGetAvailability() {
+        BookAvailabilityResponse availability =
+                new BookAvailabilityResponse(book.getId(), true, 2, 3);
+        when(availabilityIndex.get(book.getId())).thenReturn(availability);
+
+        assertEquals(availability, bookService.getAvailability(book.getId()));
+        assertNull(bookService.getAvailability(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testGetBookByIsbn() {
+        when(isbnIndex.get("1234567890")).thenReturn(book.getId());
+        when(bookRepository.findVersionById(book.getId())).thenReturn(Optional.of(3L));
+        when(bookRepository.findSummaryById(book.getId())).thenReturn(Optional.of(bookResponse));
+
+        assertEquals(bookResponse, bookService.getBookByIsbn("1234567890"));
+        assertNull(bookService.getBookByIsbn("9999999999"));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBookByIsbn("12345"));
+    }
+
+    @Test
+    public void testGetFacets() {
+        FacetsResponse facets = new FacetsResponse(Map.of("Fiction", 1L), Map.of(), 1, 0);
+        when(facetIndex.facets(10)).thenReturn(facets);
+
+        assertEquals(facets, bookService.getFacets(10));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getFacets(0));
+    }
+
+    @Test
+    public void testSuggest() {
+        List<SuggestionResponse> suggestions = List.of(
+                new SuggestionResponse("War and Peace", SuggestionResponse.Type.TITLE, 3));
+        when(suggestIndex.suggest("war", 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, bookService.suggest("war", 5));
+        assertThrows(IllegalArgumentException.class, () -> bookService.suggest("war", 11));
+    }
+
+    @Test
+    public void testGetPopularBooks() {
+        List<PopularBookResponse> popular = List.of(new PopularBookResponse(book.getId(),
+                book.getTitle(), book.getAuthor(), 12, 0));
+        when(popularityTracker.top(PopularityWindow.MONTH, 5)).thenReturn(popular);
+
+        assertEquals(popular, bookService.getPopularBooks(PopularityWindow.MONTH, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.getPopularBooks(PopularityWindow.WEEK, 0));
+        assertThrows(IllegalArgumentException.class, () -> bookService
+                .getPopularBooks(PopularityWindow.WEEK, PopularityTracker.MAX_LIMIT + 1));
+    }
+
+    @Test
+    public void testGetBooksAfter_FirstSlice() {
+        when(bookRepository.findFirstSliceOrderByTitle(PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 1), true));
+
+        CursorPageResponse<BookResponse> result = bookService.getBooksAfter(null, 1);
+
+        assertEquals(List.of(bookResponse), result.content());
+        assertTrue(result.hasNext());
+        assertEquals(BookCursor.at(book.getTitle(), book.getId()),
+                BookCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    public void testGetBooksAfter_ContinuesFromCursor() {
+        BookCursor cursor = new BookCursor("A Title", UUID.randomUUID());
+        when(bookRepository.findSliceOrderByTitleAfter(cursor.title(), cursor.id(),
+                PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 10), false));
+
+        CursorPageResponse<BookResponse> result = bookService.getBooksAfter(cursor.encode(), 10);
+
+        assertEquals(List.of(bookResponse), result.content());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    public void testGetBooksAfter_RejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksAfter(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.getBooksAfter("not-a-cursor", 10));
+    }
+
+    @Test
+    public void testSearchBooksAfter() {
+        BookSearchIndex.Query query = new BookSearchIndex.Query("test", null, null, null);
+        UUID nextId = UUID.randomUUID();
+        when(bookSearchIndex.searchAfter(query, null, null, 2))
+                .thenReturn(List.of(book.getId(), nextId));
+        when(bookRepository.findSummariesByIdIn(List.of(book.getId())))
+                .thenReturn(List.of(bookResponse));
+
+        CursorPageResponse<BookResponse> result =
+                bookService.searchBooksAfter("test", null, null, null, null, 1);
+
+        assertEquals(List.of(bookResponse), result.content());
+        assertTrue(result.hasNext());
+        assertEquals(book.getId(), BookCursor.decode(result.nextCursor()).id());
     }
 }
@@ -0,0 +1,122 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.model.exception.BookNotAvailableException;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.service.BorrowService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BorrowConcurrencyIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(BorrowConcurrencyIT.class);
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 25;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> patrons = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < THREADS; i++) {
+            patrons.add(userRepository.save(User.builder().name("patron" + i)
+                    .email("concurrent" + i + "@example.com").password("password")
+                    .role(Role.PATRON).build()));
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        borrowRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll(patrons);
+    }
+
+    @Test
+    void shouldLetExactlyOneOfManyConcurrentBorrowersWin() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long attempts = 0;
+        long started = System.nanoTime();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Book book = bookRepository.save(Book.builder().title("Contended " + round)
+                        .author("Author").genre("Fiction").isbn("1234567890")
+                        .publicationDate(LocalDate.of(2020, 1, 1)).available(true).build());
+
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger winners = new AtomicInteger();
+                AtomicInteger refused = new AtomicInteger();
+                List<Future<?>> borrowers = new ArrayList<>();
+                for (User patron : patrons) {
+                    borrowers.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            borrowService.borrowBook(patron.getId(), book.getId());
+                            winners.incrementAndGet();
+                        } catch (BookNotAvailableException ex) {
+                            refused.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> borrower : borrowers) {
+                    borrower.get(30, TimeUnit.SECONDS);
+                }
+                attempts += borrowers.size();
+
+                assertEquals(1, winners.get(), "round " + round);
+                assertEquals(THREADS - 1, refused.get(), "round " + round);
+                assertFalse(bookRepository.findById(book.getId()).orElseThrow().isAvailable());
+                assertEquals(1, borrowRepository.findResponsesByBookIdIn(List.of(book.getId()))
+                        .stream().filter(record -> record.getStatus() == BorrowStatus.BORROWED)
+                        .count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        logger.info("{} contended borrow attempts in {} s ({} attempts/s)", attempts,
+                String.format("%.2f", seconds), String.format("%.0f", attempts / seconds));
+    }
+}
@@ -1,23 +1,48 @@
 package com.aylinaygul.librarymanagementapp.service.impl;
 
 import com.aylinaygul.librarymanagementapp.model.entity.*;
+import com.aylinaygul.librarymanagementapp.fees.FeeLedger;
+import com.aylinaygul.librarymanagementapp.model.dto.request.HistoryFilter;
+import com.aylinaygul.librarymanagementapp.model.dto.request.LoanCursor;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BatchBorrowResponse.Outcome;
 import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
-import com.aylinaygul.librarymanagementapp.model.mapper.BorrowResponseMapper;
+import com.aylinaygul.librarymanagementapp.model.dto.response.CursorPageResponse;
+import com.aylinaygul.librarymanagementapp.model.event.BookBorrowedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.LoanEvent;
+import com.aylinaygul.librarymanagementapp.model.exception.BookNotAvailableException;
+import com.aylinaygul.librarymanagementapp.model.exception.BookNotFoundException;
+import com.aylinaygul.librarymanagementapp.model.exception.UserNotFoundException;
 import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
 import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+import com.aylinaygul.librarymanagementapp.service.HoldService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +54,9 @@ class BorrowServiceImplTest {
     @Mock
     private BorrowRepository borrowRepository;
 
+    @Mock
+    private ArchivedBorrowRepository archivedBorrowRepository;
+
     @Mock
     private BookRepository bookRepository;
 
@@ -36,7 +64,22 @@ class BorrowServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private BorrowResponseMapper borrowResponseMapper;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private FeeLedger feeLedger;
+
+    @Captor
+    private ArgumentCaptor<List<BorrowRecord>> savedRecords;
 
     private UUID userId;
     private UUID bookId;
@@ -63,40 +106,262 @@ class BorrowServiceImplTest {
 
     @Test
     void borrowBook_ShouldSaveBorrowRecord() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        runInTransaction();
+        book.setAvailable(false);
+        book.setAvailableCopies(0);
+        when(bookRepository.takeCopy(bookId)).thenReturn(1);
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(borrowRepository.saveAndFlush(any(BorrowRecord.class)))
+                .thenAnswer(i -> i.getArguments()[0]);
+
+        borrowService.borrowBook(userId, bookId);
 
+        ArgumentCaptor<BorrowRecord> saved = ArgumentCaptor.forClass(BorrowRecord.class);
+        verify(borrowRepository, times(1)).saveAndFlush(saved.capture());
+        assertEquals(user, saved.getValue().getUser());
+        assertEquals(BorrowStatus.BORROWED, saved.getValue().getStatus());
 
-        when(borrowRepository.save(any(BorrowRecord.class))).thenAnswer(i -> i.getArguments()[0]);
+        ArgumentCaptor<BookChangedEvent> changed = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(changed.capture());
+        assertTrue(changed.getValue().before().available());
+        assertFalse(changed.getValue().after().available());
+        verify(eventPublisher).publishEvent(any(BookBorrowedEvent.class));
+    }
+
+    @Test
+    void borrowBook_ShouldRejectUnavailableBook() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        runInTransaction();
+        when(bookRepository.takeCopy(bookId)).thenReturn(0);
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+
+        assertThrows(BookNotAvailableException.class,
+                () -> borrowService.borrowBook(userId, bookId));
+
+        verify(borrowRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void borrowBook_ShouldRejectUnknownBook() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        runInTransaction();
+        when(bookRepository.takeCopy(bookId)).thenReturn(0);
+        when(bookRepository.existsById(bookId)).thenReturn(false);
+
+        assertThrows(BookNotFoundException.class, () -> borrowService.borrowBook(userId, bookId));
+    }
+
+    @Test
+    void borrowBook_ShouldReportUnknownUser() {
+        assertThrows(UserNotFoundException.class, () -> borrowService.borrowBook(userId, bookId));
+        verifyNoInteractions(bookRepository, borrowRepository, eventPublisher);
+    }
+
+    @Test
+    void borrowBook_ShouldPropagateOtherIntegrityViolations() {
+        runInTransaction();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookRepository.takeCopy(bookId)).thenReturn(1);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(borrowRepository.saveAndFlush(any(BorrowRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_borrow_record"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> borrowService.borrowBook(userId, bookId));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void borrowBook_ShouldRetryWriteConflicts() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        doThrow(new CannotAcquireLockException("lock timeout")).doNothing()
+                .when(transactionTemplate).executeWithoutResult(any());
 
         borrowService.borrowBook(userId, bookId);
 
-        verify(borrowRepository, times(1)).save(any(BorrowRecord.class));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
     }
 
+    @Test
+    void borrowBook_ShouldGiveUpAfterBoundedRetries() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        doThrow(new ObjectOptimisticLockingFailureException(Book.class, bookId))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> borrowService.borrowBook(userId, bookId));
+
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+    }
+
+    private void runInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
 
     @Test
     void returnBook_ShouldUpdateReturnDateAndStatus() {
         borrowRecord.setReturnDate(null);
-        when(borrowRepository.findByUserIdAndBookIdAndStatus(eq(userId), eq(bookId),
-                eq(BorrowStatus.BORROWED))).thenReturn(Optional.of(borrowRecord));
+        when(borrowRepository.findFirstByUserIdAndBookIdAndStatusIn(eq(userId), eq(bookId),
+                eq(BorrowStatus.ON_LOAN))).thenReturn(Optional.of(borrowRecord));
+        when(bookRepository.returnCopy(bookId)).thenReturn(1);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
 
         borrowService.returnBook(userId, bookId);
 
         assertEquals(BorrowStatus.RETURNED, borrowRecord.getStatus());
         assertNotNull(borrowRecord.getReturnDate());
+        ArgumentCaptor<BookChangedEvent> changed = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(changed.capture());
+        assertEquals(0, changed.getValue().before().availableCopies());
+        assertEquals(1, changed.getValue().after().availableCopies());
     }
 
     @Test
-    void getUserBorrowingHistory_ShouldReturnListOfBorrowResponse() {
-        List<BorrowRecord> records = List.of(borrowRecord);
-        when(borrowRepository.findAllByUserIdOrderByBorrowDateDesc(eq(userId))).thenReturn(records);
+    void borrowBook_ShouldLendCopyReservedForReadyHold() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        runInTransaction();
+        book.setAvailable(false);
+        book.setAvailableCopies(0);
+        when(holdService.claimReadyHold(userId, bookId)).thenReturn(true);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findAllById(Set.of(bookId))).thenReturn(List.of(book));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        borrowService.borrowBook(userId, bookId);
+
+        verify(bookRepository, never()).takeCopy(any());
+        verify(borrowRepository).saveAndFlush(any(BorrowRecord.class));
+        verify(bookRepository).touch(Set.of(bookId));
+        ArgumentCaptor<BookChangedEvent> changed = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(changed.capture());
+        assertEquals(changed.getValue().before(), changed.getValue().after());
+        verify(eventPublisher).publishEvent(any(BookBorrowedEvent.class));
+    }
+
+    @Test
+    void returnBook_ShouldCloseOverdueLoan() {
+        borrowRecord.setStatus(BorrowStatus.OVERDUE);
+        when(borrowRepository.findFirstByUserIdAndBookIdAndStatusIn(userId, bookId,
+                BorrowStatus.ON_LOAN)).thenReturn(Optional.of(borrowRecord));
 
+        borrowService.returnBook(userId, bookId);
+
+        assertEquals(BorrowStatus.RETURNED, borrowRecord.getStatus());
+        verify(bookRepository).returnCopy(bookId);
+        verify(feeLedger).chargeReturned(List.of(borrowRecord));
+    }
+
+    @Test
+    void returnBook_ShouldHandCopyToNextHold() {
+        when(borrowRepository.findFirstByUserIdAndBookIdAndStatusIn(userId, bookId,
+                BorrowStatus.ON_LOAN)).thenReturn(Optional.of(borrowRecord));
+        when(holdService.handOffReturnedCopy(bookId)).thenReturn(true);
+        when(bookRepository.findAllById(Set.of(bookId))).thenReturn(List.of(book));
+
+        borrowService.returnBook(userId, bookId);
+
+        assertEquals(BorrowStatus.RETURNED, borrowRecord.getStatus());
+        verify(bookRepository, never()).returnCopy(any());
+        // the copy stays off the shelf, but the book's records changed
+        verify(bookRepository).touch(Set.of(bookId));
+        ArgumentCaptor<BookChangedEvent> changed = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(changed.capture());
+        assertEquals(changed.getValue().before(), changed.getValue().after());
+        verify(eventPublisher).publishEvent(new LoanEvent(LoanEvent.Type.RETURNED,
+                borrowRecord.getId(), userId, bookId, borrowRecord.getReturnDate()));
+    }
+
+    @Test
+    void borrowBook_ShouldRejectSecondCopyForSamePatron() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        runInTransaction();
+        when(borrowRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId,
+                BorrowStatus.ON_LOAN)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> borrowService.borrowBook(userId, bookId));
+
+        verify(bookRepository, never()).takeCopy(any());
+    }
+
+    @Test
+    void borrowBooks_ShouldReportOutcomePerItem() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        Book unavailable = Book.builder().id(UUID.randomUUID()).title("Gone").available(false)
+                .availableCopies(0).build();
+        Book held = Book.builder().id(UUID.randomUUID()).title("Held").available(true).build();
+        UUID missing = UUID.randomUUID();
+        List<UUID> requested =
+                List.of(bookId, unavailable.getId(), held.getId(), missing, bookId);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(bookRepository.findAllByIdInForUpdate(new LinkedHashSet<>(requested)))
+                .thenReturn(List.of(book, unavailable, held));
+        when(borrowRepository.findBookIdsByUserIdAndStatusInAndBookIdIn(eq(userId),
+                eq(BorrowStatus.ON_LOAN), any())).thenReturn(Set.of(held.getId()));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        BatchBorrowResponse response = borrowService.borrowBooks(userId, requested);
+
+        assertEquals(1, response.succeeded());
+        assertEquals(4, response.failed());
+        assertEquals(List.of(Outcome.BORROWED, Outcome.NOT_AVAILABLE, Outcome.ALREADY_BORROWED,
+                Outcome.NOT_FOUND, Outcome.DUPLICATE),
+                response.items().stream().map(BatchBorrowResponse.Item::outcome).toList());
+        assertEquals(0, book.getAvailableCopies());
+        assertFalse(book.isAvailable());
+
+        verify(borrowRepository).saveAll(savedRecords.capture());
+        assertEquals(1, savedRecords.getValue().size());
+        assertEquals(book, savedRecords.getValue().get(0).getBook());
+        verify(borrowRepository).flush();
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(BookBorrowedEvent.class));
+    }
+
+    @Test
+    void borrowBooks_ShouldReportUnknownUser() {
+        assertThrows(UserNotFoundException.class,
+                () -> borrowService.borrowBooks(userId, List.of(bookId)));
+        verifyNoInteractions(bookRepository, borrowRepository, eventPublisher);
+    }
+
+    @Test
+    void returnBooks_ShouldCloseLoansAndRestockCopies() {
+        book.setAvailable(false);
+        book.setAvailableCopies(0);
+        UUID notBorrowed = UUID.randomUUID();
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(bookRepository.findAllByIdInForUpdate(any())).thenReturn(List.of(book));
+        when(borrowRepository.findByUserIdAndStatusInAndBookIdIn(eq(userId),
+                eq(BorrowStatus.ON_LOAN), any())).thenReturn(List.of(borrowRecord));
+
+        BatchBorrowResponse response =
+                borrowService.returnBooks(userId, List.of(bookId, notBorrowed));
+
+        assertEquals(List.of(new BatchBorrowResponse.Item(bookId, Outcome.RETURNED),
+                new BatchBorrowResponse.Item(notBorrowed, Outcome.NOT_BORROWED)),
+                response.items());
+        assertEquals(BorrowStatus.RETURNED, borrowRecord.getStatus());
+        assertNotNull(borrowRecord.getReturnDate());
+        assertEquals(1, book.getAvailableCopies());
+        assertTrue(book.isAvailable());
+        verify(borrowRepository).flush();
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void getUserBorrowingHistory_ShouldReturnListOfBorrowResponse() {
         BorrowResponse response = new BorrowResponse();
         response.setBookId(bookId);
         response.setUserId(userId);
         response.setDueDate(borrowRecord.getDueDate());
-        when(borrowResponseMapper.toDTOList(records)).thenReturn(List.of(response));
+        when(borrowRepository.findResponsesByUserId(eq(userId))).thenReturn(List.of(response));
 
         List<BorrowResponse> responses = borrowService.getUserBorrowingHistory(userId);
 
@@ -107,22 +372,108 @@ class BorrowServiceImplTest {
 
     @Test
     void getOverdueBooks_ShouldReturnOnlyOverdueRecords() {
-        BorrowRecord overdueRecord = BorrowRecord.builder().id(UUID.randomUUID()).book(book)
-                .user(user).status(BorrowStatus.BORROWED).borrowDate(LocalDate.now().minusDays(20))
-                .dueDate(LocalDate.now().minusDays(5)).returnDate(null).build();
-
-        when(borrowRepository.findByStatusAndDueDateBefore(eq(BorrowStatus.BORROWED),
-                eq(LocalDate.now()))).thenReturn(List.of(overdueRecord));
-
         BorrowResponse response = new BorrowResponse();
         response.setBookId(bookId);
         response.setUserId(userId);
-        response.setDueDate(overdueRecord.getDueDate());
-        when(borrowResponseMapper.toDTOList(List.of(overdueRecord))).thenReturn(List.of(response));
+        response.setStatus(BorrowStatus.OVERDUE);
+        response.setDueDate(LocalDate.now().minusDays(5));
+
+        when(borrowRepository.findOverdueResponses()).thenReturn(List.of(response));
 
         List<BorrowResponse> overdueBooks = borrowService.getOverdueBooks();
 
         assertEquals(1, overdueBooks.size());
         assertTrue(overdueBooks.get(0).getDueDate().isBefore(LocalDate.now()));
     }
+
+    @Test
+    void getOverdueBooksAfter_ShouldContinueFromLastDueDateAndId() {
+        BorrowResponse first = BorrowResponse.builder().id(UUID.randomUUID()).bookId(bookId)
+                .dueDate(LocalDate.now().minusDays(5)).status(BorrowStatus.OVERDUE).build();
+        when(borrowRepository.findFirstOverdueSlice(any())).thenReturn(
+                new SliceImpl<>(List.of(first), PageRequest.of(0, 1), true));
+
+        CursorPageResponse<BorrowResponse> page = borrowService.getOverdueBooksAfter(null, 1);
+
+        assertTrue(page.hasNext());
+        LoanCursor cursor = LoanCursor.decode(page.nextCursor());
+        assertEquals(first.getDueDate(), cursor.date());
+        assertEquals(first.getId(), cursor.id());
+
+        when(borrowRepository.findOverdueSliceAfter(eq(first.getDueDate()), eq(first.getId()),
+                any())).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+
+        page = borrowService.getOverdueBooksAfter(page.nextCursor(), 1);
+
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getOverdueBooksAfter_ShouldRejectInvalidLimitAndCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> borrowService.getOverdueBooksAfter(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> borrowService.getOverdueBooksAfter("not-a-cursor", 10));
+        verifyNoInteractions(borrowRepository);
+    }
+
+    @Test
+    void getUserBorrowingHistory_ShouldMergeArchivedLoansNewestFirst() {
+        HistoryFilter filter = new HistoryFilter(LocalDate.now().minusDays(30), null,
+                BorrowStatus.RETURNED);
+        BorrowResponse newest = BorrowResponse.builder().id(UUID.randomUUID()).userId(userId)
+                .borrowDate(LocalDate.now().minusDays(3)).status(BorrowStatus.RETURNED).build();
+        BorrowResponse archived = BorrowResponse.builder().id(UUID.randomUUID()).userId(userId)
+                .borrowDate(LocalDate.now().minusDays(20)).status(BorrowStatus.RETURNED).build();
+        when(borrowRepository.findFirstHistorySliceByUserId(eq(userId), eq(BorrowStatus.RETURNED),
+                eq(filter.from()), isNull(), any()))
+                .thenReturn(new SliceImpl<>(List.of(newest), PageRequest.of(0, 1), false));
+        when(archivedBorrowRepository.findFirstHistorySliceByUserId(eq(userId),
+                eq(BorrowStatus.RETURNED), eq(filter.from()), isNull(), any()))
+                .thenReturn(new SliceImpl<>(List.of(archived), PageRequest.of(0, 1), false));
+
+        CursorPageResponse<BorrowResponse> page =
+                borrowService.getUserBorrowingHistory(userId, filter, null, 1);
+
+        assertEquals(List.of(newest), page.content());
+        assertTrue(page.hasNext());
+        LoanCursor cursor = LoanCursor.decode(page.nextCursor());
+        assertEquals(newest.getBorrowDate(), cursor.date());
+
+        when(borrowRepository.findHistorySliceByUserIdBefore(eq(userId),
+                eq(BorrowStatus.RETURNED), eq(filter.from()), isNull(),
+                eq(newest.getBorrowDate()), eq(newest.getId()), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+        when(archivedBorrowRepository.findHistorySliceByUserIdBefore(eq(userId),
+                eq(BorrowStatus.RETURNED), eq(filter.from()), isNull(),
+                eq(newest.getBorrowDate()), eq(newest.getId()), any()))
+                .thenReturn(new SliceImpl<>(List.of(archived), PageRequest.of(0, 1), false));
+
+        page = borrowService.getUserBorrowingHistory(userId, filter, page.nextCursor(), 1);
+
+        assertEquals(List.of(archived), page.content());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void newestFirst_ShouldOrderIdsLikeTheDatabase() {
+        LocalDate day = LocalDate.now();
+        // the high bit set is negative as a signed long but sorts last in the database
+        BorrowResponse high = BorrowResponse.builder().borrowDate(day)
+                .id(UUID.fromString("f0000000-0000-0000-0000-000000000000")).build();
+        BorrowResponse low = BorrowResponse.builder().borrowDate(day)
+                .id(UUID.fromString("10000000-0000-0000-0000-000000000000")).build();
+
+        List<BorrowResponse> sorted = new ArrayList<>(List.of(low, high));
+        sorted.sort(BorrowResponse.NEWEST_FIRST);
+
+        assertEquals(List.of(high, low), sorted);
+    }
+
+    @Test
+    void historyFilter_ShouldRejectInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HistoryFilter(LocalDate.now(), LocalDate.now().minusDays(1), null));
+    }
 }
@@ -0,0 +1,93 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.BookResponse;
+import com.aylinaygul.librarymanagementapp.model.dto.response.BorrowResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowRecord;
+import com.aylinaygul.librarymanagementapp.model.mapper.BookResponseMapper;
+import com.aylinaygul.librarymanagementapp.model.mapper.BorrowResponseMapper;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.ArchivedBorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @Mock
+    private ArchivedBorrowRepository archivedBorrowRepository;
+
+    @Mock
+    private BookResponseMapper bookResponseMapper;
+
+    @Mock
+    private BorrowResponseMapper borrowResponseMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @Test
+    public void testExportBooks_ClearsPersistenceContextAsItGoes() {
+        List<Book> books = IntStream.range(0, 1200)
+                .mapToObj(i -> Book.builder().id(UUID.randomUUID()).title("Book " + i).build())
+                .toList();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamAll())
+                .thenReturn(books.stream().onClose(() -> closed.set(true)));
+        when(bookResponseMapper.toDTO(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            return new BookResponse(book.getId(), book.getTitle(), null, null, null, null, true);
+        });
+
+        List<BookResponse> exported = new ArrayList<>();
+        exportService.exportBooks(exported::add);
+
+        assertEquals(1200, exported.size());
+        assertEquals("Book 1199", exported.get(1199).title());
+        verify(entityManager, times(2)).clear();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testExportBorrowRecords() {
+        BorrowRecord record = BorrowRecord.builder().id(UUID.randomUUID())
+                .borrowDate(LocalDate.of(2024, 1, 1)).build();
+        BorrowResponse response = BorrowResponse.builder().id(record.getId()).build();
+        when(borrowRepository.streamAll()).thenReturn(Stream.of(record));
+        when(borrowResponseMapper.toDTO(record)).thenReturn(response);
+
+        List<BorrowResponse> exported = new ArrayList<>();
+        exportService.exportBorrowRecords(exported::add);
+
+        assertEquals(List.of(response), exported);
+        verifyNoInteractions(entityManager);
+    }
+}
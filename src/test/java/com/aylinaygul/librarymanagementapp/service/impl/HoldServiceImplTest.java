@@ -0,0 +1,271 @@
+package com.aylinaygul.librarymanagementapp.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aylinaygul.librarymanagementapp.model.dto.response.HoldResponse;
+import com.aylinaygul.librarymanagementapp.model.entity.Book;
+import com.aylinaygul.librarymanagementapp.model.entity.BorrowStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Hold;
+import com.aylinaygul.librarymanagementapp.model.entity.HoldStatus;
+import com.aylinaygul.librarymanagementapp.model.entity.Role;
+import com.aylinaygul.librarymanagementapp.model.entity.User;
+import com.aylinaygul.librarymanagementapp.model.event.BookChangedEvent;
+import com.aylinaygul.librarymanagementapp.model.event.HoldReadyEvent;
+import com.aylinaygul.librarymanagementapp.repository.BookRepository;
+import com.aylinaygul.librarymanagementapp.repository.BorrowRepository;
+import com.aylinaygul.librarymanagementapp.repository.HoldRepository;
+import com.aylinaygul.librarymanagementapp.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HoldServiceImpl holdService;
+
+    private UUID userId;
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new HoldServiceImpl(holdRepository, bookRepository, borrowRepository,
+                userRepository, eventPublisher, transactionTemplate,
+                Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofDays(3), Duration.ofMinutes(1),
+                64);
+        userId = UUID.randomUUID();
+        user = User.builder().id(userId).name("Patron").email("patron@example.com")
+                .password("password").role(Role.PATRON).build();
+        book = Book.builder().id(UUID.randomUUID()).title("Popular Book").available(false)
+                .availableCopies(0).build();
+    }
+
+    @Test
+    void placeHold_ShouldQueueBehindEarlierHolds() {
+        when(bookRepository.findAllByIdInForUpdate(List.of(book.getId()))).thenReturn(List.of(book));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(holdRepository.save(any(Hold.class))).thenAnswer(invocation -> {
+            Hold hold = invocation.getArgument(0);
+            hold.setId(UUID.randomUUID());
+            return hold;
+        });
+        when(holdRepository.findPosition(any())).thenReturn(3L);
+
+        HoldResponse hold = holdService.placeHold(userId, book.getId());
+
+        assertEquals(HoldStatus.WAITING, hold.status());
+        assertEquals(3L, hold.position());
+        assertEquals(NOW, hold.createdAt());
+    }
+
+    @Test
+    void placeHold_ShouldRefuseBooksOnTheShelfAndDuplicates() {
+        when(bookRepository.findAllByIdInForUpdate(List.of(book.getId()))).thenReturn(List.of(book));
+        when(holdRepository.existsByUserIdAndBookIdAndStatusIn(eq(userId), eq(book.getId()),
+                any())).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holdService.placeHold(userId, book.getId()));
+
+        book.setAvailableCopies(1);
+        assertThrows(IllegalArgumentException.class,
+                () -> holdService.placeHold(userId, book.getId()));
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    void placeHold_ShouldRefuseBooksAlreadyOnLoanToTheUser() {
+        when(bookRepository.findAllByIdInForUpdate(List.of(book.getId()))).thenReturn(List.of(book));
+        when(borrowRepository.existsByUserIdAndBookIdAndStatusIn(userId, book.getId(),
+                BorrowStatus.ON_LOAN)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holdService.placeHold(userId, book.getId()));
+    }
+
+    @Test
+    void handOffReturnedCopy_ShouldReserveForOldestWaitingHold() {
+        Hold first = hold(HoldStatus.WAITING);
+        Hold second = hold(HoldStatus.WAITING);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(book.getId(),
+                HoldStatus.WAITING)).thenReturn(Optional.of(first))
+                .thenReturn(Optional.of(second));
+        // the first one was taken by a concurrent return
+        when(holdRepository.markReady(first.getId(), NOW, NOW.plus(Duration.ofDays(3))))
+                .thenReturn(0);
+        when(holdRepository.markReady(second.getId(), NOW, NOW.plus(Duration.ofDays(3))))
+                .thenReturn(1);
+
+        assertTrue(holdService.handOffReturnedCopy(book.getId()));
+
+        ArgumentCaptor<HoldReadyEvent> ready = ArgumentCaptor.forClass(HoldReadyEvent.class);
+        verify(eventPublisher).publishEvent(ready.capture());
+        assertEquals(second.getId(), ready.getValue().holdId());
+        assertEquals(NOW.plus(Duration.ofDays(3)), ready.getValue().expiresAt());
+    }
+
+    @Test
+    void handOffReturnedCopy_ShouldReportEmptyQueue() {
+        when(holdRepository.findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(book.getId(),
+                HoldStatus.WAITING)).thenReturn(Optional.empty());
+
+        assertFalse(holdService.handOffReturnedCopy(book.getId()));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onHoldReady_ShouldTrackPickupDeadline() {
+        holdService.onHoldReady(new HoldReadyEvent(UUID.randomUUID(), book.getId(), userId,
+                NOW.plus(Duration.ofDays(3))));
+
+        assertEquals(1, holdService.pendingExpiries());
+    }
+
+    @Test
+    void claimReadyHold_ShouldOnlyWinOnce() {
+        Hold ready = hold(HoldStatus.READY);
+        when(holdRepository.findFirstByUserIdAndBookIdAndStatusIn(userId, book.getId(),
+                List.of(HoldStatus.READY))).thenReturn(Optional.of(ready));
+        when(holdRepository.transition(ready.getId(), HoldStatus.READY, HoldStatus.FULFILLED))
+                .thenReturn(1, 0);
+
+        assertTrue(holdService.claimReadyHold(userId, book.getId()));
+        assertFalse(holdService.claimReadyHold(userId, book.getId()));
+    }
+
+    @Test
+    void claimReadyHolds_ShouldReturnClaimedBooks() {
+        Hold ready = hold(HoldStatus.READY);
+        when(holdRepository.findByUserIdAndStatusAndBookIdIn(userId, HoldStatus.READY,
+                Set.of(book.getId()))).thenReturn(List.of(ready));
+        when(holdRepository.transition(ready.getId(), HoldStatus.READY, HoldStatus.FULFILLED))
+                .thenReturn(1);
+
+        assertEquals(Set.of(book.getId()),
+                holdService.claimReadyHolds(userId, Set.of(book.getId())));
+    }
+
+    @Test
+    void cancelHold_ShouldPassReservedCopyOnOrShelveIt() {
+        Hold ready = hold(HoldStatus.READY);
+        when(holdRepository.findFirstByUserIdAndBookIdAndStatusIn(eq(userId), eq(book.getId()),
+                any())).thenReturn(Optional.of(ready));
+        when(holdRepository.transition(ready.getId(), HoldStatus.READY, HoldStatus.CANCELLED))
+                .thenReturn(1);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(book.getId(),
+                HoldStatus.WAITING)).thenReturn(Optional.empty());
+        when(bookRepository.returnCopy(book.getId())).thenReturn(1);
+        Book restocked = Book.builder().id(book.getId()).title("Popular Book").available(true)
+                .availableCopies(1).build();
+        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(restocked));
+
+        holdService.cancelHold(userId, book.getId());
+
+        ArgumentCaptor<BookChangedEvent> changed = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(changed.capture());
+        assertEquals(0, changed.getValue().before().availableCopies());
+        assertEquals(1, changed.getValue().after().availableCopies());
+    }
+
+    @Test
+    void cancelHold_ShouldRejectMissingHold() {
+        when(holdRepository.findFirstByUserIdAndBookIdAndStatusIn(eq(userId), eq(book.getId()),
+                any())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holdService.cancelHold(userId, book.getId()));
+    }
+
+    @Test
+    void expire_ShouldPassCopyToNextHold() {
+        runInTransaction();
+        Hold ready = hold(HoldStatus.READY);
+        Hold next = hold(HoldStatus.WAITING);
+        when(holdRepository.findById(ready.getId())).thenReturn(Optional.of(ready));
+        when(holdRepository.expire(ready.getId(), NOW)).thenReturn(1);
+        when(holdRepository.findFirstByBookIdAndStatusOrderByCreatedAtAscIdAsc(book.getId(),
+                HoldStatus.WAITING)).thenReturn(Optional.of(next));
+        when(holdRepository.markReady(eq(next.getId()), eq(NOW), any())).thenReturn(1);
+
+        holdService.expire(ready.getId());
+
+        verify(bookRepository, never()).returnCopy(any());
+        verify(eventPublisher).publishEvent(any(HoldReadyEvent.class));
+    }
+
+    @Test
+    void expire_ShouldIgnoreHoldsPickedUpInTime() {
+        runInTransaction();
+        Hold fulfilled = hold(HoldStatus.FULFILLED);
+        when(holdRepository.findById(fulfilled.getId())).thenReturn(Optional.of(fulfilled));
+        when(holdRepository.expire(fulfilled.getId(), NOW)).thenReturn(0);
+
+        holdService.expire(fulfilled.getId());
+
+        verifyNoInteractions(eventPublisher);
+        verify(bookRepository, never()).returnCopy(any());
+    }
+
+    @Test
+    void expire_ShouldRetryAfterFailure() {
+        doThrow(new IllegalStateException("database unavailable")).when(transactionTemplate)
+                .executeWithoutResult(any());
+
+        holdService.expire(UUID.randomUUID());
+
+        assertEquals(1, holdService.pendingExpiries());
+    }
+
+    private Hold hold(HoldStatus status) {
+        return Hold.builder().id(UUID.randomUUID()).book(book).user(user).status(status)
+                .createdAt(NOW.minusSeconds(60)).build();
+    }
+
+    private void runInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
@@ -51,43 +51,38 @@ public class UserServiceTest {
 
     @Test
     public void testGetAllUsers() {
-        List<User> users = List.of(user);
         List<UserResponse> userResponses = List.of(userResponse);
 
-        when(userRepository.findAll()).thenReturn(users);
-        when(userResponseMapper.toDTOList(users)).thenReturn(userResponses);
+        when(userRepository.findAllResponses()).thenReturn(userResponses);
 
         List<UserResponse> result = userService.getAllUsers();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(userResponse, result.get(0));
-        verify(userRepository, times(1)).findAll();
-        verify(userResponseMapper, times(1)).toDTOList(users);
+        verify(userRepository, times(1)).findAllResponses();
     }
 
     @Test
     public void testGetUserById() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userResponseMapper.toDTO(user)).thenReturn(userResponse);
+        when(userRepository.findResponseById(userId)).thenReturn(Optional.of(userResponse));
 
         UserResponse result = userService.getUserById(userId);
 
         assertNotNull(result);
         assertEquals(userResponse, result);
-        verify(userRepository, times(1)).findById(userId);
-        verify(userResponseMapper, times(1)).toDTO(user);
+        verify(userRepository, times(1)).findResponseById(userId);
     }
 
     @Test
     public void testGetUserById_UserNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(userId)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception =
                 assertThrows(IllegalArgumentException.class, () -> userService.getUserById(userId));
 
         assertEquals("User not found with ID: " + userId, exception.getMessage());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).findResponseById(userId);
     }
 
 